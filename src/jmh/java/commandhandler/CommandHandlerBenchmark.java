@@ -0,0 +1,64 @@
+package commandhandler;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks dispatching input to commands, separately from the work the commands do.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandHandlerBenchmark {
+    private static final String[] COMMAND_NAMES = {
+        "bye", "list", "mark", "unmark", "todo", "deadline", "event", "delete", "save", "load", "saveto", "loadfrom",
+        "find"
+    };
+
+    private CommandHandler commandHandler;
+
+    /**
+     * Creates a command handler with as many commands as Kipp, each of which does no work.
+     */
+    @Setup
+    public void setUp() {
+        this.commandHandler = CommandHandler.createCommandHandler(true);
+        for (String commandName : COMMAND_NAMES) {
+            this.commandHandler.addCommand(Command.createCommandWithArgs(commandName, "<args>", "does nothing",
+                    args -> CommandResult.createSuccessResult(args)));
+        }
+    }
+
+    /**
+     * Dispatches input with arguments to a command.
+     *
+     * @return The response of the command.
+     */
+    @Benchmark
+    public String dispatchCommand() {
+        return this.commandHandler.getResponse("deadline Return to Cooper Station /by 2026-03-01");
+    }
+
+    /**
+     * Dispatches input naming no command.
+     *
+     * @return The response to the unrecognized command.
+     */
+    @Benchmark
+    public String dispatchUnknownCommand() {
+        return this.commandHandler.getResponse("dock Endurance");
+    }
+}
@@ -0,0 +1,66 @@
+package kipp;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tasklist.SampleTaskLists;
+
+/**
+ * Benchmarks the find command on task lists of different lengths, for keywords found in few or no tasks.
+ * The index of the task list is built by the first find during warmup, so later finds only look it up.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FindBenchmark {
+    @Param({"1000", "10000", "100000"})
+    private int taskCount;
+
+    private Kipp kipp;
+
+    /**
+     * Creates Kipp, and adds the sample tasks through the todo command.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.kipp = Kipp.createKipp("benchmark");
+        for (int i = 0; i < this.taskCount; i++) {
+            this.kipp.getResponse("todo " + SampleTaskLists.createTask(i).getTaskName());
+        }
+    }
+
+    /**
+     * Finds the tasks containing a keyword found in one in every ten tasks.
+     *
+     * @return The response to the find command.
+     */
+    @Benchmark
+    public String findRareKeyword() {
+        return this.kipp.getResponse("find " + SampleTaskLists.RARE_KEYWORD);
+    }
+
+    /**
+     * Finds the tasks containing a keyword found in no task, which scans the whole list without rendering any.
+     *
+     * @return The response to the find command.
+     */
+    @Benchmark
+    public String findMissingKeyword() {
+        return this.kipp.getResponse("find gargantua");
+    }
+}
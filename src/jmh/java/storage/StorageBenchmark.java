@@ -0,0 +1,95 @@
+package storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tasklist.SampleTaskLists;
+import tasklist.TaskList;
+
+/**
+ * Benchmarks saving and loading whole task lists of different lengths through {@link Storage}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StorageBenchmark {
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    private int taskCount;
+
+    @Param({"false", "true"})
+    private boolean isCompressed;
+
+    private Path directory;
+    private Storage<TaskList> storage;
+    private TaskList taskList;
+
+    /**
+     * Builds the task list, and saves it once so that there is a file to load.
+     *
+     * @throws IOException If there is an error creating the directory or saving the task list.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("storage-benchmark");
+        this.storage = new Storage<>(this.directory.resolve("tasks.txt").toString(), TaskList.class,
+                this.isCompressed);
+        this.taskList = SampleTaskLists.createTaskList(this.taskCount);
+        this.storage.save(this.taskList);
+    }
+
+    /**
+     * Removes the directory holding the saved task list.
+     *
+     * @throws IOException If there is an error removing the directory.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(this.directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Saves the whole task list.
+     *
+     * @throws StorageException If there is an error saving the task list.
+     */
+    @Benchmark
+    public void save() throws StorageException {
+        this.storage.save(this.taskList);
+    }
+
+    /**
+     * Loads the whole task list.
+     *
+     * @return The task list loaded.
+     * @throws StorageException If there is an error loading the task list.
+     */
+    @Benchmark
+    public TaskList load() throws StorageException {
+        return this.storage.load();
+    }
+}
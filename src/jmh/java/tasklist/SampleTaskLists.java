@@ -0,0 +1,53 @@
+package tasklist;
+
+import java.time.LocalDate;
+
+/**
+ * Builds task lists of any length for benchmarks, cycling through to-dos, deadlines and events.
+ */
+public final class SampleTaskLists {
+    /**
+     * Word found in the name of one in every ten tasks, for benchmarks that search task names.
+     */
+    public static final String RARE_KEYWORD = "endurance";
+
+    private static final LocalDate FIRST_DATE = LocalDate.of(2024, 1, 1);
+
+    private SampleTaskLists() {
+    }
+
+    /**
+     * Returns the sample task at an index, which is the same for the same index every time.
+     *
+     * @param taskIdx The index of the task.
+     * @return A new task.
+     */
+    public static Task createTask(int taskIdx) {
+        String taskName = String.format("Mission %d to %s", taskIdx,
+                taskIdx % 10 == 0 ? "dock with the " + RARE_KEYWORD : "explore planet " + taskIdx % 97);
+        LocalDate date = FIRST_DATE.plusDays(taskIdx % 730);
+        Task task = switch (taskIdx % 3) {
+        case 0 -> new ToDoTask(taskName);
+        case 1 -> new DeadlineTask(taskName, date);
+        default -> new EventTask(taskName, date, date.plusDays(taskIdx % 5));
+        };
+        if (taskIdx % 4 == 0) {
+            task.setComplete();
+        }
+        return task;
+    }
+
+    /**
+     * Returns a new task list holding the first sample tasks.
+     *
+     * @param taskCount The number of tasks.
+     * @return The new task list.
+     */
+    public static TaskList createTaskList(int taskCount) {
+        TaskList taskList = new TaskList();
+        for (int i = 0; i < taskCount; i++) {
+            taskList.addTask(SampleTaskLists.createTask(i));
+        }
+        return taskList;
+    }
+}
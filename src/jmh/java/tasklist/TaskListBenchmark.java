@@ -0,0 +1,75 @@
+package tasklist;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks adding, deleting and rendering tasks in task lists of different lengths.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskListBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int taskCount;
+
+    private TaskList taskList;
+    private Task extraTask;
+
+    /**
+     * Builds a fresh task list for every iteration, so that tasks added in one iteration do not slow down the next.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        this.taskList = SampleTaskLists.createTaskList(this.taskCount);
+        this.extraTask = SampleTaskLists.createTask(this.taskCount);
+    }
+
+    /**
+     * Adds a task to the end of the task list.
+     *
+     * @return The task list, so that the work is not optimized away.
+     */
+    @Benchmark
+    public TaskList addTask() {
+        this.taskList.addTask(this.extraTask);
+        return this.taskList;
+    }
+
+    /**
+     * Deletes the task in the middle of the task list, and adds it back to the end to keep the length steady.
+     *
+     * @return The task deleted.
+     */
+    @Benchmark
+    public Task deleteTask() {
+        Task deletedTask = this.taskList.deleteTask(this.taskList.getLength() / 2);
+        this.taskList.addTask(deletedTask);
+        return deletedTask;
+    }
+
+    /**
+     * Renders the whole task list, as listed to the user.
+     *
+     * @return The rendered task list.
+     */
+    @Benchmark
+    public String renderTaskList() {
+        return this.taskList.toString();
+    }
+}
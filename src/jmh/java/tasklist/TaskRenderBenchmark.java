@@ -0,0 +1,75 @@
+package tasklist;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks listing a compact task list again, as when the same page is listed twice, which renders through the
+ * list so that the strings rendered before are reused, against rendering each task read from the list, as listing
+ * did before. Allocation per operation is reported by running with the gc profiler.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskRenderBenchmark {
+    @Param({"1000", "100000"})
+    private int taskCount;
+
+    private TaskList taskList;
+
+    /**
+     * Creates the sample compact task list, and lists it once.
+     *
+     * @throws IOException Never, as the list is rendered to a string.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        this.taskList = TaskList.createCompactTaskList();
+        for (int i = 0; i < this.taskCount; i++) {
+            this.taskList.addTask(SampleTaskLists.createTask(i));
+        }
+        this.taskList.render(new StringBuilder(), 0, this.taskCount);
+    }
+
+    /**
+     * Lists the task list again, reusing the strings its tasks were rendered as.
+     *
+     * @return The length of the listed tasks, so that the work is not optimized away.
+     * @throws IOException Never, as the list is rendered to a string.
+     */
+    @Benchmark
+    public int renderTaskList() throws IOException {
+        StringBuilder out = new StringBuilder();
+        this.taskList.render(out, 0, this.taskCount);
+        return out.length();
+    }
+
+    /**
+     * Renders every task read from the task list, each of which is created anew and has not been rendered yet.
+     *
+     * @return The total length of the rendered tasks, so that the work is not optimized away.
+     */
+    @Benchmark
+    public long renderReadTasks() {
+        long length = 0;
+        for (int i = 0; i < this.taskCount; i++) {
+            length += this.taskList.getTask(i).toString().length();
+        }
+        return length;
+    }
+}
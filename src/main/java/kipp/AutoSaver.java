@@ -0,0 +1,103 @@
+package kipp;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import storage.StorageException;
+
+/**
+ * Saves changes in the background once they have been made, so that saving never delays a response.
+ * Changes made within the save delay of each other are coalesced and written together in a single save.
+ */
+class AutoSaver {
+    private final ScheduledExecutorService executor;
+    private final Duration saveDelay;
+    private final SaveFunction saveFunction;
+    /**
+     * Lock held for the whole of a save, so that a save requested in the foreground waits for one already running.
+     */
+    private final Object saveLock;
+    private boolean isDirty;
+    private ScheduledFuture<?> scheduledSave;
+
+    /**
+     * Constructor for AutoSaver class.
+     *
+     * @param saveDelay    The time to wait after a change before saving it, during which further changes coalesce.
+     * @param saveFunction The function that saves the changes.
+     */
+    AutoSaver(Duration saveDelay, SaveFunction saveFunction) {
+        assert !saveDelay.isNegative() : "Save delay cannot be negative.";
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kipp-autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.saveDelay = saveDelay;
+        this.saveFunction = saveFunction;
+        this.saveLock = new Object();
+        this.isDirty = false;
+    }
+
+    /**
+     * Marks that a change has been made, scheduling a save in the background if one is not already scheduled.
+     */
+    synchronized void markDirty() {
+        this.isDirty = true;
+        if (this.scheduledSave == null) {
+            this.scheduledSave = this.executor.schedule(
+                    this::saveInBackground, this.saveDelay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Saves any changes immediately, waiting for a save already running in the background to finish first.
+     *
+     * @throws StorageException If there is an error saving the changes.
+     */
+    void saveNow() throws StorageException {
+        synchronized (this.saveLock) {
+            synchronized (this) {
+                if (!this.isDirty) {
+                    return;
+                }
+                this.isDirty = false;
+            }
+
+            try {
+                this.saveFunction.save();
+            } catch (StorageException e) {
+                synchronized (this) {
+                    this.isDirty = true;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Saves any changes as scheduled in the background.
+     * A failed save leaves the changes marked, to be tried again with the next change or foreground save.
+     */
+    private void saveInBackground() {
+        synchronized (this) {
+            this.scheduledSave = null;
+        }
+        try {
+            this.saveNow();
+        } catch (StorageException e) {
+            // The changes stay marked as unsaved, and any error will resurface on the next foreground save.
+        }
+    }
+
+    /**
+     * A function that saves all changes made so far.
+     */
+    @FunctionalInterface
+    interface SaveFunction {
+        void save() throws StorageException;
+    }
+}
@@ -1,19 +1,29 @@
 package kipp;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 import java.util.Optional;
-import java.util.stream.IntStream;
 
 import commandhandler.Command;
 import commandhandler.CommandHandler;
 import commandhandler.CommandResult;
-import storage.Storage;
+import storage.JournaledTaskListStorage;
+import storage.JournaledTaskListStorage.SnapshotFormat;
+import storage.LsmTaskListStorage;
+import storage.PartitionedTaskListStorage;
+import storage.StaleVersionException;
 import storage.StorageException;
+import storage.TaskListStorage;
 import tasklist.DeadlineTask;
 import tasklist.EventTask;
 import tasklist.Task;
 import tasklist.TaskList;
+import tasklist.TaskListMutation;
 import tasklist.ToDoTask;
 
 /**
@@ -38,6 +48,26 @@ public class Kipp {
      * A default name for the user KIPP will use, if non is provided.
      */
     private static final String DEFAULT_USER_NAME = "Dr. Mann";
+    /**
+     * The file KIPP keeps the task list in between sessions, unless told to use another.
+     */
+    private static final String DEFAULT_SAVE_FILE_PATH = "KIPP.txt";
+    /**
+     * The default time KIPP waits after a change before saving it in the background.
+     */
+    private static final Duration DEFAULT_AUTOSAVE_DELAY = Duration.ofSeconds(1);
+    /**
+     * The number of tasks the list command shows at a time.
+     */
+    private static final int LIST_PAGE_SIZE = 50;
+    /**
+     * The largest number of characters a fuzzy find lets words differ by, beyond which nearly every word matches.
+     */
+    private static final int MAX_FUZZY_EDITS = 3;
+    /**
+     * The number of changes to the task list KIPP keeps to be undone.
+     */
+    private static final int MAX_UNDO_STEPS = 100;
     /**
      * The name of the user interacting with KIPP.
      */
@@ -46,6 +76,19 @@ public class Kipp {
      * The list of tasks that KIPP manages and manipulates.
      */
     private TaskList taskList;
+    /**
+     * Storage the task list was last saved to or loaded from, which records further changes to the task list,
+     * or null if the task list has not been saved or loaded yet.
+     */
+    private volatile TaskListStorage taskListStorage;
+    /**
+     * Saves changes to the task list in the background, shortly after they are made.
+     */
+    private final AutoSaver autoSaver;
+    /**
+     * The recent changes to the task list, which can be undone and redone.
+     */
+    private final MutationHistory history;
     /**
      * Command handler used to store functions that respond to each function, and to process user input accordingly
      * to generate a response.
@@ -55,16 +98,19 @@ public class Kipp {
     /**
      * Constructor for Kipp class.
      *
-     * @param userName The name of the user interacting with KIPP.
+     * @param userName      The name of the user interacting with KIPP.
+     * @param autosaveDelay The time to wait after a change before saving it in the background.
      */
-    private Kipp(String userName) {
+    private Kipp(String userName, Duration autosaveDelay) {
         if (System.getenv("KIPP_CHAT_TEST_USERNAME") != null) {
             this.userName = System.getenv("KIPP_CHAT_TEST_USERNAME");
         } else {
             this.userName = userName;
         }
 
-        this.taskList = new TaskList();
+        this.taskList = TaskList.createCompactTaskList();
+        this.autoSaver = new AutoSaver(autosaveDelay, this::saveRecordedChanges);
+        this.history = new MutationHistory(Kipp.MAX_UNDO_STEPS);
         this.initializeCommandHandlerMap();
     }
 
@@ -72,7 +118,7 @@ public class Kipp {
      * Constructor for Kipp class, with a default username.
      */
     private Kipp() {
-        this(DEFAULT_USER_NAME);
+        this(DEFAULT_USER_NAME, DEFAULT_AUTOSAVE_DELAY);
     }
 
     /**
@@ -91,8 +137,20 @@ public class Kipp {
      * @return The new Kipp instance.
      */
     public static Kipp createKipp(String userName) {
+        return Kipp.createKipp(userName, DEFAULT_AUTOSAVE_DELAY);
+    }
+
+    /**
+     * Factory method to create a new Kipp instance, with a specified username to be interacting with,
+     * which saves changes in the background after the specified delay.
+     *
+     * @param userName      The name of the user interacting with KIPP.
+     * @param autosaveDelay The time to wait after a change before saving it, during which further changes coalesce.
+     * @return The new Kipp instance.
+     */
+    public static Kipp createKipp(String userName, Duration autosaveDelay) {
         assert !userName.isBlank() : "Username cannot be empty.";
-        return new Kipp(userName);
+        return new Kipp(userName, autosaveDelay);
     }
 
     public static String getName() {
@@ -152,11 +210,17 @@ public class Kipp {
         this.commandHandler.addCommand(Command.createCommandWithoutArgs(
                 "bye",
                 "save task list and exit",
-                args -> CommandResult.createSuccessResult(this.getSignOut())));
-        this.commandHandler.addCommand(Command.createCommandWithoutArgs(
+                this::byeCommandHandler));
+        this.commandHandler.addCommand(Command.createCommandWithArgs(
                 "list",
-                "list all tasks on your list.",
+                "<page number>",
+                "list the tasks on your list " + Kipp.LIST_PAGE_SIZE + " at a time, "
+                        + "from the first page if none is given",
                 this::listCommandHandler));
+        this.commandHandler.addCommand(Command.createCommandWithoutArgs(
+                "stats",
+                "show how many of your tasks are done and pending",
+                this::statsCommandHandler));
         this.commandHandler.addCommand(Command.createCommandWithArgs(
                 "mark",
                 "<task number>",
@@ -187,14 +251,31 @@ public class Kipp {
                 "<task number>",
                 "delete task by task number",
                 this::deleteTaskCommandHandler));
+        this.commandHandler.addCommand(Command.createCommandWithoutArgs(
+                "undo",
+                "undo your last change to the task list",
+                this::undoCommandHandler));
+        this.commandHandler.addCommand(Command.createCommandWithoutArgs(
+                "redo",
+                "redo the last change you undid",
+                this::redoCommandHandler));
+        this.commandHandler.addCommand(Command.createCommandWithoutArgs(
+                "save",
+                "save task list now, instead of waiting for it to be saved automatically",
+                this::saveNowCommandHandler));
+        this.commandHandler.addCommand(Command.createCommandWithoutArgs(
+                "load",
+                "load task list kept from your last session",
+                this::loadPreviousSessionCommandHandler));
         this.commandHandler.addCommand(Command.createCommandWithArgs(
                 "saveto",
-                "<relative_file_path.txt>",
-                "save current task list to disk as a text file",
+                "<relative_file_path.txt | relative_folder_path/>",
+                "save current task list to disk as a text file, to a folder split by month, "
+                        + "or to a .db/ folder as a database",
                 this::saveCommandHandler));
         this.commandHandler.addCommand(Command.createCommandWithArgs(
                 "loadfrom",
-                "<relative_file_path.txt>",
+                "<relative_file_path.txt | relative_folder_path/>",
                 "load previously saved task list from disk as a text file",
                 this::loadCommandHandler));
         this.commandHandler.addCommand(Command.createCommandWithArgs(
@@ -202,6 +283,26 @@ public class Kipp {
                 "<keyword>",
                 "find tasks containing keyword",
                 this::findTaskCommandHandler));
+        this.commandHandler.addCommand(Command.createCommandWithArgs(
+                "findfuzzy",
+                "<keyword> <max typos>",
+                "find tasks with words close to the keyword, allowing for typos",
+                this::findFuzzyCommandHandler));
+        this.commandHandler.addCommand(Command.createCommandWithArgs(
+                "search",
+                "<keywords> /any",
+                "find tasks containing all the keywords as words, or any of them with /any",
+                this::searchTaskCommandHandler));
+        this.commandHandler.addCommand(Command.createCommandWithArgs(
+                "due",
+                "<yyyy-mm-dd>",
+                "list pending deadlines due on or before a date",
+                this::dueCommandHandler));
+        this.commandHandler.addCommand(Command.createCommandWithArgs(
+                "during",
+                "<start yyyy-mm-dd> /to <end yyyy-mm-dd>",
+                "list events taking place between two dates",
+                this::duringCommandHandler));
     }
 
     /**
@@ -215,7 +316,72 @@ public class Kipp {
     }
 
     /**
-     * Handles the save command, to save the current task list to disk.
+     * Handles the bye command, saving any changes not yet saved in the background before signing out.
+     *
+     * @param args The arguments passed to the bye command, which will be ignored.
+     * @return The result of the bye command.
+     */
+    private CommandResult byeCommandHandler(String args) {
+        try {
+            this.autoSaver.saveNow();
+        } catch (StaleVersionException e) {
+            return this.resolveStaleVersion(e);
+        } catch (StorageException e) {
+            return CommandResult.createUnexpectedErrorResult(
+                    String.format("Sorry %s, I'm afraid something's wrong. I couldn't save your task list.",
+                            this.userName));
+        }
+        return CommandResult.createSuccessResult(this.getSignOut());
+    }
+
+    /**
+     * Handles the save command, to save changes to the file currently in use straight away.
+     *
+     * @param args The arguments passed to the save command, which will be ignored.
+     * @return The result of the save command.
+     */
+    private CommandResult saveNowCommandHandler(String args) {
+        TaskListStorage storage = this.taskListStorage;
+        String filePath = storage != null ? storage.getRelativeFilePath() : DEFAULT_SAVE_FILE_PATH;
+        return this.loadSaveCommandHanlderHelper(filePath, false);
+    }
+
+    /**
+     * Handles the load command, to load the task list kept from the last session.
+     * If there is none, the task list is kept in a new file from now on.
+     *
+     * @param args The arguments passed to the load command, which will be ignored.
+     * @return The result of the load command.
+     */
+    private CommandResult loadPreviousSessionCommandHandler(String args) {
+        if (new File(DEFAULT_SAVE_FILE_PATH).exists()) {
+            return this.loadSaveCommandHanlderHelper(DEFAULT_SAVE_FILE_PATH, true);
+        }
+
+        CommandResult saveResult = this.loadSaveCommandHanlderHelper(DEFAULT_SAVE_FILE_PATH, false);
+        if (!saveResult.isSuccess()) {
+            return saveResult;
+        }
+        return CommandResult.createSuccessResult(
+                String.format("Looks like this is our first mission together %s. I'll keep your tasks safe in %s.",
+                        this.userName, DEFAULT_SAVE_FILE_PATH));
+    }
+
+    /**
+     * Saves changes recorded since the task list was last saved, to the file currently in use.
+     * This runs in the background, so it only writes changes already recorded and never touches the task list.
+     *
+     * @throws StorageException If there is an error saving the changes.
+     */
+    private void saveRecordedChanges() throws StorageException {
+        TaskListStorage storage = this.taskListStorage;
+        if (storage != null && storage.isAttached()) {
+            storage.flush();
+        }
+    }
+
+    /**
+     * Handles the save command, to save the current task list to disk as a human-readable text file.
      *
      * @param filePath The arguments passed to the save command, which will be ignored.
      * @return The result of the save command.
@@ -236,12 +402,14 @@ public class Kipp {
 
     /**
      * A helper command to handle both save and load commands.
-     * The approach to serializing and deserializing objects was adapted from:
-     * <a href="https://www.geeksforgeeks.org/serialization-in-java/">GeeksforGeeks</a>
+     * Saving to the same file the task list was last saved to or loaded from only journals the changes made since.
+     * Changes not yet saved in the background are saved to the file in use before switching to another file.
+     * New files are written as human-readable text; loading detects the format of the file, and keeps saving to it
+     * in that format.
      *
-     * @param filePath
-     * @param isLoad
-     * @return
+     * @param filePath The relative path of the file to save to or load from.
+     * @param isLoad   Whether to load rather than save.
+     * @return The result of the save or load command.
      */
     private CommandResult loadSaveCommandHanlderHelper(String filePath, boolean isLoad) {
         String action = isLoad ? "load" : "save";
@@ -258,12 +426,20 @@ public class Kipp {
         }
 
         try {
-            Storage<TaskList> taskListStorage = new Storage<>(filePath, TaskList.class);
+            this.saveChangesInUse(filePath);
             if (isLoad) {
-                this.taskList = taskListStorage.load();
+                TaskListStorage loadedStorage = Kipp.createTaskListStorage(filePath);
+                this.taskList = loadedStorage.load();
+                this.taskListStorage = loadedStorage;
+                this.history.clear();
             } else {
-                taskListStorage.save(this.taskList);
+                if (this.taskListStorage == null || !this.taskListStorage.isStoredAt(filePath)) {
+                    this.taskListStorage = Kipp.createTaskListStorage(filePath);
+                }
+                this.taskListStorage.save(this.taskList);
             }
+        } catch (StaleVersionException e) {
+            return this.resolveStaleVersion(e);
         } catch (StorageException e) {
             return CommandResult.createUnexpectedErrorResult(
                     String.format("Sorry %s, I'm afraid something's wrong. I couldn't %s your task list %s %s.",
@@ -275,6 +451,77 @@ public class Kipp {
         );
     }
 
+    /**
+     * Saves changes not yet saved in the background to the file currently in use.
+     * Changes that clash with changes made to that file by another session are left for the save or load that
+     * follows to resolve, if it uses the same file.
+     *
+     * @param filePath The relative path of the file about to be saved to or loaded from.
+     * @throws StorageException If there is an error saving the changes, or they clash with another session's
+     *                          changes to a file other than the one about to be used.
+     */
+    private void saveChangesInUse(String filePath) throws StorageException {
+        try {
+            this.autoSaver.saveNow();
+        } catch (StaleVersionException e) {
+            if (!this.taskListStorage.isStoredAt(filePath)) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Resolves changes to the file in use that clash with changes made to it by another session since it was
+     * last loaded or saved. If the changes were merged into the file, it is loaded again to pick up both.
+     * Otherwise, the changes are only kept in memory, until they are saved over the other session's changes or
+     * discarded by loading the file again.
+     *
+     * @param e The exception describing the clash.
+     * @return The result to report to the user.
+     */
+    private CommandResult resolveStaleVersion(StaleVersionException e) {
+        TaskListStorage storage = this.taskListStorage;
+        String filePath = storage.getRelativeFilePath();
+        if (!e.isMerged()) {
+            // Saving to the file again should write the task list in full, replacing the other session's changes.
+            this.taskListStorage = null;
+            return CommandResult.createUnexpectedErrorResult(String.format(
+                    "Sorry %s, someone else changed %s since you last used it, so I couldn't save your task list. "
+                            + "Use loadfrom %s to see their changes, or saveto %s to replace them with yours.",
+                    this.userName, filePath, filePath, filePath));
+        }
+
+        try {
+            this.taskList = storage.load();
+            this.history.clear();
+        } catch (StorageException loadException) {
+            return CommandResult.createUnexpectedErrorResult(
+                    String.format("Sorry %s, I'm afraid something's wrong. I couldn't load your task list from %s.",
+                            this.userName, filePath));
+        }
+        return CommandResult.createSuccessResult(String.format(
+                "Heads up %s, someone else changed %s since you last used it. "
+                        + "I've added your new tasks to theirs, and loaded the list with both.",
+                this.userName, filePath));
+    }
+
+    /**
+     * Creates the storage for a path, which keeps the task list in a log-structured store if the path is a folder
+     * ending with .db and a separator, split into shards by date if it is any other folder ending with a separator,
+     * or in a single text file otherwise.
+     *
+     * @param filePath The relative path of the file or folder.
+     * @return The storage for the path.
+     */
+    private static TaskListStorage createTaskListStorage(String filePath) {
+        if (filePath.endsWith(".db/")) {
+            return new LsmTaskListStorage(filePath);
+        } else if (filePath.endsWith("/")) {
+            return new PartitionedTaskListStorage(filePath);
+        }
+        return new JournaledTaskListStorage(filePath, SnapshotFormat.TEXT);
+    }
+
     /**
      * Checks is a file path is valid, and returns an explanation of the error if it is not.
      *
@@ -282,8 +529,9 @@ public class Kipp {
      * @return An optional error message if the file path is invalid.
      */
     private Optional<String> getErrorIfInvalidFilePath(String filePath) {
-        if (!filePath.endsWith(".txt")) {
-            return Optional.of(String.format("Remember %s! I can only save and load files with a .txt extension.",
+        if (!filePath.endsWith(".txt") && !filePath.endsWith("/")) {
+            return Optional.of(String.format("Remember %s! I can only save and load files with a .txt extension, "
+                            + "or folders ending with a /.",
                     this.userName));
         }
 
@@ -298,15 +546,74 @@ public class Kipp {
     }
 
     /**
-     * Handles the list command, to list all tasks on the task list.
+     * Handles the list command, to list a page of tasks on the task list.
+     * Only the page asked for is rendered, so listing stays quick however many tasks there are.
      *
-     * @param args The arguments passed to the list command, which will be ignored.
+     * @param args The number of the page to list, or blank for the first page.
      * @return The result of the list command.
      */
     private CommandResult listCommandHandler(String args) {
-        return this.taskList.getLength() == 0 ? CommandResult.createSuccessResult(
-                String.format("Lucky you %s! Guess you're done for the day.", this.userName))
-                : CommandResult.createSuccessResult(this.taskList.toString());
+        if (this.taskList.getLength() == 0) {
+            return CommandResult.createSuccessResult(
+                    String.format("Lucky you %s! Guess you're done for the day.", this.userName));
+        }
+
+        int pageCount = (this.taskList.getLength() + Kipp.LIST_PAGE_SIZE - 1) / Kipp.LIST_PAGE_SIZE;
+        int pageNumber;
+        try {
+            pageNumber = args.isBlank() ? 1 : Integer.parseInt(args.strip());
+        } catch (NumberFormatException e) {
+            return CommandResult.createUsageErrorResult(String.format(
+                    "%s! This is no time for games. Please provide a valid page number.", this.userName));
+        }
+        if (pageNumber < 1 || pageNumber > pageCount) {
+            return CommandResult.createUsageErrorResult(String.format(
+                    "Are you alright %s? Your list only has %d %s. Please provide a valid page number.",
+                    this.userName, pageCount, pageCount == 1 ? "page" : "pages"));
+        }
+
+        int fromIdx = (pageNumber - 1) * Kipp.LIST_PAGE_SIZE;
+        int toIdx = Math.min(fromIdx + Kipp.LIST_PAGE_SIZE, this.taskList.getLength());
+        StringBuilder response = new StringBuilder();
+        try {
+            this.taskList.render(response, fromIdx, toIdx);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (pageCount > 1) {
+            response.append(String.format("\nShowing tasks %d to %d of %d.", fromIdx + 1, toIdx,
+                    this.taskList.getLength()));
+            if (pageNumber < pageCount) {
+                response.append(String.format(" Use list %d to see the next page.", pageNumber + 1));
+            }
+        }
+        return CommandResult.createSuccessResult(response.toString());
+    }
+
+    /**
+     * Handles the stats command, to show how many tasks of each type are done and pending.
+     * The task list keeps these counts as it changes, so this does not go through the tasks. The number of
+     * overdue deadlines is counted from the index of the dates of the tasks, which goes through every task when
+     * first built, and after that through the days the overdue deadlines are due on.
+     *
+     * @param args The arguments passed to the stats command, which will be ignored.
+     * @return The result of the stats command.
+     */
+    private CommandResult statsCommandHandler(String args) {
+        StringBuilder response = new StringBuilder(String.format("Here's where you stand, %s:", this.userName));
+        char[] typeSymbols = new char[]{'T', 'D', 'E'};
+        String[] typeNames = new String[]{"To-dos", "Deadlines", "Events"};
+        int completedTaskCount = 0;
+        for (int i = 0; i < typeSymbols.length; i++) {
+            int completedCount = this.taskList.countTasks(typeSymbols[i], true);
+            completedTaskCount += completedCount;
+            response.append(String.format("\n%s: %d done, %d pending",
+                    typeNames[i], completedCount, this.taskList.countTasks(typeSymbols[i], false)));
+        }
+        response.append(String.format("\nThat's %d of your %d tasks done, with %d deadlines overdue.",
+                completedTaskCount, this.taskList.getLength(),
+                this.taskList.countDeadlinesDueBefore(LocalDate.now())));
+        return CommandResult.createSuccessResult(response.toString());
     }
 
     /**
@@ -351,11 +658,9 @@ public class Kipp {
                             this.taskList.getTask(taskIdx).toString()));
         }
 
-        if (isComplete) {
-            this.taskList.setTaskComplete(taskIdx);
-        } else {
-            this.taskList.setTaskIncomplete(taskIdx);
-        }
+        this.applyMutation(isComplete
+                ? TaskListMutation.createSetCompleteMutation(taskIdx)
+                : TaskListMutation.createSetIncompleteMutation(taskIdx));
         return CommandResult.createSuccessResult(
                 String.format("Roger that %s. Marking task as %s, good work!\n%s",
                         this.userName, isComplete ? "completed" : "incomplete",
@@ -375,7 +680,8 @@ public class Kipp {
         }
 
         int taskIdx = Integer.parseInt(args) - 1;
-        Task deletedTask = this.taskList.deleteTask(taskIdx);
+        Task deletedTask = this.taskList.getTask(taskIdx);
+        this.applyMutation(TaskListMutation.createDeleteMutation(taskIdx, deletedTask));
 
         return CommandResult.createSuccessResult(
                 String.format("Roger that %s. I've deleted the following task from your list:"
@@ -383,6 +689,69 @@ public class Kipp {
                         this.userName, deletedTask.toString(), this.taskList.getLength()));
     }
 
+    /**
+     * Handles the undo command, to undo the last change made to the task list by applying its inverse.
+     *
+     * @param args The arguments passed to the undo command, which will be ignored.
+     * @return The result of the undo command.
+     */
+    private CommandResult undoCommandHandler(String args) {
+        return this.undoRedoCommandHandlerHelper(true);
+    }
+
+    /**
+     * Handles the redo command, to make the last change undone again.
+     *
+     * @param args The arguments passed to the redo command, which will be ignored.
+     * @return The result of the redo command.
+     */
+    private CommandResult redoCommandHandler(String args) {
+        return this.undoRedoCommandHandlerHelper(false);
+    }
+
+    /**
+     * Helper method to undo or redo a change to the task list.
+     * If the storage in use cannot record the change on its own, the task list is saved to it in full.
+     *
+     * @param isUndo True if the last change is to be undone, false if the last change undone is to be redone.
+     * @return The result of the undo or redo command.
+     */
+    private CommandResult undoRedoCommandHandlerHelper(boolean isUndo) {
+        Optional<TaskListMutation> historyMutation = isUndo ? this.history.undo() : this.history.redo();
+        if (historyMutation.isEmpty()) {
+            return CommandResult.createUsageErrorResult(String.format("Sorry %s, there's nothing for me to %s.",
+                    this.userName, isUndo ? "undo" : "redo"));
+        }
+
+        TaskListMutation mutation = historyMutation.get();
+        this.commitMutation(mutation);
+        int taskNumber = mutation.taskIdx() + 1;
+        String change = switch (mutation.type()) {
+        case ADD, INSERT -> String.format("I've put the following task on your list as task %d:\n%s",
+                taskNumber, mutation.task());
+        case DELETE -> String.format("I've taken the following task off your list:\n%s", mutation.task());
+        case MARK -> String.format("I've marked task %d as completed:\n%s",
+                taskNumber, this.taskList.getTask(mutation.taskIdx()));
+        case UNMARK -> String.format("I've marked task %d as incomplete:\n%s",
+                taskNumber, this.taskList.getTask(mutation.taskIdx()));
+        default -> throw new IllegalStateException("Unknown mutation type: " + mutation.type());
+        };
+
+        TaskListStorage storage = this.taskListStorage;
+        if (storage != null && !storage.isAttached()) {
+            try {
+                storage.save(this.taskList);
+            } catch (StorageException e) {
+                return CommandResult.createUnexpectedErrorResult(String.format(
+                        "Sorry %s, I'm afraid something's wrong. I couldn't save your task list to %s.",
+                        this.userName, storage.getRelativeFilePath()));
+            }
+        }
+
+        return CommandResult.createSuccessResult(String.format("Roger that %s, I've %s.\n%s", this.userName,
+                isUndo ? "undone your last change" : "redone the last change you undid", change));
+    }
+
     /**
      * Returns an error message if the task index is invalid.
      *
@@ -421,7 +790,7 @@ public class Kipp {
                             this.userName));
         }
 
-        this.taskList.addTask(new ToDoTask(args));
+        this.addTask(new ToDoTask(args));
         return CommandResult.createSuccessResult(this.getTaskAddedMessage());
     }
 
@@ -446,7 +815,7 @@ public class Kipp {
                     String.format("%s, I need a valid deadline in the format yyyy-mm-dd.", this.userName));
         }
 
-        this.taskList.addTask(new DeadlineTask(argsSplit[0], deadlineDate));
+        this.addTask(new DeadlineTask(argsSplit[0], deadlineDate));
         return CommandResult.createSuccessResult(this.getTaskAddedMessage());
     }
 
@@ -479,7 +848,7 @@ public class Kipp {
                             this.userName));
         }
 
-        this.taskList.addTask(new EventTask(argsSplit[0], startDate, endDate));
+        this.addTask(new EventTask(argsSplit[0], startDate, endDate));
         return CommandResult.createSuccessResult(this.getTaskAddedMessage());
     }
 
@@ -496,19 +865,189 @@ public class Kipp {
                             + "Please provide a keyword to search for.", this.userName));
         }
 
-        TaskList resultTaskList = new TaskList();
-        IntStream.range(0, this.taskList.getLength())
-                .filter(i -> this.taskList.getTask(i).getTaskName().contains(args))
-                .forEach(i -> resultTaskList.addTask(this.taskList.getTask(i)));
-
-        if (resultTaskList.getLength() == 0) {
+        List<Task> foundTasks = this.taskList.findTasks(args);
+        if (foundTasks.isEmpty()) {
             return CommandResult.createSuccessResult(
                     String.format("Oh no %s! No tasks found containing the keyword: %s", this.userName, args));
         }
 
         return CommandResult.createSuccessResult(
                 String.format("Roger, here are the tasks I've found matching the keyword: %s\n%s",
-                        args, resultTaskList.toString()));
+                        args, Kipp.createResultTaskList(foundTasks)));
+    }
+
+    /**
+     * Handles the search command, to search for tasks containing whole words, with the index of words kept by
+     * the task list rather than going through every task.
+     *
+     * @param args The keywords to search for, followed by /any if tasks need only contain any of them.
+     * @return The result of the search command.
+     */
+    private CommandResult searchTaskCommandHandler(String args) {
+        String keywords = args.strip();
+        boolean isMatchingAll = true;
+        if (keywords.equals("/any") || keywords.endsWith(" /any")) {
+            keywords = keywords.substring(0, keywords.length() - "/any".length()).strip();
+            isMatchingAll = false;
+        }
+        if (keywords.isBlank()) {
+            return CommandResult.createUsageErrorResult(String.format(
+                    "%s, I can't help you find nothing. "
+                            + "Please provide some keywords to search for.", this.userName));
+        }
+
+        List<Task> foundTasks = this.taskList.searchTasks(keywords, isMatchingAll);
+        if (foundTasks.isEmpty()) {
+            return CommandResult.createSuccessResult(String.format("Oh no %s! No tasks found containing %s of: %s",
+                    this.userName, isMatchingAll ? "all" : "any", keywords));
+        }
+        return CommandResult.createSuccessResult(
+                String.format("Roger, here are the tasks I've found containing %s of: %s\n%s",
+                        isMatchingAll ? "all" : "any", keywords, Kipp.createResultTaskList(foundTasks)));
+    }
+
+    /**
+     * Handles the findfuzzy command, to search for tasks with words close to the keywords, allowing for typos.
+     * Unless given, the number of typos allowed is one for words of up to four characters, and two otherwise.
+     *
+     * @param args The keywords to search for, optionally followed by the number of typos allowed.
+     * @return The result of the findfuzzy command.
+     */
+    private CommandResult findFuzzyCommandHandler(String args) {
+        String keywords = args.strip();
+        int maxEdits = -1;
+        int lastSpaceIdx = keywords.lastIndexOf(' ');
+        if (lastSpaceIdx >= 0 && keywords.substring(lastSpaceIdx + 1).matches("\\d+")) {
+            maxEdits = Integer.parseInt(keywords.substring(lastSpaceIdx + 1));
+            keywords = keywords.substring(0, lastSpaceIdx).strip();
+        }
+        if (keywords.isBlank()) {
+            return CommandResult.createUsageErrorResult(String.format(
+                    "%s, I can't help you find nothing. "
+                            + "Please provide a keyword to search for.", this.userName));
+        }
+        if (maxEdits > Kipp.MAX_FUZZY_EDITS) {
+            return CommandResult.createUsageErrorResult(String.format(
+                    "Steady on %s, with more than %d typos almost anything would match.",
+                    this.userName, Kipp.MAX_FUZZY_EDITS));
+        }
+        if (maxEdits < 0) {
+            maxEdits = keywords.length() <= 4 ? 1 : 2;
+        }
+
+        List<Task> foundTasks = this.taskList.searchTasksFuzzy(keywords, maxEdits);
+        if (foundTasks.isEmpty()) {
+            return CommandResult.createSuccessResult(String.format(
+                    "Oh no %s! No tasks found close to the keyword: %s", this.userName, keywords));
+        }
+        return CommandResult.createSuccessResult(
+                String.format("Roger, here are the tasks I've found close to the keyword: %s\n%s",
+                        keywords, Kipp.createResultTaskList(foundTasks)));
+    }
+
+    /**
+     * Handles the due command, to list the pending deadline tasks due on or before a date.
+     *
+     * @param args The date the deadlines are due by.
+     * @return The result of the due command.
+     */
+    private CommandResult dueCommandHandler(String args) {
+        LocalDate date;
+        try {
+            date = LocalDate.parse(args.strip());
+        } catch (DateTimeParseException e) {
+            return CommandResult.createUsageErrorResult(
+                    String.format("Listen to me %s! I need a valid date from you.", this.userName));
+        }
+
+        List<Task> foundTasks = this.taskList.findDeadlinesDueBy(date);
+        if (foundTasks.isEmpty()) {
+            return CommandResult.createSuccessResult(
+                    String.format("Relax %s, you have nothing due by %s.", this.userName, args.strip()));
+        }
+        return CommandResult.createSuccessResult(
+                String.format("Roger, here are the deadlines you have due by %s:\n%s",
+                        args.strip(), Kipp.createResultTaskList(foundTasks)));
+    }
+
+    /**
+     * Handles the during command, to list the event tasks that take place on any day between two dates.
+     *
+     * @param args The arguments in the form "start date /to end date".
+     * @return The result of the during command.
+     */
+    private CommandResult duringCommandHandler(String args) {
+        String[] startEndDate = args.split(" /to ", 2);
+        LocalDate startDate;
+        LocalDate endDate;
+        try {
+            if (startEndDate.length < 2) {
+                throw new IllegalArgumentException("Insufficient arguments.");
+            }
+            startDate = LocalDate.parse(startEndDate[0].strip());
+            endDate = LocalDate.parse(startEndDate[1].strip());
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return CommandResult.createUsageErrorResult(
+                    String.format("Listen to me %s! I need a valid start and end date from you.", this.userName));
+        }
+        if (startDate.isAfter(endDate)) {
+            return CommandResult.createUsageErrorResult(
+                    String.format("%s, time only moves forward. The end date must not be before the start date.",
+                            this.userName));
+        }
+
+        List<Task> foundTasks = this.taskList.findEventsDuring(startDate, endDate);
+        if (foundTasks.isEmpty()) {
+            return CommandResult.createSuccessResult(
+                    String.format("Oh no %s! No events found between %s and %s.", this.userName, startDate, endDate));
+        }
+        return CommandResult.createSuccessResult(
+                String.format("Roger, here are the events taking place between %s and %s:\n%s",
+                        startDate, endDate, Kipp.createResultTaskList(foundTasks)));
+    }
+
+    /**
+     * Returns a task list holding tasks found by a command, to number them as a list of their own.
+     *
+     * @param foundTasks The tasks found.
+     * @return The task list of the tasks found.
+     */
+    private static TaskList createResultTaskList(List<Task> foundTasks) {
+        TaskList resultTaskList = new TaskList();
+        foundTasks.forEach(resultTaskList::addTask);
+        return resultTaskList;
+    }
+
+    /**
+     * Adds a task to the end of the task list.
+     *
+     * @param task The task to be added.
+     */
+    private void addTask(Task task) {
+        this.applyMutation(TaskListMutation.createAddMutation(this.taskList.getLength(), task));
+    }
+
+    /**
+     * Applies a mutation made by a command to the task list, and keeps it to be undone.
+     *
+     * @param mutation The mutation to be applied.
+     */
+    private void applyMutation(TaskListMutation mutation) {
+        this.commitMutation(mutation);
+        this.history.record(mutation);
+    }
+
+    /**
+     * Applies a mutation to the task list, and records it so it is journaled by the next save in the background.
+     *
+     * @param mutation The mutation to be applied.
+     */
+    private void commitMutation(TaskListMutation mutation) {
+        mutation.applyTo(this.taskList);
+        if (this.taskListStorage != null) {
+            this.taskListStorage.record(mutation);
+        }
+        this.autoSaver.markDirty();
     }
 
     /**
@@ -0,0 +1,85 @@
+package kipp;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+
+import tasklist.TaskListMutation;
+
+/**
+ * Keeps the most recent mutations made to a task list, so that they can be undone and redone one at a time.
+ * Undoing a mutation applies its inverse, so each step takes as long as a single change to the task list,
+ * however long the task list is. Only a bounded number of mutations are kept, dropping the oldest first.
+ */
+class MutationHistory {
+    private final int maxMutations;
+    /**
+     * Mutations that can be undone, with the most recent first.
+     */
+    private final Deque<TaskListMutation> undoableMutations;
+    /**
+     * Mutations undone that can be redone, with the most recently undone first.
+     */
+    private final Deque<TaskListMutation> redoableMutations;
+
+    /**
+     * Constructor for MutationHistory class.
+     *
+     * @param maxMutations The number of mutations kept to be undone.
+     */
+    MutationHistory(int maxMutations) {
+        assert maxMutations > 0 : "Number of mutations kept must be positive.";
+        this.maxMutations = maxMutations;
+        this.undoableMutations = new ArrayDeque<>();
+        this.redoableMutations = new ArrayDeque<>();
+    }
+
+    /**
+     * Keeps a mutation just applied to the task list to be undone, and forgets the mutations undone before it.
+     *
+     * @param mutation The mutation applied.
+     */
+    void record(TaskListMutation mutation) {
+        if (this.undoableMutations.size() == this.maxMutations) {
+            this.undoableMutations.removeLast();
+        }
+        this.undoableMutations.push(mutation);
+        this.redoableMutations.clear();
+    }
+
+    /**
+     * Takes the most recent mutation to be undone, keeping it to be redone.
+     *
+     * @return The mutation that undoes it, to be applied to the task list, or empty if there is none to undo.
+     */
+    Optional<TaskListMutation> undo() {
+        TaskListMutation mutation = this.undoableMutations.poll();
+        if (mutation == null) {
+            return Optional.empty();
+        }
+        this.redoableMutations.push(mutation);
+        return Optional.of(mutation.inverse());
+    }
+
+    /**
+     * Takes the most recently undone mutation, keeping it to be undone again.
+     *
+     * @return The mutation, to be applied to the task list again, or empty if there is none to redo.
+     */
+    Optional<TaskListMutation> redo() {
+        TaskListMutation mutation = this.redoableMutations.poll();
+        if (mutation == null) {
+            return Optional.empty();
+        }
+        this.undoableMutations.push(mutation);
+        return Optional.of(mutation);
+    }
+
+    /**
+     * Forgets every mutation, once the task list they were made to is replaced.
+     */
+    void clear() {
+        this.undoableMutations.clear();
+        this.redoableMutations.clear();
+    }
+}
@@ -26,6 +26,7 @@ public class Main extends Application {
         } else {
             this.kipp = Kipp.createKipp();
         }
+        this.kipp.getResponse("load");
     }
 
     @Override
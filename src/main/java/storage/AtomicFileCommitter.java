@@ -0,0 +1,223 @@
+package storage;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Replaces the contents of a file atomically, coalescing concurrent requests to write the same file.
+ * Contents are written to a temporary file beside the target, forced to disk, and then renamed over the target,
+ * so a crash part way through leaves either the old or the new contents, never a truncated file.
+ *
+ * <p>Only one write to a file runs at a time. Requests that arrive while a write is running are grouped, and only
+ * the latest of them is written once the running write finishes, since it supersedes the others. Every request in
+ * the group returns once that single write is committed, so a burst of saves pays for one write and one fsync.
+ *
+ * <p>The new contents are created with the default permissions of new files, and take on the permissions of the
+ * file they replace, so that rewriting a file shared with other users keeps it shared.
+ */
+final class AtomicFileCommitter {
+    /**
+     * Committers for the files being written, so that all writes to a file in this process are coordinated.
+     * A committer is dropped once no request to write its file is left.
+     */
+    private static final Map<Path, AtomicFileCommitter> COMMITTERS = new ConcurrentHashMap<>();
+
+    private final Path path;
+    private final Object monitor;
+    /**
+     * The number of requests using the committer, only changed while computing its entry in the committers.
+     */
+    private int requestCount;
+    /**
+     * The latest contents requested to be written, which have not been picked up by a write yet.
+     */
+    private ContentWriter pendingWriter;
+    private long lastRequestedTicket;
+    private long lastCommittedTicket;
+    private long lastBatchFirstTicket;
+    private IOException lastBatchFailure;
+    private boolean isWriting;
+
+    /**
+     * Constructor for AtomicFileCommitter class.
+     *
+     * @param path The path of the file to be written.
+     */
+    private AtomicFileCommitter(Path path) {
+        this.path = path;
+        this.monitor = new Object();
+    }
+
+    /**
+     * Writes the contents of a file atomically, returning once the contents or later contents
+     * requested by another caller have been committed to disk.
+     *
+     * @param path   The path of the file.
+     * @param writer The function writing the new contents of the file.
+     * @throws IOException If there is an error writing the file.
+     */
+    static void commit(Path path, ContentWriter writer) throws IOException {
+        Path normalizedPath = path.toAbsolutePath().normalize();
+        AtomicFileCommitter committer = COMMITTERS.compute(normalizedPath, (key, existingCommitter) -> {
+            AtomicFileCommitter pathCommitter = existingCommitter != null
+                    ? existingCommitter
+                    : new AtomicFileCommitter(key);
+            pathCommitter.requestCount++;
+            return pathCommitter;
+        });
+        try {
+            committer.commit(writer);
+        } finally {
+            COMMITTERS.computeIfPresent(normalizedPath,
+                    (key, pathCommitter) -> --pathCommitter.requestCount == 0 ? null : pathCommitter);
+        }
+    }
+
+    /**
+     * Writes the contents of the file atomically, returning once the contents or later contents
+     * requested by another caller have been committed to disk.
+     *
+     * @param writer The function writing the new contents of the file.
+     * @throws IOException If there is an error writing the file.
+     */
+    private void commit(ContentWriter writer) throws IOException {
+        ContentWriter batchWriter;
+        long batchFirstTicket;
+        long batchLastTicket;
+
+        synchronized (this.monitor) {
+            long ticket = ++this.lastRequestedTicket;
+            this.pendingWriter = writer;
+            while (this.lastCommittedTicket < ticket && this.isWriting) {
+                try {
+                    this.monitor.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting to write file: " + this.path);
+                }
+            }
+            if (this.lastCommittedTicket >= ticket) {
+                if (this.lastBatchFailure != null && ticket >= this.lastBatchFirstTicket) {
+                    throw new IOException("Error writing file: " + this.path, this.lastBatchFailure);
+                }
+                return;
+            }
+
+            // Lead the next write, on behalf of every request that arrived since the last one.
+            this.isWriting = true;
+            batchWriter = this.pendingWriter;
+            batchFirstTicket = this.lastCommittedTicket + 1;
+            batchLastTicket = this.lastRequestedTicket;
+            this.pendingWriter = null;
+        }
+
+        IOException failure = null;
+        try {
+            this.writeAtomically(batchWriter);
+        } catch (IOException e) {
+            failure = e;
+        }
+
+        synchronized (this.monitor) {
+            this.isWriting = false;
+            this.lastBatchFirstTicket = batchFirstTicket;
+            this.lastCommittedTicket = batchLastTicket;
+            this.lastBatchFailure = failure;
+            this.monitor.notifyAll();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Writes contents to a temporary file, forces it to disk, and renames it over the target file.
+     *
+     * @param writer The function writing the contents.
+     * @throws IOException If there is an error writing or renaming the file.
+     */
+    private void writeAtomically(ContentWriter writer) throws IOException {
+        Path directory = this.path.getParent();
+        Path tempPath = this.createTempFile(directory);
+
+        try {
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel));
+                writer.writeTo(out);
+                out.flush();
+                channel.force(true);
+            }
+            this.copyPermissionsTo(tempPath);
+            Files.move(tempPath, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempPath);
+            throw e;
+        }
+
+        try (FileChannel directoryChannel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            directoryChannel.force(true);
+        } catch (IOException e) {
+            // Not every platform allows directories to be opened and forced, in which case the rename
+            // is left for the file system to persist in its own time.
+        }
+    }
+
+    /**
+     * Creates an empty temporary file beside the target file, with the default permissions of new files.
+     *
+     * @param directory The directory of the target file.
+     * @return The path of the temporary file.
+     * @throws IOException If there is an error creating the file.
+     */
+    private Path createTempFile(Path directory) throws IOException {
+        while (true) {
+            Path tempPath = directory.resolve(String.format("%s.%016x.tmp",
+                    this.path.getFileName(), ThreadLocalRandom.current().nextLong()));
+            try {
+                FileChannel.open(tempPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE).close();
+                return tempPath;
+            } catch (FileAlreadyExistsException e) {
+                // Another write picked the same name, so another is tried.
+            }
+        }
+    }
+
+    /**
+     * Gives a file the POSIX permissions of the target file, if the target exists and the file system has them.
+     *
+     * @param tempPath The path of the file.
+     * @throws IOException If there is an error reading or setting the permissions.
+     */
+    private void copyPermissionsTo(Path tempPath) throws IOException {
+        if (Files.getFileAttributeView(this.path, PosixFileAttributeView.class) == null) {
+            return;
+        }
+        try {
+            Files.setPosixFilePermissions(tempPath, Files.getPosixFilePermissions(this.path));
+        } catch (NoSuchFileException e) {
+            // The target does not exist yet, so the file keeps the default permissions of new files.
+        }
+    }
+
+    /**
+     * A function that writes the full contents of a file.
+     */
+    @FunctionalInterface
+    interface ContentWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,389 @@
+package storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+
+import tasklist.DeadlineTask;
+import tasklist.EventTask;
+import tasklist.Task;
+import tasklist.TaskList;
+import tasklist.TaskSource;
+import tasklist.ToDoTask;
+
+/**
+ * Represents a task list file stored in a columnar binary format, read into memory in a single pass.
+ * Each property of the tasks is stored as its own column, so opening the file does not decode any task,
+ * and individual tasks or properties are decoded only when asked for.
+ * The file is read rather than memory-mapped and closed once read, since a file still mapped cannot be replaced
+ * or deleted on Windows, which would keep the snapshot it holds from being written again.
+ *
+ * <p>The file consists of a header followed by the columns, each starting on an 8-byte boundary:
+ * <ul>
+ *     <li>Header: magic number, format version, number of tasks, id of the write, and length of the name heap
+ *     in bytes.</li>
+ *     <li>Type symbols: one byte per task.</li>
+ *     <li>Completion bitmap: one bit per task, packed into longs.</li>
+ *     <li>Start dates: one int per task, holding the epoch day of the deadline or event start.</li>
+ *     <li>End dates: one int per task, holding the epoch day of the event end.</li>
+ *     <li>Name offsets: one int per task plus one, delimiting each task name in the heap.</li>
+ *     <li>Name heap: the UTF-8 encoded names of all tasks back to back.</li>
+ * </ul>
+ */
+public class ColumnarTaskListFile implements TaskSource {
+    /**
+     * Magic number written at the start of every columnar file, spelling "KCOL".
+     */
+    private static final int MAGIC = 0x4B434F4C;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 24;
+    private static final int COLUMN_ALIGNMENT = 8;
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final int taskCount;
+    private final int typeSymbolsOffset;
+    private final int completionBitmapOffset;
+    private final int startDatesOffset;
+    private final int endDatesOffset;
+    private final int nameOffsetsOffset;
+    private final int nameHeapOffset;
+
+    /**
+     * Constructor for ColumnarTaskListFile class.
+     *
+     * @param path      The path of the file.
+     * @param buffer    The buffer the file is read into.
+     * @param taskCount The number of tasks stored in the file.
+     */
+    private ColumnarTaskListFile(Path path, ByteBuffer buffer, int taskCount) {
+        this.path = path;
+        this.buffer = buffer;
+        this.taskCount = taskCount;
+        this.typeSymbolsOffset = HEADER_BYTES;
+        this.completionBitmapOffset = ColumnarTaskListFile.align(this.typeSymbolsOffset + taskCount);
+        this.startDatesOffset = this.completionBitmapOffset + ColumnarTaskListFile.getBitmapLength(taskCount);
+        this.endDatesOffset = ColumnarTaskListFile.align(this.startDatesOffset + taskCount * Integer.BYTES);
+        this.nameOffsetsOffset = ColumnarTaskListFile.align(this.endDatesOffset + taskCount * Integer.BYTES);
+        this.nameHeapOffset = ColumnarTaskListFile.align(this.nameOffsetsOffset + (taskCount + 1) * Integer.BYTES);
+    }
+
+    /**
+     * Opens a columnar task list file by reading it into memory, without decoding any tasks.
+     *
+     * @param path The path of the file.
+     * @return The opened file.
+     * @throws StorageException If the file cannot be read, or is not a valid columnar task list file.
+     */
+    public static ColumnarTaskListFile open(Path path) throws StorageException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new StorageException(String.format("File is too large to be read: %s.", path));
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException("File was truncated while being read: " + path);
+                }
+            }
+            if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+                throw new StorageException(String.format("Error loading data from file: %s.", path));
+            }
+
+            int taskCount = buffer.getInt(8);
+            long nameHeapLength = buffer.getLong(16);
+            ColumnarTaskListFile file = new ColumnarTaskListFile(path, buffer, taskCount);
+            if (taskCount < 0 || file.nameHeapOffset + nameHeapLength != buffer.limit()) {
+                throw new StorageException(String.format("Error loading data from file: %s.", path));
+            }
+            return file;
+        } catch (IOException e) {
+            throw new StorageException(String.format("Error loading data from file: %s.", path), e);
+        }
+    }
+
+    /**
+     * Checks if a file is stored in the columnar format, by looking for the magic number at its start.
+     *
+     * @param path The path of the file.
+     * @return True if the file is a columnar task list file, false otherwise.
+     * @throws StorageException If the file cannot be read.
+     */
+    public static boolean isColumnarFile(Path path) throws StorageException {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] magic = in.readNBytes(Integer.BYTES);
+            return magic.length == Integer.BYTES && ByteBuffer.wrap(magic).getInt() == MAGIC;
+        } catch (IOException e) {
+            throw new StorageException(String.format("Error loading data from file: %s.", path), e);
+        }
+    }
+
+    /**
+     * Reads the id in the header of a columnar file, which is chosen at random each time a file is written,
+     * so that it tells the contents of files apart without reading them.
+     *
+     * @param path The path of the file.
+     * @return The id of the file, or 0 if it is not a columnar file or was written before files had ids.
+     * @throws StorageException If the file cannot be read.
+     */
+    static int readId(Path path) throws StorageException {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] header = in.readNBytes(4 * Integer.BYTES);
+            if (header.length < 4 * Integer.BYTES || ByteBuffer.wrap(header).getInt(0) != MAGIC) {
+                return 0;
+            }
+            return ByteBuffer.wrap(header).getInt(12);
+        } catch (IOException e) {
+            throw new StorageException(String.format("Error loading data from file: %s.", path), e);
+        }
+    }
+
+    /**
+     * Writes a task list to a file in the columnar format.
+     * The file is replaced atomically, so that readers never see a partially written file.
+     *
+     * @param path     The path of the file.
+     * @param taskList The task list to be written.
+     * @throws StorageException If there is an error writing the file.
+     */
+    public static void write(Path path, TaskList taskList) throws StorageException {
+        try {
+            AtomicFileCommitter.commit(path, out -> {
+                DataOutputStream dataOut = new DataOutputStream(out);
+                ColumnarTaskListFile.writeColumns(dataOut, taskList);
+                dataOut.flush();
+            });
+        } catch (IOException | ArithmeticException e) {
+            throw new StorageException(String.format("Error saving data to file: %s.", path), e);
+        }
+    }
+
+    /**
+     * Writes the header and columns of a task list to the output, reading each task from the task list once
+     * and buffering the columns until they are written.
+     *
+     * @param out      The output to write to.
+     * @param taskList The task list to be written.
+     * @throws IOException If there is an error writing to the output.
+     */
+    private static void writeColumns(DataOutputStream out, TaskList taskList) throws IOException {
+        int taskCount = taskList.getLength();
+        byte[] typeSymbols = new byte[taskCount];
+        long[] completionBitmap = new long[ColumnarTaskListFile.getBitmapLength(taskCount) / Long.BYTES];
+        int[] startDays = new int[taskCount];
+        int[] endDays = new int[taskCount];
+        int[] nameOffsets = new int[taskCount + 1];
+        ByteArrayOutputStream nameHeap = new ByteArrayOutputStream();
+        for (int i = 0; i < taskCount; i++) {
+            Task task = taskList.getTask(i);
+            typeSymbols[i] = (byte) task.getTypeSymbol();
+            if (task.isCompleted()) {
+                completionBitmap[i / Long.SIZE] |= 1L << (i % Long.SIZE);
+            }
+            startDays[i] = ColumnarTaskListFile.toEpochDay(ColumnarTaskListFile.getStartDate(task));
+            endDays[i] = ColumnarTaskListFile.toEpochDay(ColumnarTaskListFile.getEndDate(task));
+            nameHeap.write(task.getTaskName().getBytes(StandardCharsets.UTF_8));
+            nameOffsets[i + 1] = nameHeap.size();
+        }
+
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(taskCount);
+        out.writeInt(ThreadLocalRandom.current().nextInt(1, Integer.MAX_VALUE));
+        out.writeLong(nameHeap.size());
+
+        out.write(typeSymbols);
+        ColumnarTaskListFile.writePadding(out);
+        for (long completionWord : completionBitmap) {
+            out.writeLong(completionWord);
+        }
+        for (int startDay : startDays) {
+            out.writeInt(startDay);
+        }
+        ColumnarTaskListFile.writePadding(out);
+        for (int endDay : endDays) {
+            out.writeInt(endDay);
+        }
+        ColumnarTaskListFile.writePadding(out);
+        for (int nameOffset : nameOffsets) {
+            out.writeInt(nameOffset);
+        }
+        ColumnarTaskListFile.writePadding(out);
+        nameHeap.writeTo(out);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getLength() {
+        return this.taskCount;
+    }
+
+    /**
+     * Returns the type symbol of a task, without decoding the rest of the task.
+     *
+     * @param taskIdx The index of the task.
+     * @return The type symbol of the task.
+     */
+    char getTypeSymbol(int taskIdx) {
+        this.checkIndex(taskIdx);
+        return (char) this.buffer.get(this.typeSymbolsOffset + taskIdx);
+    }
+
+    /**
+     * Checks if a task is completed, without decoding the rest of the task.
+     *
+     * @param taskIdx The index of the task.
+     * @return True if the task is completed, false otherwise.
+     */
+    boolean isCompleted(int taskIdx) {
+        this.checkIndex(taskIdx);
+        long completionWord = this.buffer.getLong(this.completionBitmapOffset + (taskIdx / Long.SIZE) * Long.BYTES);
+        return (completionWord & (1L << (taskIdx % Long.SIZE))) != 0;
+    }
+
+    /**
+     * Returns the name of a task, decoding only that name from the heap.
+     *
+     * @param taskIdx The index of the task.
+     * @return The name of the task.
+     */
+    String getTaskName(int taskIdx) {
+        this.checkIndex(taskIdx);
+        int nameStart = this.buffer.getInt(this.nameOffsetsOffset + taskIdx * Integer.BYTES);
+        int nameEnd = this.buffer.getInt(this.nameOffsetsOffset + (taskIdx + 1) * Integer.BYTES);
+        byte[] nameBytes = new byte[nameEnd - nameStart];
+        this.buffer.get(this.nameHeapOffset + nameStart, nameBytes);
+        return new String(nameBytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes a single task from the file.
+     *
+     * @param taskIdx The index of the task.
+     * @return The decoded task.
+     * @throws IllegalStateException If the task has a type symbol that is not recognized.
+     */
+    @Override
+    public Task getTask(int taskIdx) {
+        String taskName = this.getTaskName(taskIdx);
+        LocalDate startDate = LocalDate.ofEpochDay(this.buffer.getInt(this.startDatesOffset + taskIdx * Integer.BYTES));
+        LocalDate endDate = LocalDate.ofEpochDay(this.buffer.getInt(this.endDatesOffset + taskIdx * Integer.BYTES));
+
+        Task task = switch (this.getTypeSymbol(taskIdx)) {
+        case 'T' -> new ToDoTask(taskName);
+        case 'D' -> new DeadlineTask(taskName, startDate);
+        case 'E' -> new EventTask(taskName, startDate, endDate);
+        default -> throw new IllegalStateException(
+                String.format("Unknown task type %s in file: %s.", this.getTypeSymbol(taskIdx), this.path));
+        };
+        if (this.isCompleted(taskIdx)) {
+            task.setComplete();
+        }
+        return task;
+    }
+
+    /**
+     * Decodes every task in the file into a new task list.
+     *
+     * @return The decoded task list.
+     */
+    TaskList toTaskList() {
+        TaskList taskList = TaskList.createCompactTaskList();
+        for (int i = 0; i < this.taskCount; i++) {
+            taskList.addTask(this.getTask(i));
+        }
+        return taskList;
+    }
+
+    /**
+     * Checks that a task index lies within the file.
+     *
+     * @param taskIdx The index of the task.
+     */
+    private void checkIndex(int taskIdx) {
+        if (taskIdx < 0 || taskIdx >= this.taskCount) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", taskIdx, this.taskCount));
+        }
+    }
+
+    /**
+     * Rounds an offset up to the next column boundary.
+     *
+     * @param offset The offset to be aligned.
+     * @return The aligned offset.
+     */
+    private static int align(int offset) {
+        return (offset + COLUMN_ALIGNMENT - 1) / COLUMN_ALIGNMENT * COLUMN_ALIGNMENT;
+    }
+
+    /**
+     * Returns the length in bytes of a completion bitmap holding the given number of tasks.
+     *
+     * @param taskCount The number of tasks.
+     * @return The length of the bitmap in bytes.
+     */
+    private static int getBitmapLength(int taskCount) {
+        return (taskCount + Long.SIZE - 1) / Long.SIZE * Long.BYTES;
+    }
+
+    /**
+     * Pads the output with zeroes up to the next column boundary.
+     *
+     * @param out The output to be padded.
+     * @throws IOException If there is an error writing to the output.
+     */
+    private static void writePadding(DataOutputStream out) throws IOException {
+        while (out.size() % COLUMN_ALIGNMENT != 0) {
+            out.writeByte(0);
+        }
+    }
+
+    /**
+     * Returns the date stored in the start date column for a task.
+     *
+     * @param task The task.
+     * @return The deadline of a deadline task, the start of an event task, or null for other tasks.
+     */
+    private static LocalDate getStartDate(Task task) {
+        if (task instanceof DeadlineTask deadlineTask) {
+            return deadlineTask.getDeadlineDate();
+        } else if (task instanceof EventTask eventTask) {
+            return eventTask.getStartDate();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the date stored in the end date column for a task.
+     *
+     * @param task The task.
+     * @return The end of an event task, or null for other tasks.
+     */
+    private static LocalDate getEndDate(Task task) {
+        return task instanceof EventTask eventTask ? eventTask.getEndDate() : null;
+    }
+
+    /**
+     * Converts a date to the epoch day stored in a date column.
+     *
+     * @param date The date, or null if the task has no such date.
+     * @return The epoch day of the date, or zero if there is no date.
+     * @throws ArithmeticException If the date is too far from the epoch to be stored as an int.
+     */
+    private static int toEpochDay(LocalDate date) {
+        return date == null ? 0 : Math.toIntExact(date.toEpochDay());
+    }
+}
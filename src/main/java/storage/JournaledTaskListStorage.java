@@ -0,0 +1,792 @@
+package storage;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+import tasklist.TaskList;
+import tasklist.TaskListMutation;
+
+/**
+ * Represents a storage utility that persists a task list as a snapshot plus an append-only journal of mutations.
+ * Snapshots are written either in the columnar format of {@link ColumnarTaskListFile} or in the human-readable
+ * format of {@link TaskListTextFile}. Snapshots in either format, as well as snapshots serialized by {@link Storage}
+ * in earlier versions, can be loaded, and a loaded snapshot is rewritten in the format it was found in.
+ * Once a task list has been saved or loaded, later saves to the same file only append the mutations made since,
+ * so the cost of saving scales with the number of changes rather than the length of the list.
+ * When the journal grows past a threshold, it is folded back into the snapshot in the background.
+ *
+ * <p>Mutations may be recorded while another thread saves, so that recorded changes can be written behind
+ * the thread making them. Loading and saving are serialized with each other, across threads and processes,
+ * by a {@link VersionedFileLock} beside the snapshot. Changes are only appended to the journal if no one else
+ * has written the file since this storage last loaded or saved it; otherwise the save is rejected as stale,
+ * unless it only adds tasks, in which case the added tasks are merged into the file.
+ */
+public class JournaledTaskListStorage implements TaskListStorage {
+    /**
+     * The default size in bytes the journal may reach before it is compacted into the snapshot.
+     */
+    public static final long DEFAULT_COMPACTION_THRESHOLD_BYTES = 1 << 20;
+    /**
+     * Magic number written at the start of every journal file, spelling "KJNL".
+     */
+    private static final int JOURNAL_MAGIC = 0x4B4A4E4C;
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String LOCK_SUFFIX = ".lock";
+    private static final byte ADD_RECORD = 'A';
+    private static final byte INSERT_RECORD = 'I';
+    private static final byte DELETE_RECORD = 'D';
+    private static final byte MARK_RECORD = 'M';
+    private static final byte UNMARK_RECORD = 'U';
+    /**
+     * Single background thread shared by all journals to compact them into their snapshots.
+     */
+    private static final ExecutorService COMPACTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String relativeFilePath;
+    private final Path snapshotPath;
+    private final Path journalPath;
+    /**
+     * Lock file guarding the snapshot and journal, so that compaction, loading and saving never race with each
+     * other, in this process or another.
+     */
+    private final Path lockPath;
+    /**
+     * Storage used to load snapshots serialized before the columnar format was introduced.
+     */
+    private final Storage<TaskList> legacySnapshotStorage;
+    private final long compactionThresholdBytes;
+    /**
+     * The format snapshots are written in.
+     */
+    private volatile SnapshotFormat snapshotFormat;
+    /**
+     * Encoded mutations recorded since the last save, waiting to be appended to the journal.
+     */
+    private final ByteArrayOutputStream pendingRecords;
+    /**
+     * Lock held while loading or saving, so that journal appends are written in the order they were recorded.
+     */
+    private final Object saveLock;
+    /**
+     * Whether the files on disk reflect the task list last loaded or saved through this storage,
+     * such that recorded mutations can be appended to the journal instead of rewriting the snapshot.
+     */
+    private volatile boolean isAttached;
+    /**
+     * Checksum of the snapshot the live journal applies to.
+     */
+    private long snapshotChecksum;
+    /**
+     * Version of the files as last loaded or saved through this storage.
+     */
+    private long knownVersion;
+    /**
+     * The compaction currently running in the background, which completes with the new snapshot checksum.
+     */
+    private Future<Long> compaction;
+
+    /**
+     * Constructor for JournaledTaskListStorage class.
+     *
+     * @param relativeFilePath         The relative file path of the snapshot from the project root directory.
+     * @param snapshotFormat           The format snapshots are written in, until a snapshot in another format
+     *                                 is loaded.
+     * @param compactionThresholdBytes The size in bytes the journal may reach before it is compacted.
+     */
+    public JournaledTaskListStorage(String relativeFilePath, SnapshotFormat snapshotFormat,
+            long compactionThresholdBytes) {
+        assert compactionThresholdBytes > 0 : "Compaction threshold must be positive.";
+        this.relativeFilePath = relativeFilePath;
+        this.snapshotPath = Paths.get(relativeFilePath).toAbsolutePath().normalize();
+        this.journalPath = Paths.get(this.snapshotPath + JOURNAL_SUFFIX);
+        this.lockPath = Paths.get(this.snapshotPath + LOCK_SUFFIX);
+        this.legacySnapshotStorage = new Storage<>(relativeFilePath, TaskList.class);
+        this.compactionThresholdBytes = compactionThresholdBytes;
+        this.snapshotFormat = snapshotFormat;
+        this.pendingRecords = new ByteArrayOutputStream();
+        this.saveLock = new Object();
+        this.isAttached = false;
+    }
+
+    /**
+     * Constructor for JournaledTaskListStorage class, writing columnar snapshots.
+     *
+     * @param relativeFilePath         The relative file path of the snapshot from the project root directory.
+     * @param compactionThresholdBytes The size in bytes the journal may reach before it is compacted.
+     */
+    public JournaledTaskListStorage(String relativeFilePath, long compactionThresholdBytes) {
+        this(relativeFilePath, SnapshotFormat.COLUMNAR, compactionThresholdBytes);
+    }
+
+    /**
+     * Constructor for JournaledTaskListStorage class, with the default compaction threshold.
+     *
+     * @param relativeFilePath The relative file path of the snapshot from the project root directory.
+     * @param snapshotFormat   The format snapshots are written in, until a snapshot in another format is loaded.
+     */
+    public JournaledTaskListStorage(String relativeFilePath, SnapshotFormat snapshotFormat) {
+        this(relativeFilePath, snapshotFormat, DEFAULT_COMPACTION_THRESHOLD_BYTES);
+    }
+
+    /**
+     * Constructor for JournaledTaskListStorage class, writing columnar snapshots with the default compaction
+     * threshold.
+     *
+     * @param relativeFilePath The relative file path of the snapshot from the project root directory.
+     */
+    public JournaledTaskListStorage(String relativeFilePath) {
+        this(relativeFilePath, SnapshotFormat.COLUMNAR, DEFAULT_COMPACTION_THRESHOLD_BYTES);
+    }
+
+    @Override
+    public String getRelativeFilePath() {
+        return this.relativeFilePath;
+    }
+
+    /**
+     * Checks if this storage persists to the given file.
+     *
+     * @param relativeFilePath The relative file path to compare with.
+     * @return True if the file path refers to the snapshot of this storage, false otherwise.
+     */
+    @Override
+    public boolean isStoredAt(String relativeFilePath) {
+        return this.snapshotPath.equals(Paths.get(relativeFilePath).toAbsolutePath().normalize());
+    }
+
+    /**
+     * Checks if the files on disk reflect the task list last loaded or saved through this storage,
+     * such that the mutations recorded since can be saved without the task list itself.
+     *
+     * @return True if the storage has loaded or saved a task list, false otherwise.
+     */
+    @Override
+    public boolean isAttached() {
+        return this.isAttached;
+    }
+
+    /**
+     * Loads the task list from the snapshot, replaying any mutations recorded in the journal.
+     *
+     * @return The task list loaded from the file.
+     * @throws StorageException If there is an error loading the snapshot or reading the journal.
+     */
+    @Override
+    public TaskList load() throws StorageException {
+        synchronized (this.saveLock) {
+            return this.loadAndAttach();
+        }
+    }
+
+    /**
+     * Loads the task list from the snapshot and journal, and attaches the storage to it.
+     * If the same files were loaded before in this process and have not changed since, the task list is taken
+     * from the shared cache instead of being read again. A task list taken from or added to the cache shares
+     * the cached task list without reading any of its tasks, so that a snapshot read lazily stays lazy.
+     *
+     * @return The task list loaded from the file.
+     * @throws StorageException If there is an error loading the snapshot or reading the journal.
+     */
+    private TaskList loadAndAttach() throws StorageException {
+        this.awaitCompaction();
+        Path pendingSegment;
+        TaskList taskList;
+
+        try (VersionedFileLock lock = VersionedFileLock.acquire(this.lockPath)) {
+            this.knownVersion = lock.readVersion();
+            TaskListCache cache = TaskListCache.getSharedCache();
+            Path cacheKey = this.snapshotPath.toRealPath();
+            List<TaskListCache.FileVersion> versions = TaskListCache.captureVersions(this.getStoredFiles());
+            TaskListCache.CachedTaskList cachedTaskList = cache.get(cacheKey, versions);
+
+            if (cachedTaskList != null) {
+                taskList = cachedTaskList.taskList().share();
+                this.snapshotChecksum = cachedTaskList.snapshotChecksum();
+            } else {
+                taskList = this.readSnapshotAndJournal();
+                // Only cache the task list if loading it left the files as they were when it started.
+                if (versions.equals(TaskListCache.captureVersions(this.getStoredFiles()))
+                        && cache.put(cacheKey, versions, taskList, this.snapshotChecksum)) {
+                    taskList = taskList.share();
+                }
+            }
+            pendingSegment = this.getRotatedSegmentPath(this.snapshotChecksum);
+        } catch (IOException e) {
+            throw new StorageException(String.format("Error loading data from file: %s.", this.relativeFilePath), e);
+        }
+
+        synchronized (this.pendingRecords) {
+            this.pendingRecords.reset();
+            this.isAttached = true;
+        }
+        if (Files.exists(pendingSegment)) {
+            this.compaction = COMPACTOR.submit(this.createCompactionTask(pendingSegment));
+        }
+        return taskList;
+    }
+
+    /**
+     * Reads the task list from the snapshot, and replays the rotated journal segment for the snapshot, if any,
+     * and the live journal onto it. Segments left behind for earlier snapshots are removed.
+     *
+     * @return The task list read.
+     * @throws StorageException If there is an error loading the snapshot.
+     * @throws IOException      If there is an error reading the journal.
+     */
+    private TaskList readSnapshotAndJournal() throws StorageException, IOException {
+        TaskList taskList = this.loadSnapshot();
+        this.snapshotChecksum = this.computeSnapshotChecksum();
+
+        for (Path segment : this.findRotatedSegments()) {
+            if (segment.equals(this.getRotatedSegmentPath(this.snapshotChecksum))) {
+                this.replaySegment(segment, taskList);
+            } else {
+                // Left behind by a compaction that completed before the segment could be removed.
+                Files.delete(segment);
+            }
+        }
+        if (Files.exists(this.journalPath)) {
+            this.replaySegment(this.journalPath, taskList);
+        }
+        return taskList;
+    }
+
+    /**
+     * Records a mutation made to the task list since it was last loaded or saved, to be written on the next save.
+     *
+     * @param mutation The mutation made to the task list.
+     */
+    @Override
+    public void record(TaskListMutation mutation) {
+        try {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream();
+            JournaledTaskListStorage.writeRecord(new DataOutputStream(payload), mutation);
+
+            synchronized (this.pendingRecords) {
+                if (!this.isAttached) {
+                    return;
+                }
+                DataOutputStream pendingOut = new DataOutputStream(this.pendingRecords);
+                pendingOut.writeInt(payload.size());
+                payload.writeTo(pendingOut);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Saves the task list to the file.
+     * If the task list was last loaded or saved through this storage, only the mutations recorded since are
+     * appended to the journal. Otherwise, a full snapshot of the task list is written and the journal is cleared,
+     * in which case a snapshot of a concurrent task list is written, and other task lists must not be changed
+     * until the save completes.
+     *
+     * @param taskList The task list to be saved.
+     * @throws StorageException If there is an error writing the snapshot or the journal.
+     */
+    @Override
+    public void save(TaskList taskList) throws StorageException {
+        assert taskList != null : "Task list to be saved cannot be null.";
+        synchronized (this.saveLock) {
+            if (this.isAttached) {
+                this.appendAndCompact(true);
+            } else {
+                this.saveSnapshot(taskList.snapshot());
+            }
+        }
+    }
+
+    /**
+     * Appends the mutations recorded since the last save to the journal, without needing the task list itself.
+     * This is safe to call from another thread while further mutations are being recorded.
+     * The mutations are never merged into a file written by someone else since it was last loaded or saved.
+     *
+     * @throws StaleVersionException If someone else has written the file since, in which case the mutations
+     *                               are kept to be saved later.
+     * @throws StorageException      If there is an error writing the journal.
+     */
+    @Override
+    public void flush() throws StorageException {
+        assert this.isAttached : "Only a storage that has loaded or saved a task list can flush recorded changes.";
+        this.appendAndCompact(false);
+    }
+
+    /**
+     * Appends the mutations recorded since the last save to the journal, and compacts the journal if needed.
+     *
+     * @param isMergeable Whether mutations that only add tasks may be merged into a file written by someone else
+     *                    since it was last loaded or saved, in which case the storage is detached from it.
+     * @throws StaleVersionException If someone else has written the file since.
+     * @throws StorageException      If there is an error writing the journal.
+     */
+    private void appendAndCompact(boolean isMergeable) throws StorageException {
+        synchronized (this.saveLock) {
+            try {
+                this.appendPendingRecords(isMergeable);
+                this.compactIfNeeded();
+            } catch (StaleVersionException e) {
+                throw e;
+            } catch (IOException e) {
+                throw new StorageException(
+                        String.format("Error saving data to file: %s.", this.relativeFilePath), e);
+            }
+        }
+    }
+
+    /**
+     * Writes a full snapshot of the task list, discarding the journal.
+     *
+     * @param taskList The task list to be saved.
+     * @throws StorageException If there is an error writing the snapshot.
+     */
+    private void saveSnapshot(TaskList taskList) throws StorageException {
+        this.awaitCompaction();
+        try (VersionedFileLock lock = VersionedFileLock.acquire(this.lockPath)) {
+            this.writeSnapshotFile(taskList);
+            Files.deleteIfExists(this.journalPath);
+            for (Path segment : this.findRotatedSegments()) {
+                Files.delete(segment);
+            }
+            this.snapshotChecksum = this.computeSnapshotChecksum();
+            this.knownVersion = lock.incrementVersion();
+        } catch (IOException e) {
+            throw new StorageException(String.format("Error saving data to file: %s.", this.relativeFilePath), e);
+        }
+
+        synchronized (this.pendingRecords) {
+            this.pendingRecords.reset();
+            this.isAttached = true;
+        }
+    }
+
+    /**
+     * Loads the task list stored in the snapshot, in the columnar, text or legacy serialized format,
+     * and adopts the columnar or text format for the snapshots written after.
+     * Columnar snapshots are read without decoding any task, and decoded a page of tasks at a time as they are used.
+     *
+     * @return The task list stored in the snapshot.
+     * @throws StorageException If there is an error loading the snapshot.
+     */
+    private TaskList loadSnapshot() throws StorageException {
+        if (ColumnarTaskListFile.isColumnarFile(this.snapshotPath)) {
+            this.snapshotFormat = SnapshotFormat.COLUMNAR;
+            return TaskList.createPagedTaskList(ColumnarTaskListFile.open(this.snapshotPath));
+        } else if (TaskListTextFile.isTextFile(this.snapshotPath)) {
+            this.snapshotFormat = SnapshotFormat.TEXT;
+            return TaskListTextFile.read(this.snapshotPath);
+        }
+        return this.legacySnapshotStorage.load();
+    }
+
+    /**
+     * Writes the task list to the snapshot file in the snapshot format.
+     *
+     * @param taskList The task list to be written.
+     * @throws StorageException If there is an error writing the snapshot.
+     */
+    private void writeSnapshotFile(TaskList taskList) throws StorageException {
+        switch (this.snapshotFormat) {
+        case COLUMNAR -> ColumnarTaskListFile.write(this.snapshotPath, taskList);
+        case TEXT -> TaskListTextFile.write(this.snapshotPath, taskList);
+        default -> throw new IllegalStateException("Unknown snapshot format: " + this.snapshotFormat);
+        }
+    }
+
+    /**
+     * Appends all pending records to the journal, and forces them to disk.
+     * If the append fails, the journal is cut back to where it was and the records are kept pending.
+     * If someone else has written the file since it was last loaded or saved, the records are kept pending
+     * instead, unless they may be merged and only add tasks, which keeps their meaning whatever the file holds.
+     *
+     * @param isMergeable Whether records that only add tasks may be merged into a file written by someone else,
+     *                    in which case the storage is detached from it.
+     * @throws StaleVersionException If someone else has written the file since.
+     * @throws IOException           If there is an error writing to the journal.
+     */
+    private void appendPendingRecords(boolean isMergeable) throws StaleVersionException, IOException {
+        byte[] pending;
+        synchronized (this.pendingRecords) {
+            pending = this.pendingRecords.toByteArray();
+            this.pendingRecords.reset();
+        }
+        if (pending.length == 0) {
+            return;
+        }
+
+        try (VersionedFileLock lock = VersionedFileLock.acquire(this.lockPath)) {
+            boolean isStale = lock.readVersion() != this.knownVersion;
+            String staleMessage = String.format(
+                    "File was changed by someone else since it was last loaded or saved: %s.", this.relativeFilePath);
+            if (isStale && !(isMergeable && JournaledTaskListStorage.isAddOnly(pending))) {
+                this.restorePendingRecords(pending);
+                throw new StaleVersionException(staleMessage, false);
+            }
+
+            this.appendToJournal(pending);
+            this.knownVersion = lock.incrementVersion();
+            if (isStale) {
+                // The task list in memory no longer matches the files, so it must be loaded again.
+                synchronized (this.pendingRecords) {
+                    this.pendingRecords.reset();
+                    this.isAttached = false;
+                }
+                throw new StaleVersionException(staleMessage, true);
+            }
+        }
+    }
+
+    /**
+     * Appends records to the journal, and forces them to disk.
+     * If the append fails, the journal is cut back to where it was and the records are kept pending.
+     *
+     * @param pending The records to be appended.
+     * @throws IOException If there is an error writing to the journal.
+     */
+    private void appendToJournal(byte[] pending) throws IOException {
+        try (FileChannel channel = FileChannel.open(this.journalPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            long originalSize = channel.size();
+            try {
+                if (originalSize == 0) {
+                    channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, JOURNAL_MAGIC));
+                }
+                ByteBuffer records = ByteBuffer.wrap(pending);
+                while (records.hasRemaining()) {
+                    channel.write(records);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                channel.truncate(originalSize);
+                this.restorePendingRecords(pending);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Puts records that could not be appended back in front of any records made since.
+     *
+     * @param records The records to be restored.
+     */
+    private void restorePendingRecords(byte[] records) {
+        synchronized (this.pendingRecords) {
+            byte[] laterRecords = this.pendingRecords.toByteArray();
+            this.pendingRecords.reset();
+            this.pendingRecords.writeBytes(records);
+            this.pendingRecords.writeBytes(laterRecords);
+        }
+    }
+
+    /**
+     * Checks if encoded records only add tasks.
+     *
+     * @param records The encoded records, each preceded by its length.
+     * @return True if every record adds a task, false otherwise.
+     */
+    private static boolean isAddOnly(byte[] records) {
+        ByteBuffer buffer = ByteBuffer.wrap(records);
+        while (buffer.hasRemaining()) {
+            int length = buffer.getInt();
+            if (buffer.get(buffer.position()) != ADD_RECORD) {
+                return false;
+            }
+            buffer.position(buffer.position() + length);
+        }
+        return true;
+    }
+
+    /**
+     * Rotates the journal out and compacts it into the snapshot in the background,
+     * if the journal has outgrown the threshold and no other compaction is running.
+     *
+     * @throws StorageException If there is an error reading the snapshot.
+     * @throws IOException      If there is an error rotating the journal.
+     */
+    private void compactIfNeeded() throws StorageException, IOException {
+        if (!Files.exists(this.journalPath) || Files.size(this.journalPath) < this.compactionThresholdBytes) {
+            return;
+        }
+        if (this.compaction != null) {
+            if (!this.compaction.isDone()) {
+                return;
+            }
+            this.awaitCompaction();
+        }
+
+        Path segment;
+        VersionedFileLock lock = VersionedFileLock.acquire(this.lockPath);
+        try {
+            // The rotated segment is named after the snapshot it applies to, so that it is only ever replayed once.
+            // Another process may have compacted the snapshot since, so its checksum is taken afresh.
+            this.snapshotChecksum = this.computeSnapshotChecksum();
+            segment = this.getRotatedSegmentPath(this.snapshotChecksum);
+            if (Files.exists(segment)) {
+                // Another process is still compacting a segment for the same snapshot.
+                return;
+            }
+            Files.move(this.journalPath, segment, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            lock.close();
+        }
+        this.compaction = COMPACTOR.submit(this.createCompactionTask(segment));
+    }
+
+    /**
+     * Returns a task that folds a rotated journal segment into the snapshot, and then removes the segment.
+     *
+     * @param segment The rotated journal segment to be compacted.
+     * @return The compaction task, which returns the checksum of the new snapshot.
+     */
+    private Callable<Long> createCompactionTask(Path segment) {
+        return () -> {
+            VersionedFileLock lock = VersionedFileLock.acquire(this.lockPath);
+            try {
+                if (!Files.exists(segment)) {
+                    // Already compacted, or discarded by a full snapshot, through another storage or process.
+                    return this.computeSnapshotChecksum();
+                }
+                TaskList taskList = this.loadSnapshot();
+                this.replaySegment(segment, taskList);
+                this.writeSnapshotFile(taskList);
+                long checksum = this.computeSnapshotChecksum();
+                Files.delete(segment);
+                return checksum;
+            } finally {
+                lock.close();
+            }
+        };
+    }
+
+    /**
+     * Waits for the running compaction, if any, to finish and adopts the checksum of the snapshot it wrote.
+     *
+     * @throws StorageException If the compaction failed.
+     */
+    private void awaitCompaction() throws StorageException {
+        if (this.compaction == null) {
+            return;
+        }
+
+        try {
+            this.snapshotChecksum = this.compaction.get();
+        } catch (ExecutionException e) {
+            throw new StorageException(
+                    String.format("Error compacting journal of file: %s.", this.relativeFilePath), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException(
+                    String.format("Error compacting journal of file: %s.", this.relativeFilePath), e);
+        } finally {
+            this.compaction = null;
+        }
+    }
+
+    /**
+     * Replays the records of a journal segment onto a task list.
+     * A record cut short by a crash while it was being appended is discarded, along with anything after it.
+     *
+     * @param segment  The journal segment to be replayed.
+     * @param taskList The task list to apply the recorded mutations to.
+     * @throws IOException If there is an error reading the segment, or it is not a journal.
+     */
+    private void replaySegment(Path segment, TaskList taskList) throws IOException {
+        long validLength = Integer.BYTES;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment)))) {
+            if (in.readInt() != JOURNAL_MAGIC) {
+                throw new IOException("Not a journal file: " + segment);
+            }
+
+            while (true) {
+                byte[] payload;
+                try {
+                    payload = new byte[in.readInt()];
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    break;
+                }
+                JournaledTaskListStorage.readRecord(
+                        new DataInputStream(new ByteArrayInputStream(payload)), taskList);
+                validLength += Integer.BYTES + payload.length;
+            }
+        }
+
+        if (validLength < Files.size(segment)) {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+            }
+        }
+    }
+
+    /**
+     * Writes a single mutation as a journal record.
+     *
+     * @param out      The output to write the record to.
+     * @param mutation The mutation to be recorded.
+     * @throws IOException If there is an error writing to the output.
+     */
+    private static void writeRecord(DataOutputStream out, TaskListMutation mutation) throws IOException {
+        switch (mutation.type()) {
+        case ADD -> {
+            out.writeByte(ADD_RECORD);
+            TaskBinaryCodec.writeTask(out, mutation.task());
+        }
+        case INSERT -> {
+            out.writeByte(INSERT_RECORD);
+            out.writeInt(mutation.taskIdx());
+            TaskBinaryCodec.writeTask(out, mutation.task());
+        }
+        case DELETE -> {
+            out.writeByte(DELETE_RECORD);
+            out.writeInt(mutation.taskIdx());
+        }
+        case MARK -> {
+            out.writeByte(MARK_RECORD);
+            out.writeInt(mutation.taskIdx());
+        }
+        case UNMARK -> {
+            out.writeByte(UNMARK_RECORD);
+            out.writeInt(mutation.taskIdx());
+        }
+        default -> throw new IllegalStateException("Unknown mutation type: " + mutation.type());
+        }
+    }
+
+    /**
+     * Reads a single journal record and applies the mutation it describes to a task list.
+     *
+     * @param in       The input to read the record from.
+     * @param taskList The task list to apply the mutation to.
+     * @throws IOException If there is an error reading the record, or it does not apply to the task list.
+     */
+    private static void readRecord(DataInputStream in, TaskList taskList) throws IOException {
+        byte recordType = in.readByte();
+        if (recordType == ADD_RECORD) {
+            taskList.addTask(TaskBinaryCodec.readTask(in));
+            return;
+        }
+
+        int taskIdx = in.readInt();
+        if (recordType == INSERT_RECORD) {
+            if (taskIdx < 0 || taskIdx > taskList.getLength()) {
+                throw new IOException("Journal record inserts a task out of bounds: " + (taskIdx + 1));
+            }
+            taskList.insertTask(taskIdx, TaskBinaryCodec.readTask(in));
+            return;
+        }
+        if (taskIdx < 0 || taskIdx >= taskList.getLength()) {
+            throw new IOException("Journal record refers to a task that does not exist: " + (taskIdx + 1));
+        }
+        switch (recordType) {
+        case DELETE_RECORD -> taskList.deleteTask(taskIdx);
+        case MARK_RECORD -> taskList.setTaskComplete(taskIdx);
+        case UNMARK_RECORD -> taskList.setTaskIncomplete(taskIdx);
+        default -> throw new IOException("Unknown journal record type: " + recordType);
+        }
+    }
+
+    /**
+     * Returns the path a journal segment is rotated to, named after the checksum of the snapshot it applies to.
+     *
+     * @param checksum The checksum of the snapshot the segment applies to.
+     * @return The path of the rotated segment.
+     */
+    private Path getRotatedSegmentPath(long checksum) {
+        return Paths.get(String.format("%s.%08x", this.journalPath, checksum));
+    }
+
+    /**
+     * Returns every file the task list is stored in: the snapshot, the live journal, and any rotated segments.
+     *
+     * @return The paths of the files, in a consistent order.
+     * @throws StorageException If there is an error listing the directory of the snapshot.
+     */
+    private List<Path> getStoredFiles() throws StorageException {
+        List<Path> storedFiles = new ArrayList<>();
+        storedFiles.add(this.snapshotPath);
+        storedFiles.add(this.journalPath);
+        List<Path> segments = this.findRotatedSegments();
+        segments.sort(null);
+        storedFiles.addAll(segments);
+        return storedFiles;
+    }
+
+    /**
+     * Finds all rotated journal segments belonging to the snapshot.
+     *
+     * @return The paths of the rotated segments.
+     * @throws StorageException If there is an error listing the directory of the snapshot.
+     */
+    private List<Path> findRotatedSegments() throws StorageException {
+        List<Path> segments = new ArrayList<>();
+        String prefix = this.journalPath.getFileName() + ".";
+        try (DirectoryStream<Path> directory = Files.newDirectoryStream(this.journalPath.getParent(),
+                path -> path.getFileName().toString().startsWith(prefix))) {
+            directory.forEach(segments::add);
+        } catch (IOException e) {
+            throw new StorageException(String.format("Error reading journal of file: %s.", this.relativeFilePath), e);
+        }
+        return segments;
+    }
+
+    /**
+     * Computes the checksum identifying the snapshot file's contents.
+     * Columnar snapshots are identified by the id in their header, so that only the header is read;
+     * other snapshots are read in full.
+     *
+     * @return The id of a columnar snapshot, or the CRC-32 checksum of any other snapshot.
+     * @throws StorageException If there is an error reading the snapshot.
+     */
+    private long computeSnapshotChecksum() throws StorageException {
+        int snapshotId = ColumnarTaskListFile.readId(this.snapshotPath);
+        if (snapshotId != 0) {
+            return snapshotId;
+        }
+
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[1 << 16];
+        try (InputStream in = Files.newInputStream(this.snapshotPath)) {
+            int bytesRead;
+            while ((bytesRead = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, bytesRead);
+            }
+        } catch (IOException e) {
+            throw new StorageException(String.format("Error loading data from file: %s.", this.relativeFilePath), e);
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Represents the formats a snapshot can be written in.
+     */
+    public enum SnapshotFormat {
+        COLUMNAR, TEXT
+    }
+}
@@ -0,0 +1,282 @@
+package storage;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.stream.IntStream;
+
+import tasklist.Task;
+import tasklist.TaskSource;
+
+/**
+ * Represents an immutable segment file of a log-structured store, holding tasks sorted by their keys,
+ * read through a memory-mapped buffer. Each entry holds either an encoded task, or a tombstone marking
+ * the task with its key as deleted in older segments.
+ * A segment without tombstones is also a source of its tasks in the order of their keys.
+ *
+ * <p>The file consists of a header, the entries, an index and a trailer:
+ * <ul>
+ *     <li>Header: magic number.</li>
+ *     <li>Entries: a kind byte per entry, followed by the task encoded by {@link TaskBinaryCodec} if any.</li>
+ *     <li>Index: the key and the offset of each entry, in ascending order of keys.</li>
+ *     <li>Trailer: the offset of the index.</li>
+ * </ul>
+ */
+final class LsmSegment implements TaskSource {
+    /**
+     * Magic number written at the start of every segment file, spelling "KSEG".
+     */
+    private static final int MAGIC = 0x4B534547;
+    private static final int HEADER_BYTES = Integer.BYTES;
+    private static final int INDEX_ENTRY_BYTES = Long.BYTES + Integer.BYTES;
+    private static final byte TASK_ENTRY = 'P';
+    private static final byte TOMBSTONE_ENTRY = 'X';
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int entryCount;
+    private final int indexOffset;
+
+    /**
+     * Constructor for LsmSegment class.
+     *
+     * @param path        The path of the segment file.
+     * @param buffer      The buffer the file is mapped to.
+     * @param entryCount  The number of entries in the segment.
+     * @param indexOffset The offset of the index in the file.
+     */
+    private LsmSegment(Path path, MappedByteBuffer buffer, int entryCount, int indexOffset) {
+        this.path = path;
+        this.buffer = buffer;
+        this.entryCount = entryCount;
+        this.indexOffset = indexOffset;
+    }
+
+    /**
+     * Opens a segment file by mapping it into memory, without decoding any entries.
+     * The segment stays readable once opened, even if the file is deleted by a later compaction. On Windows,
+     * the file cannot be deleted until the segment is unmapped, once it is no longer reachable.
+     *
+     * @param path The path of the segment file.
+     * @return The opened segment.
+     * @throws IOException If the file cannot be read, or is not a valid segment file.
+     */
+    static LsmSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Segment is too large to be mapped: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < HEADER_BYTES + Long.BYTES || buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a segment file: " + path);
+            }
+
+            long indexOffset = buffer.getLong(buffer.limit() - Long.BYTES);
+            long indexLength = buffer.limit() - Long.BYTES - indexOffset;
+            if (indexOffset < HEADER_BYTES || indexLength < 0 || indexLength % INDEX_ENTRY_BYTES != 0) {
+                throw new IOException("Corrupted segment file: " + path);
+            }
+            return new LsmSegment(path, buffer, (int) (indexLength / INDEX_ENTRY_BYTES), (int) indexOffset);
+        }
+    }
+
+    /**
+     * Writes entries sorted by their keys to a new segment file, and opens it.
+     * The index is spilled to a temporary file while the entries are written, so that writing a segment
+     * does not hold its entries in memory.
+     *
+     * @param path    The path of the segment file.
+     * @param entries The entries, in strictly ascending order of keys.
+     * @return The segment written.
+     * @throws IOException If there is an error writing the file.
+     */
+    static LsmSegment write(Path path, Iterator<Entry> entries) throws IOException {
+        Path indexPath = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".index");
+        try {
+            AtomicFileCommitter.commit(path, out -> {
+                DataOutputStream dataOut = new DataOutputStream(out);
+                dataOut.writeInt(MAGIC);
+
+                int entryCount = 0;
+                try (DataOutputStream indexOut = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(indexPath)))) {
+                    long previousKey = Long.MIN_VALUE;
+                    while (entries.hasNext()) {
+                        Entry entry = entries.next();
+                        assert entryCount == 0 || entry.key() > previousKey : "Entries must be sorted by key.";
+                        previousKey = entry.key();
+                        indexOut.writeLong(entry.key());
+                        indexOut.writeInt(dataOut.size());
+                        if (entry.value() == null) {
+                            dataOut.writeByte(TOMBSTONE_ENTRY);
+                        } else {
+                            dataOut.writeByte(TASK_ENTRY);
+                            dataOut.write(entry.value());
+                        }
+                        entryCount++;
+                    }
+                }
+
+                long indexOffset = dataOut.size();
+                if (indexOffset + (long) entryCount * INDEX_ENTRY_BYTES + Long.BYTES > Integer.MAX_VALUE) {
+                    throw new IOException("Segment is too large to be mapped: " + path);
+                }
+                Files.copy(indexPath, dataOut);
+                dataOut.writeLong(indexOffset);
+                dataOut.flush();
+            });
+        } finally {
+            Files.deleteIfExists(indexPath);
+        }
+        return LsmSegment.open(path);
+    }
+
+    /**
+     * Encodes a task as the value of an entry.
+     *
+     * @param task The task to be encoded.
+     * @return The encoded task.
+     */
+    static byte[] encodeTask(Task task) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            TaskBinaryCodec.writeTask(out, task);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Decodes a task from the value of an entry.
+     *
+     * @param value The encoded task.
+     * @return A newly decoded task.
+     */
+    static Task decodeTask(byte[] value) {
+        try {
+            return TaskBinaryCodec.readTask(new DataInputStream(new ByteArrayInputStream(value)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    Path getPath() {
+        return this.path;
+    }
+
+    /**
+     * Returns the key of an entry.
+     *
+     * @param entryIdx The index of the entry, in ascending order of keys.
+     * @return The key of the entry.
+     */
+    long getKey(int entryIdx) {
+        return this.buffer.getLong(this.indexOffset + entryIdx * INDEX_ENTRY_BYTES);
+    }
+
+    /**
+     * Finds the entry with a key, by binary search over the index.
+     *
+     * @param key The key to find.
+     * @return The index of the entry, or a negative number if there is no entry with the key.
+     */
+    int find(long key) {
+        int low = 0;
+        int high = this.entryCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midKey = this.getKey(mid);
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Returns the value of an entry.
+     *
+     * @param entryIdx The index of the entry, in ascending order of keys.
+     * @return The encoded task, or null if the entry is a tombstone.
+     */
+    byte[] getValue(int entryIdx) {
+        int offset = this.getEntryOffset(entryIdx);
+        if (this.buffer.get(offset) == TOMBSTONE_ENTRY) {
+            return null;
+        }
+        int end = entryIdx + 1 < this.entryCount ? this.getEntryOffset(entryIdx + 1) : this.indexOffset;
+        byte[] value = new byte[end - offset - 1];
+        this.buffer.get(offset + 1, value);
+        return value;
+    }
+
+    /**
+     * Returns an iterator over the entries of the segment, in ascending order of keys.
+     *
+     * @return The iterator over the entries.
+     */
+    Iterator<Entry> iterator() {
+        return IntStream.range(0, this.entryCount)
+                .mapToObj(entryIdx -> new Entry(this.getKey(entryIdx), this.getValue(entryIdx)))
+                .iterator();
+    }
+
+    /**
+     * Returns the number of entries in the segment, which are all tasks if it has no tombstones.
+     *
+     * @return The number of entries.
+     */
+    @Override
+    public int getLength() {
+        return this.entryCount;
+    }
+
+    /**
+     * Decodes the task of an entry, which must not be a tombstone.
+     *
+     * @param taskIdx The index of the entry, in ascending order of keys.
+     * @return A newly decoded task.
+     */
+    @Override
+    public Task getTask(int taskIdx) {
+        byte[] value = this.getValue(taskIdx);
+        assert value != null : "Only segments without tombstones can be read as a source of tasks.";
+        return LsmSegment.decodeTask(value);
+    }
+
+    /**
+     * Returns the offset of an entry in the file.
+     *
+     * @param entryIdx The index of the entry.
+     * @return The offset of the entry.
+     */
+    private int getEntryOffset(int entryIdx) {
+        return this.buffer.getInt(this.indexOffset + entryIdx * INDEX_ENTRY_BYTES + Long.BYTES);
+    }
+
+    /**
+     * Represents an entry of a segment.
+     *
+     * @param key   The key of the task.
+     * @param value The encoded task, or null for a tombstone.
+     */
+    record Entry(long key, byte[] value) {
+    }
+}
@@ -0,0 +1,952 @@
+package storage;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import tasklist.Task;
+import tasklist.TaskList;
+import tasklist.TaskListMutation;
+
+/**
+ * Represents a storage utility that keeps a task list in a directory as a small embedded log-structured store.
+ * Every task is kept under a key greater than the key of any task before it, so that the order of the keys is
+ * the order of the task list. Changes are kept in a sorted table in memory and appended to a write-ahead log on
+ * every save, and the table is written out as an immutable sorted {@link LsmSegment} once it outgrows a threshold.
+ * Segments are merged in the background once there are too many of them. Marking, unmarking or deleting a task
+ * therefore writes a single entry, found by binary search, rather than rewriting the task list.
+ *
+ * <p>A manifest lists the live segments from newest to oldest. An entry in a newer segment overrides the entries
+ * with the same key in older ones, and tombstones mark deleted tasks. Loading folds the log and all segments into
+ * a single segment, which the loaded task list reads lazily a page at a time through a memory-mapped buffer,
+ * so task lists far larger than the heap can be loaded and changed. To find the key of a task by its position,
+ * only the keys of tasks added and the positions of tasks deleted since are kept in memory.
+ *
+ * <p>Like {@link PartitionedTaskListStorage}, loading and saving are serialized across threads and processes by
+ * a {@link VersionedFileLock} in the directory, and saves over changes made by someone else are rejected.
+ */
+public class LsmTaskListStorage implements TaskListStorage {
+    /**
+     * The default size in bytes the table of changes in memory may reach before it is written out as a segment.
+     */
+    public static final long DEFAULT_MEMTABLE_THRESHOLD_BYTES = 1 << 20;
+    /**
+     * The default number of segments there may be before they are merged.
+     */
+    public static final int DEFAULT_MAX_SEGMENTS = 4;
+    /**
+     * Magic number written at the start of the manifest, spelling "KMAN".
+     */
+    private static final int MANIFEST_MAGIC = 0x4B4D414E;
+    /**
+     * Magic number written at the start of the write-ahead log, spelling "KWAL".
+     */
+    private static final int LOG_MAGIC = 0x4B57414C;
+    private static final String MANIFEST_FILE_NAME = "MANIFEST";
+    private static final String LOG_FILE_NAME = "wal.log";
+    private static final String LOCK_FILE_NAME = "store.lock";
+    private static final String SEGMENT_EXTENSION = ".seg";
+    private static final byte PUT_RECORD = 'P';
+    private static final byte DELETE_RECORD = 'X';
+    /**
+     * Single background thread shared by all stores to merge their segments.
+     */
+    private static final ExecutorService COMPACTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "segment-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String relativeDirectoryPath;
+    private final Path directory;
+    private final Path manifestPath;
+    private final Path logPath;
+    private final Path lockPath;
+    private final long memtableThresholdBytes;
+    private final int maxSegments;
+    /**
+     * Changes not yet written to a segment, by key, with null for deleted tasks.
+     */
+    private TreeMap<Long, byte[]> memtable;
+    private long memtableBytes;
+    /**
+     * Changes being written to a new segment, which are still read from until the segment is in place.
+     */
+    private TreeMap<Long, byte[]> frozenMemtable;
+    /**
+     * The live segments, from newest to oldest.
+     */
+    private List<LsmSegment> segments;
+    /**
+     * The segment holding the tasks as last loaded or saved, in the order of the task list.
+     */
+    private LsmSegment baseSegment;
+    /**
+     * Keys of tasks added since the task list was last loaded or saved.
+     */
+    private final List<Long> appendedKeys;
+    /**
+     * Sorted positions of deleted tasks, counting the base segment followed by the added tasks.
+     */
+    private int[] deletedPositions;
+    private int deletedCount;
+    private long nextKey;
+    /**
+     * Encoded changes recorded since the last save, waiting to be appended to the log.
+     */
+    private final ByteArrayOutputStream pendingRecords;
+    /**
+     * Lock guarding the changes, segments and positions recorded, so that mutations can be recorded while another
+     * thread saves.
+     */
+    private final Object recordLock;
+    /**
+     * Lock held while loading or saving, so that changes are logged in the order they were recorded.
+     */
+    private final Object saveLock;
+    private volatile boolean isAttached;
+    /**
+     * Version of the store as last loaded or saved through this storage.
+     */
+    private long knownVersion;
+    /**
+     * The merge of segments currently running in the background.
+     */
+    private Future<Void> compaction;
+
+    /**
+     * Constructor for LsmTaskListStorage class.
+     *
+     * @param relativeDirectoryPath  The relative path of the directory holding the store.
+     * @param memtableThresholdBytes The size in bytes the changes in memory may reach before they are written
+     *                               out as a segment.
+     * @param maxSegments            The number of segments there may be before they are merged.
+     */
+    public LsmTaskListStorage(String relativeDirectoryPath, long memtableThresholdBytes, int maxSegments) {
+        assert relativeDirectoryPath != null && !relativeDirectoryPath.isEmpty()
+                : "Relative directory path cannot be null, nor empty.";
+        assert memtableThresholdBytes > 0 && maxSegments > 0 : "Thresholds must be positive.";
+        this.relativeDirectoryPath = relativeDirectoryPath;
+        this.directory = Paths.get(relativeDirectoryPath).toAbsolutePath().normalize();
+        this.manifestPath = this.directory.resolve(MANIFEST_FILE_NAME);
+        this.logPath = this.directory.resolve(LOG_FILE_NAME);
+        this.lockPath = this.directory.resolve(LOCK_FILE_NAME);
+        this.memtableThresholdBytes = memtableThresholdBytes;
+        this.maxSegments = maxSegments;
+        this.memtable = new TreeMap<>();
+        this.segments = new ArrayList<>();
+        this.appendedKeys = new ArrayList<>();
+        this.deletedPositions = new int[0];
+        this.pendingRecords = new ByteArrayOutputStream();
+        this.recordLock = new Object();
+        this.saveLock = new Object();
+        this.isAttached = false;
+    }
+
+    /**
+     * Constructor for LsmTaskListStorage class, with the default thresholds.
+     *
+     * @param relativeDirectoryPath The relative path of the directory holding the store.
+     */
+    public LsmTaskListStorage(String relativeDirectoryPath) {
+        this(relativeDirectoryPath, DEFAULT_MEMTABLE_THRESHOLD_BYTES, DEFAULT_MAX_SEGMENTS);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getRelativeFilePath() {
+        return this.relativeDirectoryPath;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isStoredAt(String relativeFilePath) {
+        return this.directory.equals(Paths.get(relativeFilePath).toAbsolutePath().normalize());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isAttached() {
+        return this.isAttached;
+    }
+
+    /**
+     * Loads the task list, after folding the log and all segments into a single segment if there is more to
+     * the store than that. The task list reads its tasks lazily from the segment.
+     *
+     * @return The task list loaded from the store.
+     * @throws StorageException If there is an error reading or folding the store.
+     */
+    @Override
+    public TaskList load() throws StorageException {
+        synchronized (this.saveLock) {
+            this.awaitCompaction();
+            LsmSegment base;
+            try (VersionedFileLock lock = VersionedFileLock.acquire(this.lockPath)) {
+                this.knownVersion = lock.readVersion();
+                List<Path> liveSegmentPaths = this.readManifest();
+                this.deleteUnusedFiles(liveSegmentPaths);
+                TreeMap<Long, byte[]> loggedChanges = this.replayLog();
+
+                // A single segment is always the result of a full merge or save, so it holds no tombstones.
+                if (liveSegmentPaths.size() == 1 && loggedChanges.isEmpty()) {
+                    base = LsmSegment.open(liveSegmentPaths.get(0));
+                } else {
+                    // The position of every task can only be found from a single segment holding all of them.
+                    List<LsmSegment> liveSegments = LsmTaskListStorage.openSegments(liveSegmentPaths);
+                    base = LsmSegment.write(this.allocateSegmentPath(),
+                            new MergingIterator(loggedChanges, liveSegments));
+                    this.writeManifest(List.of(base.getPath()));
+                    Files.deleteIfExists(this.logPath);
+                    this.deleteUnusedFiles(List.of(base.getPath()));
+                }
+            } catch (IOException | UncheckedIOException e) {
+                throw new StorageException(
+                        String.format("Error loading data from file: %s.", this.relativeDirectoryPath), e);
+            }
+
+            this.attach(base);
+            return TaskList.createPagedTaskList(base);
+        }
+    }
+
+    /**
+     * Records a mutation made to the task list as a change to the entry of the task it affects.
+     * A task inserted where a task was deleted since the last load or save takes over the key of the deleted task.
+     * A task inserted anywhere else before the end has no key to take, so the storage is detached to write the task
+     * list afresh.
+     *
+     * @param mutation The mutation made to the task list.
+     */
+    @Override
+    public void record(TaskListMutation mutation) {
+        synchronized (this.recordLock) {
+            if (!this.isAttached) {
+                return;
+            }
+
+            switch (mutation.type()) {
+            case ADD -> {
+                long key = this.nextKey++;
+                this.appendedKeys.add(key);
+                this.put(key, LsmSegment.encodeTask(mutation.task()));
+            }
+            case INSERT -> {
+                long key = this.restoreKeyAt(mutation.taskIdx());
+                int recordedLength = this.baseSegment.getLength() + this.appendedKeys.size() - this.deletedCount;
+                if (key < 0 && mutation.taskIdx() == recordedLength) {
+                    key = this.nextKey++;
+                    this.appendedKeys.add(key);
+                } else if (key < 0) {
+                    this.isAttached = false;
+                    return;
+                }
+                this.put(key, LsmSegment.encodeTask(mutation.task()));
+            }
+            case DELETE -> this.put(this.removeKeyAt(mutation.taskIdx()), null);
+            case MARK, UNMARK -> {
+                long key = this.getKeyAtPosition(this.toPosition(mutation.taskIdx()));
+                Task task = this.readTask(key);
+                if (mutation.type() == TaskListMutation.Type.MARK) {
+                    task.setComplete();
+                } else {
+                    task.setIncomplete();
+                }
+                this.put(key, LsmSegment.encodeTask(task));
+            }
+            default -> throw new IllegalStateException("Unknown mutation type: " + mutation.type());
+            }
+        }
+    }
+
+    /**
+     * Saves the task list to the store.
+     * If the task list was last loaded or saved through this storage, only the changes recorded since are logged.
+     * Otherwise, the task list is written afresh as a single segment replacing the store,
+     * in which case a snapshot of a concurrent task list is written, and other task lists must not be changed
+     * until the save completes.
+     *
+     * @param taskList The task list to be saved.
+     * @throws StorageException If there is an error writing the store.
+     */
+    @Override
+    public void save(TaskList taskList) throws StorageException {
+        assert taskList != null : "Task list to be saved cannot be null.";
+        synchronized (this.saveLock) {
+            if (this.isAttached) {
+                this.flush();
+                return;
+            }
+
+            this.awaitCompaction();
+            TaskList savedTaskList = taskList.snapshot();
+            LsmSegment base;
+            try {
+                Files.createDirectories(this.directory);
+                try (VersionedFileLock lock = VersionedFileLock.acquire(this.lockPath)) {
+                    base = LsmSegment.write(this.allocateSegmentPath(), new Iterator<>() {
+                        private int taskIdx = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return this.taskIdx < savedTaskList.getLength();
+                        }
+
+                        @Override
+                        public LsmSegment.Entry next() {
+                            Task task = savedTaskList.getTask(this.taskIdx);
+                            return new LsmSegment.Entry(this.taskIdx++, LsmSegment.encodeTask(task));
+                        }
+                    });
+                    this.writeManifest(List.of(base.getPath()));
+                    Files.deleteIfExists(this.logPath);
+                    this.deleteUnusedFiles(List.of(base.getPath()));
+                    this.knownVersion = lock.incrementVersion();
+                }
+            } catch (IOException | UncheckedIOException e) {
+                throw new StorageException(
+                        String.format("Error saving data to file: %s.", this.relativeDirectoryPath), e);
+            }
+            this.attach(base);
+        }
+    }
+
+    /**
+     * Appends the changes recorded since the last save to the log, writes the changes in memory out as a segment
+     * if they have outgrown the threshold, and merges the segments in the background if there are too many.
+     * This is safe to call from another thread while further mutations are being recorded.
+     *
+     * @throws StaleVersionException If someone else has written the store since it was last loaded or saved,
+     *                               in which case the changes are kept to be saved later.
+     * @throws StorageException      If there is an error writing the store.
+     */
+    @Override
+    public void flush() throws StorageException {
+        assert this.isAttached : "Only a storage that has loaded or saved a task list can flush recorded changes.";
+        synchronized (this.saveLock) {
+            byte[] pending;
+            boolean isMemtableFull;
+            synchronized (this.recordLock) {
+                pending = this.pendingRecords.toByteArray();
+                this.pendingRecords.reset();
+                isMemtableFull = this.memtableBytes >= this.memtableThresholdBytes;
+            }
+            if (pending.length == 0) {
+                return;
+            }
+
+            try (VersionedFileLock lock = VersionedFileLock.acquire(this.lockPath)) {
+                if (lock.readVersion() != this.knownVersion) {
+                    this.restorePendingRecords(pending);
+                    throw new StaleVersionException(String.format(
+                            "File was changed by someone else since it was last loaded or saved: %s.",
+                            this.relativeDirectoryPath), false);
+                }
+                this.appendToLog(pending);
+                this.knownVersion = lock.incrementVersion();
+                if (isMemtableFull) {
+                    this.flushMemtable();
+                }
+            } catch (StorageException e) {
+                throw e;
+            } catch (IOException | UncheckedIOException e) {
+                throw new StorageException(
+                        String.format("Error saving data to file: %s.", this.relativeDirectoryPath), e);
+            }
+            this.compactIfNeeded();
+        }
+    }
+
+    /**
+     * Starts keeping track of the task list held by a segment, as just loaded or saved.
+     *
+     * @param base The segment holding the tasks in the order of the task list.
+     */
+    private void attach(LsmSegment base) {
+        synchronized (this.recordLock) {
+            this.memtable = new TreeMap<>();
+            this.memtableBytes = 0;
+            this.frozenMemtable = null;
+            this.segments = new ArrayList<>(List.of(base));
+            this.baseSegment = base;
+            this.appendedKeys.clear();
+            this.deletedPositions = new int[0];
+            this.deletedCount = 0;
+            this.nextKey = base.getLength() == 0 ? 0 : base.getKey(base.getLength() - 1) + 1;
+            this.pendingRecords.reset();
+            this.isAttached = true;
+        }
+    }
+
+    /**
+     * Changes the entry of a task in memory, and encodes the change to be logged on the next save.
+     *
+     * @param key   The key of the task.
+     * @param value The encoded task, or null if the task is deleted.
+     */
+    private void put(long key, byte[] value) {
+        this.memtable.put(key, value);
+        this.memtableBytes += Long.BYTES + (value == null ? 0 : value.length);
+        try {
+            DataOutputStream pendingOut = new DataOutputStream(this.pendingRecords);
+            pendingOut.writeByte(value == null ? DELETE_RECORD : PUT_RECORD);
+            pendingOut.writeLong(key);
+            if (value != null) {
+                pendingOut.writeInt(value.length);
+                pendingOut.write(value);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the current task with a key, from the changes in memory or the newest segment holding it.
+     *
+     * @param key The key of the task.
+     * @return A newly decoded task.
+     */
+    private Task readTask(long key) {
+        byte[] value = null;
+        if (this.memtable.containsKey(key)) {
+            value = this.memtable.get(key);
+        } else if (this.frozenMemtable != null && this.frozenMemtable.containsKey(key)) {
+            value = this.frozenMemtable.get(key);
+        } else {
+            for (LsmSegment segment : this.segments) {
+                int entryIdx = segment.find(key);
+                if (entryIdx >= 0) {
+                    value = segment.getValue(entryIdx);
+                    break;
+                }
+            }
+        }
+
+        if (value == null) {
+            throw new IllegalStateException("Task not found in store: " + key);
+        }
+        return LsmSegment.decodeTask(value);
+    }
+
+    /**
+     * Forgets the task at an index, and returns its key.
+     *
+     * @param taskIdx The index of the task in the task list.
+     * @return The key of the task.
+     */
+    private long removeKeyAt(int taskIdx) {
+        int position = this.toPosition(taskIdx);
+        long key = this.getKeyAtPosition(position);
+        if (this.deletedCount == this.deletedPositions.length) {
+            this.deletedPositions = Arrays.copyOf(this.deletedPositions, Math.max(8, this.deletedCount * 2));
+        }
+        int insertionIdx = -Arrays.binarySearch(this.deletedPositions, 0, this.deletedCount, position) - 1;
+        System.arraycopy(this.deletedPositions, insertionIdx,
+                this.deletedPositions, insertionIdx + 1, this.deletedCount - insertionIdx);
+        this.deletedPositions[insertionIdx] = position;
+        this.deletedCount++;
+        return key;
+    }
+
+    /**
+     * Takes back the key of a task deleted from an index, for a task inserted at the same index.
+     *
+     * @param taskIdx The index in the task list of the task inserted.
+     * @return The key of the deleted task, or -1 if no task was deleted from the index.
+     */
+    private long restoreKeyAt(int taskIdx) {
+        // The deleted positions that would be at the index if restored are those with taskIdx tasks before them.
+        int low = 0;
+        int high = this.deletedCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.deletedPositions[mid] - mid < taskIdx) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (low == this.deletedCount || this.deletedPositions[low] - low != taskIdx) {
+            return -1;
+        }
+
+        int position = this.deletedPositions[low];
+        System.arraycopy(this.deletedPositions, low + 1, this.deletedPositions, low, this.deletedCount - low - 1);
+        this.deletedCount--;
+        return this.getKeyAtPosition(position);
+    }
+
+    /**
+     * Converts an index in the task list to the position of the task among the tasks of the base segment
+     * followed by the tasks added, by skipping over the positions of deleted tasks.
+     *
+     * @param taskIdx The index of the task in the task list.
+     * @return The position of the task.
+     */
+    private int toPosition(int taskIdx) {
+        // Find how many deleted positions come before the task, knowing that deletedPositions[i] - i
+        // is the number of remaining tasks before the i-th deleted position.
+        int low = 0;
+        int high = this.deletedCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.deletedPositions[mid] - mid <= taskIdx) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return taskIdx + low;
+    }
+
+    /**
+     * Returns the key of the task at a position among the tasks of the base segment followed by the tasks added.
+     *
+     * @param position The position of the task.
+     * @return The key of the task.
+     */
+    private long getKeyAtPosition(int position) {
+        int baseLength = this.baseSegment.getLength();
+        return position < baseLength ? this.baseSegment.getKey(position) : this.appendedKeys.get(position - baseLength);
+    }
+
+    /**
+     * Puts records that could not be logged back in front of any records made since.
+     *
+     * @param records The records to be restored.
+     */
+    private void restorePendingRecords(byte[] records) {
+        synchronized (this.recordLock) {
+            byte[] laterRecords = this.pendingRecords.toByteArray();
+            this.pendingRecords.reset();
+            this.pendingRecords.writeBytes(records);
+            this.pendingRecords.writeBytes(laterRecords);
+        }
+    }
+
+    /**
+     * Appends records to the log, and forces them to disk.
+     * If the append fails, the log is cut back to where it was and the records are kept pending.
+     *
+     * @param records The records to be appended.
+     * @throws IOException If there is an error writing to the log.
+     */
+    private void appendToLog(byte[] records) throws IOException {
+        try (FileChannel channel = FileChannel.open(this.logPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            long originalSize = channel.size();
+            try {
+                if (originalSize == 0) {
+                    channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, LOG_MAGIC));
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(records);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                channel.truncate(originalSize);
+                this.restorePendingRecords(records);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Reads the changes logged since the segments were last written.
+     * A record cut short by a crash while it was being appended is discarded, along with anything after it.
+     *
+     * @return The changes logged, by key, with null for deleted tasks.
+     * @throws IOException If there is an error reading the log, or it is not a log.
+     */
+    private TreeMap<Long, byte[]> replayLog() throws IOException {
+        TreeMap<Long, byte[]> changes = new TreeMap<>();
+        if (!Files.exists(this.logPath)) {
+            return changes;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.logPath)))) {
+            if (in.readInt() != LOG_MAGIC) {
+                throw new IOException("Not a write-ahead log: " + this.logPath);
+            }
+            while (true) {
+                try {
+                    byte recordType = in.readByte();
+                    long key = in.readLong();
+                    if (recordType == DELETE_RECORD) {
+                        changes.put(key, null);
+                        continue;
+                    } else if (recordType != PUT_RECORD) {
+                        throw new IOException("Unknown log record type: " + recordType);
+                    }
+                    byte[] value = new byte[in.readInt()];
+                    in.readFully(value);
+                    changes.put(key, value);
+                } catch (EOFException e) {
+                    break;
+                }
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Writes the changes in memory out as a new segment, and clears the log they were logged to.
+     * If the segment cannot be written, the changes are kept in memory.
+     *
+     * @throws IOException If there is an error writing the segment or the manifest.
+     */
+    private void flushMemtable() throws IOException {
+        TreeMap<Long, byte[]> frozen;
+        synchronized (this.recordLock) {
+            frozen = this.memtable;
+            this.frozenMemtable = frozen;
+            this.memtable = new TreeMap<>();
+            this.memtableBytes = 0;
+        }
+
+        try {
+            LsmSegment segment = LsmSegment.write(this.allocateSegmentPath(), frozen.entrySet().stream()
+                    .map(entry -> new LsmSegment.Entry(entry.getKey(), entry.getValue()))
+                    .iterator());
+            List<Path> liveSegmentPaths = new ArrayList<>(this.readManifest());
+            liveSegmentPaths.add(0, segment.getPath());
+            this.writeManifest(liveSegmentPaths);
+            synchronized (this.recordLock) {
+                this.segments.add(0, segment);
+                this.frozenMemtable = null;
+            }
+            // Every change logged so far is in the segment, and later changes are logged afresh.
+            Files.deleteIfExists(this.logPath);
+        } catch (IOException | UncheckedIOException e) {
+            synchronized (this.recordLock) {
+                for (Map.Entry<Long, byte[]> entry : frozen.entrySet()) {
+                    if (!this.memtable.containsKey(entry.getKey())) {
+                        this.memtable.put(entry.getKey(), entry.getValue());
+                    }
+                }
+                this.frozenMemtable = null;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Merges the segments in the background, if there are too many and no other merge is running.
+     *
+     * @throws StorageException If the last merge failed.
+     */
+    private void compactIfNeeded() throws StorageException {
+        if (this.compaction != null) {
+            if (!this.compaction.isDone()) {
+                return;
+            }
+            this.awaitCompaction();
+        }
+
+        synchronized (this.recordLock) {
+            if (this.segments.size() <= this.maxSegments) {
+                return;
+            }
+        }
+        this.compaction = COMPACTOR.submit(() -> {
+            this.mergeSegments();
+            return null;
+        });
+    }
+
+    /**
+     * Merges all live segments into one, dropping deleted tasks, and removes the merged segments.
+     *
+     * @throws IOException If there is an error reading or writing the segments.
+     */
+    private void mergeSegments() throws IOException {
+        VersionedFileLock lock = VersionedFileLock.acquire(this.lockPath);
+        try {
+            List<Path> liveSegmentPaths = this.readManifest();
+            if (liveSegmentPaths.size() <= 1) {
+                return;
+            }
+
+            LsmSegment merged = LsmSegment.write(this.allocateSegmentPath(), new MergingIterator(
+                    new TreeMap<>(), LsmTaskListStorage.openSegments(liveSegmentPaths)));
+            this.writeManifest(List.of(merged.getPath()));
+            this.deleteUnusedFiles(List.of(merged.getPath()));
+
+            synchronized (this.recordLock) {
+                // Segments read by this storage stay readable once deleted, so they are only swapped for the merged
+                // segment if it holds them all, which it does unless someone else has written the store since.
+                Set<Path> mergedPaths = new HashSet<>(liveSegmentPaths);
+                if (this.segments.stream().allMatch(segment -> mergedPaths.contains(segment.getPath()))) {
+                    this.segments = new ArrayList<>(List.of(merged));
+                }
+            }
+        } finally {
+            lock.close();
+        }
+    }
+
+    /**
+     * Waits for the running merge, if any, to finish.
+     *
+     * @throws StorageException If the merge failed.
+     */
+    private void awaitCompaction() throws StorageException {
+        if (this.compaction == null) {
+            return;
+        }
+
+        try {
+            this.compaction.get();
+        } catch (ExecutionException e) {
+            throw new StorageException(
+                    String.format("Error compacting segments of file: %s.", this.relativeDirectoryPath), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException(
+                    String.format("Error compacting segments of file: %s.", this.relativeDirectoryPath), e);
+        } finally {
+            this.compaction = null;
+        }
+    }
+
+    /**
+     * Reads the paths of the live segments from the manifest.
+     *
+     * @return The paths of the live segments, from newest to oldest, or none if there is no manifest yet.
+     * @throws IOException If there is an error reading the manifest, or it is not a manifest.
+     */
+    List<Path> readManifest() throws IOException {
+        List<Path> segmentPaths = new ArrayList<>();
+        if (!Files.exists(this.manifestPath)) {
+            return segmentPaths;
+        }
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(this.manifestPath)))) {
+            if (in.readInt() != MANIFEST_MAGIC) {
+                throw new IOException("Not a manifest: " + this.manifestPath);
+            }
+            int segmentCount = in.readInt();
+            for (int i = 0; i < segmentCount; i++) {
+                segmentPaths.add(this.directory.resolve(in.readUTF()));
+            }
+        }
+        return segmentPaths;
+    }
+
+    /**
+     * Replaces the manifest atomically.
+     *
+     * @param segmentPaths The paths of the live segments, from newest to oldest.
+     * @throws IOException If there is an error writing the manifest.
+     */
+    private void writeManifest(List<Path> segmentPaths) throws IOException {
+        AtomicFileCommitter.commit(this.manifestPath, out -> {
+            DataOutputStream dataOut = new DataOutputStream(out);
+            dataOut.writeInt(MANIFEST_MAGIC);
+            dataOut.writeInt(segmentPaths.size());
+            for (Path segmentPath : segmentPaths) {
+                dataOut.writeUTF(segmentPath.getFileName().toString());
+            }
+            dataOut.flush();
+        });
+    }
+
+    /**
+     * Returns the path for a new segment, numbered after every segment in the directory.
+     *
+     * @return The path of the new segment.
+     * @throws IOException If there is an error listing the directory.
+     */
+    private Path allocateSegmentPath() throws IOException {
+        int lastSegmentNumber = 0;
+        try (DirectoryStream<Path> segmentPaths = Files.newDirectoryStream(this.directory,
+                "*" + SEGMENT_EXTENSION)) {
+            for (Path segmentPath : segmentPaths) {
+                String fileName = segmentPath.getFileName().toString();
+                try {
+                    lastSegmentNumber = Math.max(lastSegmentNumber,
+                            Integer.parseInt(fileName.substring(0, fileName.length() - SEGMENT_EXTENSION.length())));
+                } catch (NumberFormatException e) {
+                    // Not a segment written by this storage.
+                }
+            }
+        }
+        return this.directory.resolve(String.format("%08d%s", lastSegmentNumber + 1, SEGMENT_EXTENSION));
+    }
+
+    /**
+     * Removes segments that are no longer live, along with temporary files left behind by interrupted writes.
+     * Segments still mapped by a task list cannot be removed on Windows until they are unmapped, so files that
+     * cannot be removed are left for a later load or merge to try again, as they are never live again.
+     *
+     * @param liveSegmentPaths The paths of the live segments.
+     * @throws IOException If there is an error listing the directory.
+     */
+    private void deleteUnusedFiles(List<Path> liveSegmentPaths) throws IOException {
+        try (DirectoryStream<Path> paths = Files.newDirectoryStream(this.directory,
+                "*{" + SEGMENT_EXTENSION + ",.tmp,.index}")) {
+            for (Path path : paths) {
+                if (liveSegmentPaths.contains(path)) {
+                    continue;
+                }
+                try {
+                    Files.delete(path);
+                } catch (FileSystemException e) {
+                    // The file is still in use, or already removed by someone else.
+                }
+            }
+        }
+    }
+
+    /**
+     * Opens segments by their paths.
+     *
+     * @param segmentPaths The paths of the segments.
+     * @return The opened segments, in the same order.
+     * @throws IOException If there is an error opening a segment.
+     */
+    private static List<LsmSegment> openSegments(List<Path> segmentPaths) throws IOException {
+        List<LsmSegment> segments = new ArrayList<>();
+        for (Path segmentPath : segmentPaths) {
+            segments.add(LsmSegment.open(segmentPath));
+        }
+        return segments;
+    }
+
+    /**
+     * Represents an iterator over the entries of several sorted sources in ascending order of keys, where the entry
+     * of the newest source holding a key overrides the entries of older sources for the same key.
+     * As the oldest segment of the store is always among those merged, deleted tasks are left out altogether.
+     */
+    private static class MergingIterator implements Iterator<LsmSegment.Entry> {
+        private final PriorityQueue<Cursor> cursors;
+        private LsmSegment.Entry nextEntry;
+
+        /**
+         * Constructor for MergingIterator class.
+         *
+         * @param changes  Changes newer than any segment, by key, with null for deleted tasks.
+         * @param segments The segments, from newest to oldest.
+         */
+        MergingIterator(TreeMap<Long, byte[]> changes, List<LsmSegment> segments) {
+            this.cursors = new PriorityQueue<>(Comparator.comparingLong((Cursor cursor) -> cursor.entry.key())
+                    .thenComparingInt(cursor -> cursor.age));
+            this.addCursor(changes.entrySet().stream()
+                    .map(entry -> new LsmSegment.Entry(entry.getKey(), entry.getValue()))
+                    .iterator(), 0);
+            for (int i = 0; i < segments.size(); i++) {
+                this.addCursor(segments.get(i).iterator(), i + 1);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean hasNext() {
+            while (this.nextEntry == null && !this.cursors.isEmpty()) {
+                Cursor newest = this.cursors.poll();
+                LsmSegment.Entry entry = newest.entry;
+                this.advance(newest);
+                while (!this.cursors.isEmpty() && this.cursors.peek().entry.key() == entry.key()) {
+                    this.advance(this.cursors.poll());
+                }
+                if (entry.value() != null) {
+                    this.nextEntry = entry;
+                }
+            }
+            return this.nextEntry != null;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public LsmSegment.Entry next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            LsmSegment.Entry entry = this.nextEntry;
+            this.nextEntry = null;
+            return entry;
+        }
+
+        /**
+         * Adds a cursor over a source, if it has any entries.
+         *
+         * @param entries The entries of the source, in ascending order of keys.
+         * @param age     The age of the source, where newer sources are younger.
+         */
+        private void addCursor(Iterator<LsmSegment.Entry> entries, int age) {
+            if (entries.hasNext()) {
+                this.cursors.add(new Cursor(entries, entries.next(), age));
+            }
+        }
+
+        /**
+         * Moves a cursor taken off the queue to its next entry, putting it back if it has one.
+         *
+         * @param cursor The cursor to be moved.
+         */
+        private void advance(Cursor cursor) {
+            this.addCursor(cursor.entries, cursor.age);
+        }
+
+        /**
+         * Represents the current entry of a source being merged.
+         */
+        private static class Cursor {
+            private final Iterator<LsmSegment.Entry> entries;
+            private final LsmSegment.Entry entry;
+            private final int age;
+
+            /**
+             * Constructor for Cursor class.
+             *
+             * @param entries The remaining entries of the source.
+             * @param entry   The current entry of the source.
+             * @param age     The age of the source.
+             */
+            Cursor(Iterator<LsmSegment.Entry> entries, LsmSegment.Entry entry, int age) {
+                this.entries = entries;
+                this.entry = entry;
+                this.age = age;
+            }
+        }
+    }
+}
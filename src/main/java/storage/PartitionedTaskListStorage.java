@@ -0,0 +1,454 @@
+package storage;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import tasklist.DeadlineTask;
+import tasklist.EventTask;
+import tasklist.Task;
+import tasklist.TaskList;
+import tasklist.TaskListMutation;
+
+/**
+ * Represents a storage utility that keeps a task list in a directory, split into shards by date.
+ * Deadlines are kept in the shard for the month they are due, events in the shard for the month they start,
+ * and tasks without dates in a shard of their own. Once the storage is attached, a save rewrites only the shards
+ * holding tasks that were added, deleted or changed since the last save.
+ *
+ * <p>Every task is given a label when it is added, greater than the label of any task before it and less than
+ * the label of any task after it, so that the tasks of all shards can be merged back into their order in the list
+ * without rewriting other shards when tasks are added or deleted. The storage keeps its own copy of the tasks as
+ * recorded, so that changes can be saved in the background without touching the task list. Each shard is replaced
+ * atomically, though a save that rewrites several shards is not atomic as a whole.
+ *
+ * <p>Loading and saving are serialized across threads and processes by a {@link VersionedFileLock} in the
+ * directory. Changed shards are only rewritten if no one else has written the directory since this storage last
+ * loaded or saved it, as labels given by different processes may clash, so stale saves are always rejected.
+ */
+public class PartitionedTaskListStorage implements TaskListStorage {
+    /**
+     * Magic number written at the start of every shard file, spelling "KSHD".
+     */
+    private static final int SHARD_MAGIC = 0x4B534844;
+    private static final String SHARD_EXTENSION = ".shard";
+    private static final String TODO_SHARD_KEY = "todo";
+    private static final String LOCK_FILE_NAME = "shards.lock";
+
+    private final String relativeDirectoryPath;
+    private final Path directory;
+    private final Path lockPath;
+    /**
+     * The label and shard of each task, by its position in the task list.
+     */
+    private final List<TaskEntry> taskEntries;
+    /**
+     * Copies of the tasks in each shard by their labels, as of the last recorded mutation.
+     */
+    private final Map<String, TreeMap<Long, Task>> shards;
+    /**
+     * Shards changed since they were last written.
+     */
+    private final Set<String> dirtyShardKeys;
+    /**
+     * Lock guarding the tasks and shards recorded, so that mutations can be recorded while another thread saves.
+     */
+    private final Object recordLock;
+    /**
+     * Lock held while loading or saving, so that shards are written in the order they were changed.
+     */
+    private final Object saveLock;
+    private long nextLabel;
+    private volatile boolean isAttached;
+    /**
+     * Version of the directory as last loaded or saved through this storage.
+     */
+    private long knownVersion;
+
+    /**
+     * Constructor for PartitionedTaskListStorage class.
+     *
+     * @param relativeDirectoryPath The relative path of the directory holding the shards.
+     */
+    public PartitionedTaskListStorage(String relativeDirectoryPath) {
+        assert relativeDirectoryPath != null && !relativeDirectoryPath.isEmpty()
+                : "Relative directory path cannot be null, nor empty.";
+        this.relativeDirectoryPath = relativeDirectoryPath;
+        this.directory = Paths.get(relativeDirectoryPath).toAbsolutePath().normalize();
+        this.lockPath = this.directory.resolve(LOCK_FILE_NAME);
+        this.taskEntries = new ArrayList<>();
+        this.shards = new HashMap<>();
+        this.dirtyShardKeys = new HashSet<>();
+        this.recordLock = new Object();
+        this.saveLock = new Object();
+        this.nextLabel = 0;
+        this.isAttached = false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getRelativeFilePath() {
+        return this.relativeDirectoryPath;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isStoredAt(String relativeFilePath) {
+        return this.directory.equals(Paths.get(relativeFilePath).toAbsolutePath().normalize());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isAttached() {
+        return this.isAttached;
+    }
+
+    /**
+     * Loads the task list by reading every shard and merging their tasks in the order of their labels.
+     *
+     * @return The task list loaded from the directory.
+     * @throws StorageException If there is an error reading the shards.
+     */
+    @Override
+    public TaskList load() throws StorageException {
+        synchronized (this.saveLock) {
+            TreeMap<Long, Task> tasksByLabel = new TreeMap<>();
+            Map<Long, String> shardKeysByLabel = new HashMap<>();
+            try (VersionedFileLock lock = VersionedFileLock.acquire(this.lockPath);
+                    DirectoryStream<Path> shardPaths = Files.newDirectoryStream(this.directory,
+                            "*" + SHARD_EXTENSION)) {
+                this.knownVersion = lock.readVersion();
+                for (Path shardPath : shardPaths) {
+                    String fileName = shardPath.getFileName().toString();
+                    String shardKey = fileName.substring(0, fileName.length() - SHARD_EXTENSION.length());
+                    for (Map.Entry<Long, Task> entry : PartitionedTaskListStorage.readShard(shardPath).entrySet()) {
+                        if (tasksByLabel.put(entry.getKey(), entry.getValue()) != null) {
+                            throw new IOException("Task label found in more than one shard: " + entry.getKey());
+                        }
+                        shardKeysByLabel.put(entry.getKey(), shardKey);
+                    }
+                }
+            } catch (IOException e) {
+                throw new StorageException(
+                        String.format("Error loading data from file: %s.", this.relativeDirectoryPath), e);
+            }
+
+            TaskList taskList = TaskList.createCompactTaskList();
+            synchronized (this.recordLock) {
+                this.clearRecordedTasks();
+                for (Map.Entry<Long, Task> entry : tasksByLabel.entrySet()) {
+                    String shardKey = shardKeysByLabel.get(entry.getKey());
+                    taskList.addTask(entry.getValue().copy());
+                    this.taskEntries.add(new TaskEntry(entry.getKey(), shardKey));
+                    this.shards.computeIfAbsent(shardKey, key -> new TreeMap<>())
+                            .put(entry.getKey(), entry.getValue());
+                }
+                this.nextLabel = tasksByLabel.isEmpty() ? 0 : tasksByLabel.lastKey() + 1;
+                this.isAttached = true;
+            }
+            return taskList;
+        }
+    }
+
+    /**
+     * Records a mutation made to the task list, marking the shard of the task it changes for the next save.
+     * A task inserted before the end is given a label between those of the tasks around it, such as the label of
+     * a deleted task put back. If the labels around it leave no room, the storage is detached to write the task
+     * list afresh.
+     *
+     * @param mutation The mutation made to the task list.
+     */
+    @Override
+    public void record(TaskListMutation mutation) {
+        synchronized (this.recordLock) {
+            if (!this.isAttached) {
+                return;
+            }
+
+            switch (mutation.type()) {
+            case ADD -> {
+                Task task = mutation.task().copy();
+                TaskEntry entry = new TaskEntry(this.nextLabel++, PartitionedTaskListStorage.getShardKey(task));
+                this.taskEntries.add(entry);
+                this.shards.computeIfAbsent(entry.shardKey(), key -> new TreeMap<>()).put(entry.label(), task);
+                this.dirtyShardKeys.add(entry.shardKey());
+            }
+            case INSERT -> {
+                int taskIdx = mutation.taskIdx();
+                long label = this.nextLabel;
+                if (taskIdx < this.taskEntries.size()) {
+                    long followingLabel = this.taskEntries.get(taskIdx).label();
+                    long previousLabel = taskIdx == 0 ? followingLabel - 2
+                            : this.taskEntries.get(taskIdx - 1).label();
+                    if (followingLabel - previousLabel < 2) {
+                        this.isAttached = false;
+                        return;
+                    }
+                    label = previousLabel + (followingLabel - previousLabel) / 2;
+                } else {
+                    this.nextLabel++;
+                }
+                Task task = mutation.task().copy();
+                TaskEntry entry = new TaskEntry(label, PartitionedTaskListStorage.getShardKey(task));
+                this.taskEntries.add(taskIdx, entry);
+                this.shards.computeIfAbsent(entry.shardKey(), key -> new TreeMap<>()).put(entry.label(), task);
+                this.dirtyShardKeys.add(entry.shardKey());
+            }
+            case DELETE -> {
+                TaskEntry entry = this.taskEntries.remove(mutation.taskIdx());
+                this.shards.get(entry.shardKey()).remove(entry.label());
+                this.dirtyShardKeys.add(entry.shardKey());
+            }
+            case MARK, UNMARK -> {
+                TaskEntry entry = this.taskEntries.get(mutation.taskIdx());
+                Task task = this.shards.get(entry.shardKey()).get(entry.label());
+                if (mutation.type() == TaskListMutation.Type.MARK) {
+                    task.setComplete();
+                } else {
+                    task.setIncomplete();
+                }
+                this.dirtyShardKeys.add(entry.shardKey());
+            }
+            default -> throw new IllegalStateException("Unknown mutation type: " + mutation.type());
+            }
+        }
+    }
+
+    /**
+     * Saves the task list to the directory.
+     * If the task list was last loaded or saved through this storage, only the shards changed since are rewritten.
+     * Otherwise, every shard is written afresh and shards left over from before are removed,
+     * in which case a snapshot of a concurrent task list is written, and other task lists must not be changed
+     * until the save completes.
+     *
+     * @param taskList The task list to be saved.
+     * @throws StorageException If there is an error writing the shards.
+     */
+    @Override
+    public void save(TaskList taskList) throws StorageException {
+        assert taskList != null : "Task list to be saved cannot be null.";
+        synchronized (this.saveLock) {
+            if (this.isAttached) {
+                this.flush();
+                return;
+            }
+
+            TaskList savedTaskList = taskList.snapshot();
+            synchronized (this.recordLock) {
+                this.clearRecordedTasks();
+                for (int i = 0; i < savedTaskList.getLength(); i++) {
+                    Task task = savedTaskList.getTask(i).copy();
+                    TaskEntry entry = new TaskEntry(this.nextLabel++, PartitionedTaskListStorage.getShardKey(task));
+                    this.taskEntries.add(entry);
+                    this.shards.computeIfAbsent(entry.shardKey(), key -> new TreeMap<>()).put(entry.label(), task);
+                }
+                this.dirtyShardKeys.addAll(this.shards.keySet());
+            }
+
+            try {
+                Files.createDirectories(this.directory);
+                try (VersionedFileLock lock = VersionedFileLock.acquire(this.lockPath)) {
+                    try (DirectoryStream<Path> shardPaths = Files.newDirectoryStream(this.directory,
+                            "*" + SHARD_EXTENSION)) {
+                        for (Path shardPath : shardPaths) {
+                            Files.delete(shardPath);
+                        }
+                    }
+                    this.flushShards(lock);
+                }
+            } catch (StorageException e) {
+                throw e;
+            } catch (IOException e) {
+                throw new StorageException(
+                        String.format("Error saving data to file: %s.", this.relativeDirectoryPath), e);
+            }
+            this.isAttached = true;
+        }
+    }
+
+    /**
+     * Rewrites the shards changed since the last save, without needing the task list itself.
+     * This is safe to call from another thread while further mutations are being recorded.
+     *
+     * @throws StaleVersionException If someone else has written the directory since it was last loaded or saved,
+     *                               in which case the changed shards are kept to be written later.
+     * @throws StorageException      If there is an error writing the shards.
+     */
+    @Override
+    public void flush() throws StorageException {
+        assert this.isAttached : "Only a storage that has loaded or saved a task list can flush recorded changes.";
+        synchronized (this.saveLock) {
+            synchronized (this.recordLock) {
+                if (this.dirtyShardKeys.isEmpty()) {
+                    return;
+                }
+            }
+
+            try (VersionedFileLock lock = VersionedFileLock.acquire(this.lockPath)) {
+                if (lock.readVersion() != this.knownVersion) {
+                    throw new StaleVersionException(String.format(
+                            "File was changed by someone else since it was last loaded or saved: %s.",
+                            this.relativeDirectoryPath), false);
+                }
+                this.flushShards(lock);
+            } catch (StorageException e) {
+                throw e;
+            } catch (IOException e) {
+                throw new StorageException(
+                        String.format("Error saving data to file: %s.", this.relativeDirectoryPath), e);
+            }
+        }
+    }
+
+    /**
+     * Rewrites each shard marked as changed, removing shards left with no tasks, and bumps the version of the
+     * directory. Shards that cannot be written are kept marked, to be written again on the next save.
+     *
+     * @param lock The lock on the directory, held by the current thread.
+     * @throws StorageException If there is an error writing the shards.
+     * @throws IOException      If there is an error bumping the version of the directory.
+     */
+    private void flushShards(VersionedFileLock lock) throws IOException {
+        Map<String, byte[]> encodedShards = new HashMap<>();
+        synchronized (this.recordLock) {
+            for (String shardKey : this.dirtyShardKeys) {
+                TreeMap<Long, Task> shard = this.shards.get(shardKey);
+                encodedShards.put(shardKey, shard == null || shard.isEmpty()
+                        ? null
+                        : PartitionedTaskListStorage.encodeShard(shard));
+                if (shard != null && shard.isEmpty()) {
+                    this.shards.remove(shardKey);
+                }
+            }
+            this.dirtyShardKeys.clear();
+        }
+
+        Set<String> failedShardKeys = new HashSet<>();
+        for (Map.Entry<String, byte[]> encodedShard : encodedShards.entrySet()) {
+            Path shardPath = this.directory.resolve(encodedShard.getKey() + SHARD_EXTENSION);
+            try {
+                if (encodedShard.getValue() == null) {
+                    Files.deleteIfExists(shardPath);
+                } else {
+                    AtomicFileCommitter.commit(shardPath, out -> out.write(encodedShard.getValue()));
+                }
+            } catch (IOException e) {
+                failedShardKeys.add(encodedShard.getKey());
+            }
+        }
+        this.knownVersion = lock.incrementVersion();
+
+        if (!failedShardKeys.isEmpty()) {
+            synchronized (this.recordLock) {
+                this.dirtyShardKeys.addAll(failedShardKeys);
+            }
+            throw new StorageException(
+                    String.format("Error saving data to file: %s.", this.relativeDirectoryPath));
+        }
+    }
+
+    /**
+     * Forgets all tasks recorded, ready to record a task list loaded or saved afresh.
+     */
+    private void clearRecordedTasks() {
+        this.taskEntries.clear();
+        this.shards.clear();
+        this.dirtyShardKeys.clear();
+        this.nextLabel = 0;
+    }
+
+    /**
+     * Returns the key of the shard a task is kept in, which is the month of its date, or a shard for tasks
+     * without dates.
+     *
+     * @param task The task.
+     * @return The key of the shard of the task.
+     */
+    private static String getShardKey(Task task) {
+        LocalDate date;
+        if (task instanceof DeadlineTask deadlineTask) {
+            date = deadlineTask.getDeadlineDate();
+        } else if (task instanceof EventTask eventTask) {
+            date = eventTask.getStartDate();
+        } else {
+            return TODO_SHARD_KEY;
+        }
+        return YearMonth.from(date).toString();
+    }
+
+    /**
+     * Encodes the tasks of a shard, with their labels, as the contents of a shard file.
+     *
+     * @param shard The tasks of the shard by their labels.
+     * @return The encoded shard.
+     */
+    private static byte[] encodeShard(TreeMap<Long, Task> shard) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(SHARD_MAGIC);
+            out.writeInt(shard.size());
+            for (Map.Entry<Long, Task> entry : shard.entrySet()) {
+                out.writeLong(entry.getKey());
+                TaskBinaryCodec.writeTask(out, entry.getValue());
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the tasks of a shard file, with their labels.
+     *
+     * @param shardPath The path of the shard file.
+     * @return The tasks of the shard by their labels.
+     * @throws IOException If there is an error reading the file, or it is not a shard file.
+     */
+    private static TreeMap<Long, Task> readShard(Path shardPath) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(shardPath)))) {
+            if (in.readInt() != SHARD_MAGIC) {
+                throw new IOException("Not a shard file: " + shardPath);
+            }
+            int taskCount = in.readInt();
+            TreeMap<Long, Task> shard = new TreeMap<>();
+            for (int i = 0; i < taskCount; i++) {
+                long label = in.readLong();
+                shard.put(label, TaskBinaryCodec.readTask(in));
+            }
+            return shard;
+        }
+    }
+
+    /**
+     * Represents the label ordering a task and the key of the shard it is kept in.
+     *
+     * @param label    The label of the task.
+     * @param shardKey The key of the shard of the task.
+     */
+    private record TaskEntry(long label, String shardKey) {
+    }
+}
@@ -0,0 +1,27 @@
+package storage;
+
+/**
+ * Represents an exception thrown when saving changes to a file that has been changed by someone else
+ * since it was last loaded or saved.
+ */
+public class StaleVersionException extends StorageException {
+    private static final long serialVersionUID = 1L;
+
+    private final boolean isMerged;
+
+    /**
+     * Constructor for StaleVersionException class.
+     *
+     * @param message  The message to be displayed when the exception is thrown.
+     * @param isMerged Whether the changes were merged into the file anyway, such that it must be loaded again
+     *                 to see them along with the changes made by others.
+     */
+    public StaleVersionException(String message, boolean isMerged) {
+        super(message);
+        this.isMerged = isMerged;
+    }
+
+    public boolean isMerged() {
+        return this.isMerged;
+    }
+}
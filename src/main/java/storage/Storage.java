@@ -1,62 +1,105 @@
 package storage;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.nio.file.Paths;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 /**
  * Represents a storage utility that can save and load serializable objects to and from a file.
+ * Objects can optionally be saved compressed. Loading detects whether a file is compressed, so files
+ * saved either way can always be loaded.
  *
  * @param <T> The type of the object to be stored in the file.
  */
 public class Storage<T extends Serializable> {
+    /**
+     * The first two bytes of every uncompressed Java serialization stream.
+     */
+    private static final int SERIALIZATION_MAGIC = 0xACED;
+
     private final String relativeFilePath;
     private final Class<T> type;
+    private final boolean isCompressed;
 
     /**
-     * Constructor for Storage class.
+     * Constructor for Storage class, saving objects uncompressed.
      *
      * @param relativeFilePath The relative file path from the project root directory.
      * @param type             The type of the object to be stored in the file.
      */
     public Storage(String relativeFilePath, Class<T> type) {
+        this(relativeFilePath, type, false);
+    }
+
+    /**
+     * Constructor for Storage class.
+     *
+     * @param relativeFilePath The relative file path from the project root directory.
+     * @param type             The type of the object to be stored in the file.
+     * @param isCompressed     Whether objects are saved compressed.
+     */
+    public Storage(String relativeFilePath, Class<T> type, boolean isCompressed) {
         assert relativeFilePath != null && !relativeFilePath.isEmpty()
                 : "Relative file path cannot be null, nor empty.";
         assert type != null : "Type of storage object cannot be null and must be serializable.";
         this.relativeFilePath = relativeFilePath;
         this.type = type;
+        this.isCompressed = isCompressed;
     }
 
     /**
-     * Saves an object to the file.
+     * Saves an object to the file, compressing it if this storage saves objects compressed.
+     * The object is written to a temporary file which then atomically replaces the file, so a crash while saving
+     * never leaves a truncated file behind. Saves to the same file that arrive together are committed as one write.
      *
      * @param item The object to be saved.
      * @throws StorageException If there is an error saving the object to the file.
      */
     public void save(T item) throws StorageException {
         assert item != null : "Item to be saved cannot be null.";
-        this.ensureFileExists();
-        try (FileOutputStream fileOut = new FileOutputStream(this.relativeFilePath);
-             ObjectOutputStream objectOut = new ObjectOutputStream(fileOut)) {
-            objectOut.writeObject(item);
+        try {
+            AtomicFileCommitter.commit(Paths.get(this.relativeFilePath), out -> {
+                if (!this.isCompressed) {
+                    ObjectOutputStream objectOut = new ObjectOutputStream(out);
+                    objectOut.writeObject(item);
+                    objectOut.flush();
+                    return;
+                }
+
+                Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+                try {
+                    DeflaterOutputStream deflaterOut = new DeflaterOutputStream(out, deflater);
+                    ObjectOutputStream objectOut = new ObjectOutputStream(deflaterOut);
+                    objectOut.writeObject(item);
+                    objectOut.flush();
+                    deflaterOut.finish();
+                } finally {
+                    deflater.end();
+                }
+            });
         } catch (IOException e) {
             throw new StorageException(String.format("Error saving data to file: %s.", this.relativeFilePath));
         }
     }
 
     /**
-     * Loads an object from the file.
+     * Loads an object from the file, decompressing it if it was saved compressed.
      *
      * @return The object loaded from the file.
      * @throws StorageException If there is an error loading the object from the file.
      */
     public T load() throws StorageException {
         this.ensureFileExists();
-        try (FileInputStream fileIn = new FileInputStream(this.relativeFilePath);
+        try (InputStream fileIn = Storage.openDecompressed(new FileInputStream(this.relativeFilePath));
              ObjectInputStream objectIn = new ObjectInputStream(fileIn)) {
             Object object = objectIn.readObject();
             if (this.type.isInstance(object)) {
@@ -69,6 +112,21 @@ public class Storage<T extends Serializable> {
         }
     }
 
+    /**
+     * Wraps a file input to decompress it, unless it starts as an uncompressed serialization stream.
+     *
+     * @param fileIn The input of the file.
+     * @return The input of the uncompressed contents of the file.
+     * @throws IOException If there is an error reading from the file.
+     */
+    private static InputStream openDecompressed(InputStream fileIn) throws IOException {
+        BufferedInputStream bufferedIn = new BufferedInputStream(fileIn);
+        bufferedIn.mark(2);
+        int magic = (bufferedIn.read() << 8) | bufferedIn.read();
+        bufferedIn.reset();
+        return magic == Storage.SERIALIZATION_MAGIC ? bufferedIn : new InflaterInputStream(bufferedIn);
+    }
+
     /**
      * Checks that the file exists, creating it if it does not exist.
      *
@@ -0,0 +1,75 @@
+package storage;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import tasklist.DeadlineTask;
+import tasklist.EventTask;
+import tasklist.Task;
+import tasklist.ToDoTask;
+
+/**
+ * Encodes and decodes individual tasks to and from a compact binary form.
+ * A task is written as its type symbol, its completion, its name, and any dates as epoch days.
+ */
+final class TaskBinaryCodec {
+
+    private TaskBinaryCodec() {
+    }
+
+    /**
+     * Writes a task to the output.
+     *
+     * @param out  The output to write the task to.
+     * @param task The task to be written.
+     * @throws IOException If there is an error writing to the output.
+     */
+    static void writeTask(DataOutput out, Task task) throws IOException {
+        byte[] nameBytes = task.getTaskName().getBytes(StandardCharsets.UTF_8);
+        out.writeByte(task.getTypeSymbol());
+        out.writeBoolean(task.isCompleted());
+        out.writeInt(nameBytes.length);
+        out.write(nameBytes);
+
+        if (task instanceof DeadlineTask deadlineTask) {
+            out.writeLong(deadlineTask.getDeadlineDate().toEpochDay());
+        } else if (task instanceof EventTask eventTask) {
+            out.writeLong(eventTask.getStartDate().toEpochDay());
+            out.writeLong(eventTask.getEndDate().toEpochDay());
+        }
+    }
+
+    /**
+     * Reads a task previously written by {@link #writeTask(DataOutput, Task)} from the input.
+     *
+     * @param in The input to read the task from.
+     * @return The task read.
+     * @throws IOException If there is an error reading from the input, or the data does not describe a task.
+     */
+    static Task readTask(DataInput in) throws IOException {
+        char typeSymbol = (char) in.readByte();
+        boolean isCompleted = in.readBoolean();
+        int nameLength = in.readInt();
+        if (nameLength < 0) {
+            throw new IOException("Invalid task name length: " + nameLength);
+        }
+        byte[] nameBytes = new byte[nameLength];
+        in.readFully(nameBytes);
+        String taskName = new String(nameBytes, StandardCharsets.UTF_8);
+
+        Task task = switch (typeSymbol) {
+        case 'T' -> new ToDoTask(taskName);
+        case 'D' -> new DeadlineTask(taskName, LocalDate.ofEpochDay(in.readLong()));
+        case 'E' -> new EventTask(taskName, LocalDate.ofEpochDay(in.readLong()), LocalDate.ofEpochDay(in.readLong()));
+        default -> throw new IOException("Unknown task type: " + typeSymbol);
+        };
+
+        if (isCompleted) {
+            task.setComplete();
+        }
+        return task;
+    }
+}
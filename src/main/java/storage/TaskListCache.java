@@ -0,0 +1,203 @@
+package storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import tasklist.TaskList;
+
+/**
+ * Caches task lists loaded in this process, so that loading the same unchanged files again does not read and
+ * decode them again.
+ * Each entry is kept with the version of every file the task list was loaded from, as their size and time of
+ * last modification, and is only used while all versions still match. Files modified too recently for their time
+ * of modification to tell apart later changes also have their checksum compared.
+ *
+ * <p>A cached task list is kept as it was loaded, without reading any task it has not read yet, so that task lists
+ * read lazily from a snapshot stay lazy. Every task list loaded from the cache shares it through
+ * {@link TaskList#share()}, so the cached task list itself is never changed.
+ *
+ * <p>The cache holds task lists loaded from a bounded number of bytes of files in total, as the memory a task list
+ * takes grows with the size of the files it was read from, however many tasks it has and however long their names
+ * are. The least recently used task lists are evicted first.
+ */
+final class TaskListCache {
+    /**
+     * The default number of bytes of files the shared cache holds the task lists of in total.
+     */
+    static final long DEFAULT_MAX_CACHED_BYTES = 1L << 25;
+    /**
+     * How recently a file may have been modified for a later change to be hidden by the coarse resolution
+     * of modification times on some file systems.
+     */
+    private static final long RACY_MODIFICATION_MILLIS = 2000;
+    private static final TaskListCache SHARED_CACHE = new TaskListCache(DEFAULT_MAX_CACHED_BYTES);
+
+    private final long maxCachedBytes;
+    /**
+     * Cached task lists by the canonical path of their main file, ordered from least to most recently used.
+     */
+    private final LinkedHashMap<Path, CachedTaskList> entries;
+    private long cachedBytes;
+
+    /**
+     * Constructor for TaskListCache class.
+     *
+     * @param maxCachedBytes The number of bytes of files the cache holds the task lists of in total.
+     */
+    TaskListCache(long maxCachedBytes) {
+        assert maxCachedBytes >= 0 : "Number of cached bytes cannot be negative.";
+        this.maxCachedBytes = maxCachedBytes;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.cachedBytes = 0;
+    }
+
+    /**
+     * Returns the cache shared by all task list storages in this process.
+     *
+     * @return The shared cache.
+     */
+    static TaskListCache getSharedCache() {
+        return SHARED_CACHE;
+    }
+
+    /**
+     * Captures the current version of each file a task list is loaded from.
+     *
+     * @param paths The paths of the files, which may not exist.
+     * @return The versions of the files.
+     * @throws IOException If there is an error reading the attributes or contents of a file.
+     */
+    static List<FileVersion> captureVersions(List<Path> paths) throws IOException {
+        List<FileVersion> versions = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (Path path : paths) {
+            if (!Files.exists(path)) {
+                versions.add(new FileVersion(path, -1, -1, -1));
+                continue;
+            }
+            long size = Files.size(path);
+            long lastModifiedMillis = Files.getLastModifiedTime(path).toMillis();
+            long checksum = now - lastModifiedMillis < RACY_MODIFICATION_MILLIS
+                    ? TaskListCache.computeChecksum(path)
+                    : -1;
+            versions.add(new FileVersion(path, size, lastModifiedMillis, checksum));
+        }
+        return versions;
+    }
+
+    /**
+     * Returns the cached task list for a file, if the files it was loaded from are unchanged.
+     * An entry found to be out of date is evicted.
+     *
+     * @param key      The canonical path of the main file of the task list.
+     * @param versions The current versions of the files the task list is loaded from.
+     * @return The cached task list, which must be shared rather than changed, or null if there is none that is
+     *         up to date.
+     */
+    synchronized CachedTaskList get(Path key, List<FileVersion> versions) {
+        CachedTaskList cachedTaskList = this.entries.get(key);
+        if (cachedTaskList == null) {
+            return null;
+        } else if (!cachedTaskList.versions().equals(versions)) {
+            this.remove(key);
+            return null;
+        }
+        return cachedTaskList;
+    }
+
+    /**
+     * Caches a task list loaded from files, evicting the least recently used task lists until the cache is back
+     * within its bound. Task lists loaded from files too large to fit in the cache at all are not cached.
+     * Once cached, the task list itself must never be changed, and is only used through {@link TaskList#share()}.
+     *
+     * @param key              The canonical path of the main file of the task list.
+     * @param versions         The versions of the files the task list was loaded from.
+     * @param taskList         The task list loaded.
+     * @param snapshotChecksum The checksum of the snapshot the task list was loaded from.
+     * @return True if the task list was cached, false if its files are too large to be cached.
+     */
+    synchronized boolean put(Path key, List<FileVersion> versions, TaskList taskList, long snapshotChecksum) {
+        this.remove(key);
+        CachedTaskList cachedTaskList = new CachedTaskList(versions, taskList, snapshotChecksum);
+        if (cachedTaskList.getEstimatedBytes() > this.maxCachedBytes) {
+            return false;
+        }
+
+        this.entries.put(key, cachedTaskList);
+        this.cachedBytes += cachedTaskList.getEstimatedBytes();
+        while (this.cachedBytes > this.maxCachedBytes) {
+            Map.Entry<Path, CachedTaskList> eldest = this.entries.entrySet().iterator().next();
+            this.remove(eldest.getKey());
+        }
+        return true;
+    }
+
+    /**
+     * Removes the cached task list for a file, if any.
+     *
+     * @param key The canonical path of the main file of the task list.
+     */
+    private void remove(Path key) {
+        CachedTaskList removedTaskList = this.entries.remove(key);
+        if (removedTaskList != null) {
+            this.cachedBytes -= removedTaskList.getEstimatedBytes();
+        }
+    }
+
+    /**
+     * Computes the checksum of the contents of a file.
+     *
+     * @param path The path of the file.
+     * @return The CRC32 checksum of the file.
+     * @throws IOException If there is an error reading the file.
+     */
+    private static long computeChecksum(Path path) throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] buffer = new byte[8192];
+            int bytesRead;
+            while ((bytesRead = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, bytesRead);
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Represents the version of a file as its size, time of last modification, and, if it was modified
+     * too recently for its time of modification to be relied on, its checksum.
+     * A file that does not exist has all of these as -1.
+     *
+     * @param path               The path of the file.
+     * @param size               The size of the file in bytes.
+     * @param lastModifiedMillis The time the file was last modified, in milliseconds since the epoch.
+     * @param checksum           The checksum of the file, or -1 if it was not needed.
+     */
+    record FileVersion(Path path, long size, long lastModifiedMillis, long checksum) {
+    }
+
+    /**
+     * Represents a task list held in the cache.
+     *
+     * @param versions         The versions of the files the task list was loaded from.
+     * @param taskList         The task list, which must never be changed.
+     * @param snapshotChecksum The checksum of the snapshot the task list was loaded from.
+     */
+    record CachedTaskList(List<FileVersion> versions, TaskList taskList, long snapshotChecksum) {
+        /**
+         * Returns the estimated size of the task list, as the total size of the files it was loaded from.
+         *
+         * @return The estimated size in bytes.
+         */
+        long getEstimatedBytes() {
+            return this.versions.stream().mapToLong(version -> Math.max(0, version.size())).sum();
+        }
+    }
+}
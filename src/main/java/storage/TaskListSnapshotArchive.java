@@ -0,0 +1,484 @@
+package storage;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import tasklist.Task;
+import tasklist.TaskList;
+
+/**
+ * Represents an archive of numbered, compressed snapshots of a task list kept in a directory.
+ * A snapshot is either full, holding every task, or a delta, holding only the tasks changed since the snapshot
+ * before it. Deltas are written while they are small, until a chain of deltas reaches its limit, after which
+ * the next snapshot is full again so that reading any snapshot replays a bounded number of deltas.
+ *
+ * <p>Snapshots are named by their number, {@code 00000001.full} or {@code 00000002.delta}, and are written
+ * with the compact binary task encoding, compressed as a stream with {@link Deflater}.
+ */
+public class TaskListSnapshotArchive {
+    /**
+     * The default number of deltas that can follow a full snapshot.
+     */
+    public static final int DEFAULT_MAX_DELTA_CHAIN_LENGTH = 7;
+
+    private static final int FULL_SNAPSHOT_MAGIC = 0x4B534E46;
+    private static final int DELTA_SNAPSHOT_MAGIC = 0x4B534E44;
+    private static final String FULL_SNAPSHOT_EXTENSION = ".full";
+    private static final String DELTA_SNAPSHOT_EXTENSION = ".delta";
+    /**
+     * The largest number of changed tasks worth writing as a delta, beyond which a full snapshot is written.
+     */
+    private static final int MAX_DELTA_EDITS = 2048;
+    private static final byte KEEP_OPERATION = 'K';
+    private static final byte DELETE_OPERATION = 'D';
+    private static final byte INSERT_OPERATION = 'I';
+
+    private final Path directory;
+    private final int maxDeltaChainLength;
+
+    /**
+     * Constructor for TaskListSnapshotArchive class.
+     *
+     * @param relativeDirectoryPath The relative path of the directory holding the snapshots.
+     * @param maxDeltaChainLength   The number of deltas that can follow a full snapshot.
+     */
+    public TaskListSnapshotArchive(String relativeDirectoryPath, int maxDeltaChainLength) {
+        assert relativeDirectoryPath != null && !relativeDirectoryPath.isEmpty()
+                : "Relative directory path cannot be null, nor empty.";
+        assert maxDeltaChainLength >= 0 : "Maximum delta chain length cannot be negative.";
+        this.directory = Paths.get(relativeDirectoryPath);
+        this.maxDeltaChainLength = maxDeltaChainLength;
+    }
+
+    /**
+     * Constructor for TaskListSnapshotArchive class, with the default delta chain limit.
+     *
+     * @param relativeDirectoryPath The relative path of the directory holding the snapshots.
+     */
+    public TaskListSnapshotArchive(String relativeDirectoryPath) {
+        this(relativeDirectoryPath, TaskListSnapshotArchive.DEFAULT_MAX_DELTA_CHAIN_LENGTH);
+    }
+
+    /**
+     * Writes a snapshot of a task list as the next snapshot in the archive.
+     * The snapshot is a delta against the latest snapshot, unless there is none, its chain of deltas is at the
+     * limit, or too many tasks have changed, in which case it is full.
+     *
+     * @param taskList The task list to be snapshotted.
+     * @return The number of the snapshot written.
+     * @throws StorageException If there is an error reading the latest snapshot or writing the new one.
+     */
+    public long writeSnapshot(TaskList taskList) throws StorageException {
+        try {
+            Files.createDirectories(this.directory);
+            long latestNumber = this.findLatestSnapshotNumber(false);
+            long latestFullNumber = this.findLatestSnapshotNumber(true);
+            long snapshotNumber = latestNumber + 1;
+
+            boolean canWriteDelta = latestNumber > 0 && latestFullNumber > 0
+                    && latestNumber - latestFullNumber < this.maxDeltaChainLength;
+            if (canWriteDelta) {
+                List<DeltaOperation> operations = TaskListSnapshotArchive.diff(
+                        this.readSnapshot(latestNumber), taskList);
+                if (operations != null) {
+                    this.writeCompressed(this.getDeltaPath(snapshotNumber), out -> {
+                        out.writeInt(TaskListSnapshotArchive.DELTA_SNAPSHOT_MAGIC);
+                        out.writeLong(latestNumber);
+                        out.writeInt(operations.size());
+                        for (DeltaOperation operation : operations) {
+                            operation.writeTo(out);
+                        }
+                    });
+                    return snapshotNumber;
+                }
+            }
+
+            this.writeCompressed(this.getFullPath(snapshotNumber), out -> {
+                out.writeInt(TaskListSnapshotArchive.FULL_SNAPSHOT_MAGIC);
+                out.writeInt(taskList.getLength());
+                for (int i = 0; i < taskList.getLength(); i++) {
+                    TaskBinaryCodec.writeTask(out, taskList.getTask(i));
+                }
+            });
+            return snapshotNumber;
+        } catch (IOException e) {
+            throw new StorageException(String.format("Error saving data to file: %s.", this.directory), e);
+        }
+    }
+
+    /**
+     * Reads a snapshot from the archive, replaying any deltas onto the full snapshot they follow.
+     *
+     * @param snapshotNumber The number of the snapshot.
+     * @return The task list in the snapshot.
+     * @throws StorageException If the snapshot does not exist, or there is an error reading it.
+     */
+    public TaskList readSnapshot(long snapshotNumber) throws StorageException {
+        Path fullPath = this.getFullPath(snapshotNumber);
+        Path deltaPath = this.getDeltaPath(snapshotNumber);
+        Path path = Files.exists(fullPath) ? fullPath : deltaPath;
+
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(
+                new BufferedInputStream(Files.newInputStream(path))))) {
+            int magic = in.readInt();
+            if (magic == TaskListSnapshotArchive.FULL_SNAPSHOT_MAGIC) {
+                TaskList taskList = TaskList.createCompactTaskList();
+                int length = in.readInt();
+                for (int i = 0; i < length; i++) {
+                    taskList.addTask(TaskBinaryCodec.readTask(in));
+                }
+                return taskList;
+            } else if (magic == TaskListSnapshotArchive.DELTA_SNAPSHOT_MAGIC) {
+                long baseNumber = in.readLong();
+                if (baseNumber >= snapshotNumber) {
+                    throw new IOException("Delta snapshot does not follow an earlier snapshot.");
+                }
+                return TaskListSnapshotArchive.applyDelta(this.readSnapshot(baseNumber), in);
+            } else {
+                throw new IOException("Not a task list snapshot.");
+            }
+        } catch (IOException e) {
+            throw new StorageException(String.format("Error loading data from file: %s.", path), e);
+        }
+    }
+
+    /**
+     * Reads the latest snapshot from the archive.
+     *
+     * @return The task list in the latest snapshot.
+     * @throws StorageException If the archive has no snapshots, or there is an error reading them.
+     */
+    public TaskList readLatestSnapshot() throws StorageException {
+        long latestNumber;
+        try {
+            latestNumber = this.findLatestSnapshotNumber(false);
+        } catch (IOException e) {
+            throw new StorageException(String.format("Error loading data from file: %s.", this.directory), e);
+        }
+        if (latestNumber == 0) {
+            throw new StorageException(String.format("Error loading data from file: %s.", this.directory));
+        }
+        return this.readSnapshot(latestNumber);
+    }
+
+    /**
+     * Returns whether a snapshot is a delta rather than a full snapshot.
+     *
+     * @param snapshotNumber The number of the snapshot.
+     * @return Whether the snapshot is a delta.
+     */
+    public boolean isDeltaSnapshot(long snapshotNumber) {
+        return Files.exists(this.getDeltaPath(snapshotNumber));
+    }
+
+    /**
+     * Finds the number of the latest snapshot in the archive.
+     *
+     * @param isFullOnly Whether to only consider full snapshots.
+     * @return The number of the latest snapshot, or 0 if there are no snapshots.
+     * @throws IOException If there is an error listing the directory.
+     */
+    private long findLatestSnapshotNumber(boolean isFullOnly) throws IOException {
+        if (!Files.isDirectory(this.directory)) {
+            return 0;
+        }
+
+        long latestNumber = 0;
+        try (DirectoryStream<Path> paths = Files.newDirectoryStream(this.directory)) {
+            for (Path path : paths) {
+                String fileName = path.getFileName().toString();
+                boolean isFull = fileName.endsWith(TaskListSnapshotArchive.FULL_SNAPSHOT_EXTENSION);
+                boolean isDelta = fileName.endsWith(TaskListSnapshotArchive.DELTA_SNAPSHOT_EXTENSION);
+                if (!isFull && (isFullOnly || !isDelta)) {
+                    continue;
+                }
+                try {
+                    long number = Long.parseLong(fileName.substring(0, fileName.lastIndexOf('.')));
+                    latestNumber = Math.max(latestNumber, number);
+                } catch (NumberFormatException e) {
+                    // Not a snapshot written by the archive, so it is left alone.
+                }
+            }
+        }
+        return latestNumber;
+    }
+
+    /**
+     * Writes a file atomically, compressing its contents as they are written.
+     *
+     * @param path   The path of the file.
+     * @param writer The function writing the uncompressed contents.
+     * @throws IOException If there is an error writing the file.
+     */
+    private void writeCompressed(Path path, DataWriter writer) throws IOException {
+        AtomicFileCommitter.commit(path, out -> {
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try {
+                DeflaterOutputStream deflaterOut = new DeflaterOutputStream(out, deflater);
+                DataOutputStream dataOut = new DataOutputStream(deflaterOut);
+                writer.writeTo(dataOut);
+                dataOut.flush();
+                deflaterOut.finish();
+            } finally {
+                deflater.end();
+            }
+        });
+    }
+
+    /**
+     * Returns the path of a full snapshot.
+     *
+     * @param snapshotNumber The number of the snapshot.
+     * @return The path of the snapshot.
+     */
+    private Path getFullPath(long snapshotNumber) {
+        return this.directory.resolve(
+                String.format("%08d%s", snapshotNumber, TaskListSnapshotArchive.FULL_SNAPSHOT_EXTENSION));
+    }
+
+    /**
+     * Returns the path of a delta snapshot.
+     *
+     * @param snapshotNumber The number of the snapshot.
+     * @return The path of the snapshot.
+     */
+    private Path getDeltaPath(long snapshotNumber) {
+        return this.directory.resolve(
+                String.format("%08d%s", snapshotNumber, TaskListSnapshotArchive.DELTA_SNAPSHOT_EXTENSION));
+    }
+
+    /**
+     * Applies the operations of a delta to the task list of its base snapshot.
+     *
+     * @param baseTaskList The task list of the base snapshot.
+     * @param in           The input to read the operations from.
+     * @return The task list after the delta.
+     * @throws IOException If there is an error reading the operations, or they do not fit the base snapshot.
+     */
+    private static TaskList applyDelta(TaskList baseTaskList, DataInputStream in) throws IOException {
+        TaskList taskList = TaskList.createCompactTaskList();
+        int baseIdx = 0;
+        int operationCount = in.readInt();
+        for (int i = 0; i < operationCount; i++) {
+            byte operation = in.readByte();
+            int count = in.readInt();
+            if (count < 0 || (operation != TaskListSnapshotArchive.INSERT_OPERATION
+                    && baseIdx + count > baseTaskList.getLength())) {
+                throw new IOException("Delta does not fit its base snapshot.");
+            }
+
+            switch (operation) {
+            case KEEP_OPERATION -> {
+                for (int j = 0; j < count; j++) {
+                    taskList.addTask(baseTaskList.getTask(baseIdx++));
+                }
+            }
+            case DELETE_OPERATION -> baseIdx += count;
+            case INSERT_OPERATION -> {
+                for (int j = 0; j < count; j++) {
+                    taskList.addTask(TaskBinaryCodec.readTask(in));
+                }
+            }
+            default -> throw new IOException("Unknown delta operation: " + operation);
+            }
+        }
+        if (baseIdx != baseTaskList.getLength()) {
+            throw new IOException("Delta does not fit its base snapshot.");
+        }
+        return taskList;
+    }
+
+    /**
+     * Finds the operations turning one task list into another, with the fewest tasks deleted and inserted.
+     * A task whose completion changed counts as deleted and inserted again.
+     * Uses Myers' difference algorithm, which takes time proportional to the length of the lists times
+     * the number of changes, after skipping any tasks the lists start and end with in common.
+     *
+     * @param baseTaskList The task list to change from.
+     * @param taskList     The task list to change to.
+     * @return The operations, or null if more tasks changed than are worth writing as a delta.
+     */
+    private static List<DeltaOperation> diff(TaskList baseTaskList, TaskList taskList) {
+        int baseLength = baseTaskList.getLength();
+        int length = taskList.getLength();
+        int prefixLength = 0;
+        while (prefixLength < baseLength && prefixLength < length
+                && TaskListSnapshotArchive.isSameTask(
+                        baseTaskList.getTask(prefixLength), taskList.getTask(prefixLength))) {
+            prefixLength++;
+        }
+        int suffixLength = 0;
+        while (suffixLength < baseLength - prefixLength && suffixLength < length - prefixLength
+                && TaskListSnapshotArchive.isSameTask(baseTaskList.getTask(baseLength - 1 - suffixLength),
+                        taskList.getTask(length - 1 - suffixLength))) {
+            suffixLength++;
+        }
+
+        int n = baseLength - prefixLength - suffixLength;
+        int m = length - prefixLength - suffixLength;
+        int maxEdits = Math.min(n + m, TaskListSnapshotArchive.MAX_DELTA_EDITS);
+        int offset = maxEdits + 1;
+        int[] furthest = new int[2 * maxEdits + 3];
+        List<int[]> trace = new ArrayList<>();
+        int editCount = -1;
+
+        // Find the furthest point reachable on each diagonal k = x - y with d edits, for increasing d.
+        for (int d = 0; d <= maxEdits && editCount < 0; d++) {
+            int[] previousFurthest = new int[2 * d + 1];
+            for (int k = -d; k <= d; k++) {
+                previousFurthest[k + d] = furthest[k + offset];
+            }
+            trace.add(previousFurthest);
+
+            for (int k = -d; k <= d; k += 2) {
+                int x = k == -d || (k != d && furthest[k - 1 + offset] < furthest[k + 1 + offset])
+                        ? furthest[k + 1 + offset]
+                        : furthest[k - 1 + offset] + 1;
+                int y = x - k;
+                while (x < n && y < m && TaskListSnapshotArchive.isSameTask(
+                        baseTaskList.getTask(prefixLength + x), taskList.getTask(prefixLength + y))) {
+                    x++;
+                    y++;
+                }
+                furthest[k + offset] = x;
+                if (x >= n && y >= m) {
+                    editCount = d;
+                    break;
+                }
+            }
+        }
+        if (editCount < 0) {
+            return null;
+        }
+
+        // Walk back through the trace to recover the edits, from the end of the lists to the start.
+        byte[] reversedEdits = new byte[n + m];
+        int reversedEditCount = 0;
+        int x = n;
+        int y = m;
+        for (int d = editCount; d > 0; d--) {
+            int[] previousFurthest = trace.get(d);
+            int k = x - y;
+            int previousK = k == -d || (k != d && previousFurthest[k - 1 + d] < previousFurthest[k + 1 + d])
+                    ? k + 1
+                    : k - 1;
+            int previousX = previousFurthest[previousK + d];
+            int previousY = previousX - previousK;
+            while (x > previousX && y > previousY) {
+                reversedEdits[reversedEditCount++] = TaskListSnapshotArchive.KEEP_OPERATION;
+                x--;
+                y--;
+            }
+            reversedEdits[reversedEditCount++] = x == previousX
+                    ? TaskListSnapshotArchive.INSERT_OPERATION
+                    : TaskListSnapshotArchive.DELETE_OPERATION;
+            x = previousX;
+            y = previousY;
+        }
+        while (x > 0) {
+            reversedEdits[reversedEditCount++] = TaskListSnapshotArchive.KEEP_OPERATION;
+            x--;
+        }
+
+        List<DeltaOperation> operations = new ArrayList<>();
+        DeltaOperation.appendTo(operations, TaskListSnapshotArchive.KEEP_OPERATION, prefixLength, null);
+        int insertIdx = prefixLength;
+        for (int i = reversedEditCount - 1; i >= 0; i--) {
+            byte edit = reversedEdits[i];
+            Task insertedTask = edit == TaskListSnapshotArchive.INSERT_OPERATION ? taskList.getTask(insertIdx) : null;
+            if (edit != TaskListSnapshotArchive.DELETE_OPERATION) {
+                insertIdx++;
+            }
+            DeltaOperation.appendTo(operations, edit, 1, insertedTask);
+        }
+        DeltaOperation.appendTo(operations, TaskListSnapshotArchive.KEEP_OPERATION, suffixLength, null);
+        return operations;
+    }
+
+    /**
+     * Returns whether two tasks are the same, including their completion.
+     *
+     * @param first  The first task.
+     * @param second The second task.
+     * @return Whether the tasks are the same.
+     */
+    private static boolean isSameTask(Task first, Task second) {
+        return first.equals(second) && first.isCompleted() == second.isCompleted();
+    }
+
+    /**
+     * A function that writes uncompressed contents of a snapshot.
+     */
+    @FunctionalInterface
+    private interface DataWriter {
+        void writeTo(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Represents a run of tasks kept from the base snapshot, deleted from it, or inserted.
+     */
+    private static final class DeltaOperation {
+        private final byte operation;
+        private final List<Task> insertedTasks;
+        private int count;
+
+        /**
+         * Constructor for DeltaOperation class.
+         *
+         * @param operation The kind of operation.
+         */
+        private DeltaOperation(byte operation) {
+            this.operation = operation;
+            this.insertedTasks = new ArrayList<>();
+            this.count = 0;
+        }
+
+        /**
+         * Appends tasks to the run of operations, extending the last run if it is of the same kind.
+         *
+         * @param operations   The runs of operations so far.
+         * @param operation    The kind of operation.
+         * @param count        The number of tasks.
+         * @param insertedTask The task inserted, if the operation is a single insertion.
+         */
+        private static void appendTo(List<DeltaOperation> operations, byte operation, int count, Task insertedTask) {
+            if (count == 0) {
+                return;
+            }
+            DeltaOperation lastOperation = operations.isEmpty() ? null : operations.get(operations.size() - 1);
+            if (lastOperation == null || lastOperation.operation != operation) {
+                lastOperation = new DeltaOperation(operation);
+                operations.add(lastOperation);
+            }
+            lastOperation.count += count;
+            if (insertedTask != null) {
+                lastOperation.insertedTasks.add(insertedTask);
+            }
+        }
+
+        /**
+         * Writes the operation to the output.
+         *
+         * @param out The output to write to.
+         * @throws IOException If there is an error writing to the output.
+         */
+        private void writeTo(DataOutputStream out) throws IOException {
+            out.writeByte(this.operation);
+            out.writeInt(this.count);
+            for (Task task : this.insertedTasks) {
+                TaskBinaryCodec.writeTask(out, task);
+            }
+        }
+    }
+}
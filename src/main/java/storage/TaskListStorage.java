@@ -0,0 +1,69 @@
+package storage;
+
+import tasklist.TaskList;
+import tasklist.TaskListMutation;
+
+/**
+ * Represents a storage utility that keeps a task list on disk, and can save later changes to it incrementally.
+ * Once a task list has been loaded or saved, the storage is attached to it: the mutations made to the task list
+ * are recorded with the storage, and later saves write only what those mutations changed.
+ */
+public interface TaskListStorage {
+    /**
+     * Returns the relative path the task list is kept at, as given when the storage was created.
+     *
+     * @return The relative path of the task list.
+     */
+    String getRelativeFilePath();
+
+    /**
+     * Checks if this storage keeps the task list at the given path.
+     *
+     * @param relativeFilePath The relative path to compare with.
+     * @return True if the path refers to where this storage keeps the task list, false otherwise.
+     */
+    boolean isStoredAt(String relativeFilePath);
+
+    /**
+     * Checks if the files on disk reflect the task list last loaded or saved through this storage,
+     * such that the mutations recorded since can be saved without the task list itself.
+     *
+     * @return True if the storage has loaded or saved a task list, false otherwise.
+     */
+    boolean isAttached();
+
+    /**
+     * Loads the task list, and attaches the storage to it.
+     *
+     * @return The task list loaded.
+     * @throws StorageException If there is an error loading the task list.
+     */
+    TaskList load() throws StorageException;
+
+    /**
+     * Records a mutation made to the task list since it was last loaded or saved, to be written on the next save.
+     * Mutations recorded while the storage is not attached are ignored. A mutation the storage cannot write on its
+     * own, such as inserting a task where it has no room to place it, detaches the storage instead, so that the
+     * next save writes the task list in full.
+     *
+     * @param mutation The mutation made to the task list.
+     */
+    void record(TaskListMutation mutation);
+
+    /**
+     * Saves the task list, writing only the recorded mutations if the storage is attached to it,
+     * and otherwise writing the task list in full and attaching the storage to it.
+     *
+     * @param taskList The task list to be saved.
+     * @throws StorageException If there is an error saving the task list.
+     */
+    void save(TaskList taskList) throws StorageException;
+
+    /**
+     * Saves the mutations recorded since the last save, without needing the task list itself.
+     * This is safe to call from another thread while further mutations are being recorded.
+     *
+     * @throws StorageException If there is an error saving the mutations.
+     */
+    void flush() throws StorageException;
+}
@@ -0,0 +1,363 @@
+package storage;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import tasklist.DeadlineTask;
+import tasklist.EventTask;
+import tasklist.Task;
+import tasklist.TaskList;
+import tasklist.ToDoTask;
+
+/**
+ * Reads and writes task lists as human-readable text files, with one task per line.
+ * Each line holds the fields of a task separated by {@code |}: its type symbol, {@code x} if it is completed or
+ * a space if not, its name, and any dates in ISO format, such as {@code T|x|Fix spaceship} or
+ * {@code D| |Communicate with earth|2024-01-01}. Backslashes, separators and line breaks in names are escaped
+ * with a backslash.
+ *
+ * <p>Large files are read in parallel, by splitting them into chunks at line boundaries and parsing each chunk
+ * on its own thread.
+ */
+public final class TaskListTextFile {
+    /**
+     * The default number of bytes of a file parsed together as one chunk.
+     */
+    private static final int DEFAULT_CHUNK_BYTES = 8 << 20;
+    private static final char SEPARATOR = '|';
+    private static final char ESCAPE = '\\';
+    private static final char COMPLETED_MARK = 'x';
+    private static final char INCOMPLETE_MARK = ' ';
+
+    private TaskListTextFile() {
+    }
+
+    /**
+     * Checks if a file is stored in the text format, by looking for a task type and separator at its start.
+     * An empty file is a text file holding no tasks.
+     *
+     * @param path The path of the file.
+     * @return True if the file is a task list text file, false otherwise.
+     * @throws StorageException If the file cannot be read.
+     */
+    public static boolean isTextFile(Path path) throws StorageException {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] start = in.readNBytes(2);
+            return start.length == 0 || (start.length == 2 && (start[0] == 'T' || start[0] == 'D' || start[0] == 'E')
+                    && start[1] == SEPARATOR);
+        } catch (IOException e) {
+            throw new StorageException(String.format("Error loading data from file: %s.", path), e);
+        }
+    }
+
+    /**
+     * Writes a task list to a file in the text format, streaming one line per task.
+     * The file is replaced atomically, so a crash while writing never leaves a partial file behind.
+     *
+     * @param path     The path of the file.
+     * @param taskList The task list to be written.
+     * @throws StorageException If there is an error writing the file.
+     */
+    public static void write(Path path, TaskList taskList) throws StorageException {
+        try {
+            AtomicFileCommitter.commit(path, out -> {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                for (int i = 0; i < taskList.getLength(); i++) {
+                    TaskListTextFile.writeLine(writer, taskList.getTask(i));
+                }
+                writer.flush();
+            });
+        } catch (IOException e) {
+            throw new StorageException(String.format("Error saving data to file: %s.", path), e);
+        }
+    }
+
+    /**
+     * Reads a task list from a file in the text format, parsing its chunks in parallel on the common pool.
+     *
+     * @param path The path of the file.
+     * @return The task list read from the file.
+     * @throws StorageException If the file cannot be read, or any line does not describe a task.
+     */
+    public static TaskList read(Path path) throws StorageException {
+        return TaskListTextFile.read(path, ForkJoinPool.commonPool(), DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * Reads a task list from a file in the text format, parsing its chunks in parallel on the given pool.
+     *
+     * @param path       The path of the file.
+     * @param pool       The pool to parse the chunks on.
+     * @param chunkBytes The number of bytes of the file parsed together as one chunk.
+     * @return The task list read from the file.
+     * @throws StorageException If the file cannot be read, or any line does not describe a task.
+     */
+    static TaskList read(Path path, ForkJoinPool pool, int chunkBytes) throws StorageException {
+        assert chunkBytes > 0 : "Chunk size must be positive.";
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            List<Long> chunkStarts = TaskListTextFile.findChunkStarts(channel, chunkBytes);
+            List<ChunkParser> parsers = new ArrayList<>();
+            for (int i = 0; i + 1 < chunkStarts.size(); i++) {
+                parsers.add(new ChunkParser(channel, chunkStarts.get(i), chunkStarts.get(i + 1)));
+            }
+
+            parsers.forEach(pool::execute);
+
+            TaskList taskList = TaskList.createCompactTaskList();
+            for (ChunkParser parser : parsers) {
+                parser.join().forEach(taskList::addTask);
+            }
+            return taskList;
+        } catch (IOException | ChunkParseException e) {
+            throw new StorageException(String.format("Error loading data from file: %s.", path), e);
+        }
+    }
+
+    /**
+     * Finds where each chunk of the file starts, so that every chunk starts at the beginning of a line.
+     * The end of the file is included as the start of a final, empty chunk.
+     *
+     * @param channel    The channel of the file.
+     * @param chunkBytes The number of bytes in each chunk, before moving its end to a line boundary.
+     * @return The positions where the chunks start, in order.
+     * @throws IOException If there is an error reading the file.
+     */
+    private static List<Long> findChunkStarts(FileChannel channel, int chunkBytes) throws IOException {
+        long fileSize = channel.size();
+        List<Long> chunkStarts = new ArrayList<>();
+        chunkStarts.add(0L);
+
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long position = chunkBytes;
+        while (position < fileSize) {
+            // Move the boundary forward to just after the next line break, so no line is split between chunks.
+            long lineStart = -1;
+            while (lineStart < 0 && position < fileSize) {
+                buffer.clear();
+                int bytesRead = channel.read(buffer, position);
+                for (int i = 0; i < bytesRead && lineStart < 0; i++) {
+                    if (buffer.get(i) == '\n') {
+                        lineStart = position + i + 1;
+                    }
+                }
+                position += Math.max(bytesRead, 0);
+            }
+            if (lineStart < 0 || lineStart >= fileSize) {
+                break;
+            }
+            chunkStarts.add(lineStart);
+            position = lineStart + chunkBytes;
+        }
+
+        chunkStarts.add(fileSize);
+        return chunkStarts;
+    }
+
+    /**
+     * Writes a task to the output as a single line.
+     *
+     * @param writer The output to write the line to.
+     * @param task   The task to be written.
+     * @throws IOException If there is an error writing to the output.
+     */
+    private static void writeLine(Writer writer, Task task) throws IOException {
+        writer.write(task.getTypeSymbol());
+        writer.write(SEPARATOR);
+        writer.write(task.isCompleted() ? COMPLETED_MARK : INCOMPLETE_MARK);
+        writer.write(SEPARATOR);
+        TaskListTextFile.writeEscaped(writer, task.getTaskName());
+
+        if (task instanceof DeadlineTask deadlineTask) {
+            writer.write(SEPARATOR);
+            writer.write(deadlineTask.getDeadlineDate().toString());
+        } else if (task instanceof EventTask eventTask) {
+            writer.write(SEPARATOR);
+            writer.write(eventTask.getStartDate().toString());
+            writer.write(SEPARATOR);
+            writer.write(eventTask.getEndDate().toString());
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * Writes text to the output, escaping backslashes, separators and line breaks.
+     *
+     * @param writer The output to write the text to.
+     * @param text   The text to be written.
+     * @throws IOException If there is an error writing to the output.
+     */
+    private static void writeEscaped(Writer writer, String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+            case ESCAPE, SEPARATOR -> {
+                writer.write(ESCAPE);
+                writer.write(c);
+            }
+            case '\n' -> writer.write("\\n");
+            case '\r' -> writer.write("\\r");
+            default -> writer.write(c);
+            }
+        }
+    }
+
+    /**
+     * Parses a single line of the text format into a task.
+     *
+     * @param line The line, without its line break.
+     * @return The task described by the line.
+     * @throws ChunkParseException If the line does not describe a task.
+     */
+    private static Task parseLine(String line) throws ChunkParseException {
+        List<String> fields = TaskListTextFile.splitFields(line);
+        if (fields.size() < 3 || fields.get(0).length() != 1 || fields.get(1).length() != 1) {
+            throw new ChunkParseException("Invalid task line: " + line);
+        }
+
+        char completionMark = fields.get(1).charAt(0);
+        if (completionMark != COMPLETED_MARK && completionMark != INCOMPLETE_MARK) {
+            throw new ChunkParseException("Invalid completion mark: " + line);
+        }
+        String taskName = fields.get(2);
+        Task task;
+        try {
+            task = switch (fields.get(0).charAt(0)) {
+            case 'T' -> fields.size() == 3 ? new ToDoTask(taskName) : null;
+            case 'D' -> fields.size() == 4 ? new DeadlineTask(taskName, LocalDate.parse(fields.get(3))) : null;
+            case 'E' -> fields.size() == 5
+                    ? new EventTask(taskName, LocalDate.parse(fields.get(3)), LocalDate.parse(fields.get(4)))
+                    : null;
+            default -> null;
+            };
+        } catch (DateTimeParseException e) {
+            throw new ChunkParseException("Invalid task date: " + line);
+        }
+        if (task == null) {
+            throw new ChunkParseException("Invalid task line: " + line);
+        }
+
+        if (completionMark == COMPLETED_MARK) {
+            task.setComplete();
+        }
+        return task;
+    }
+
+    /**
+     * Splits a line into its fields at unescaped separators, unescaping each field.
+     *
+     * @param line The line to be split.
+     * @return The unescaped fields of the line.
+     * @throws ChunkParseException If the line ends in the middle of an escape.
+     */
+    private static List<String> splitFields(String line) throws ChunkParseException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == SEPARATOR) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c != ESCAPE) {
+                field.append(c);
+            } else if (++i == line.length()) {
+                throw new ChunkParseException("Unfinished escape: " + line);
+            } else {
+                char escaped = line.charAt(i);
+                field.append(escaped == 'n' ? '\n' : escaped == 'r' ? '\r' : escaped);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Represents the parsing of one chunk of a text file into tasks, run on a fork-join pool.
+     */
+    @SuppressWarnings("serial")
+    private static class ChunkParser extends RecursiveTask<List<Task>> {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+
+        /**
+         * Constructor for ChunkParser class.
+         *
+         * @param channel The channel of the file.
+         * @param start   The position of the start of the chunk, at the start of a line.
+         * @param end     The position of the end of the chunk, at the start of a line or the end of the file.
+         */
+        private ChunkParser(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Reads the chunk and parses each of its lines into a task.
+         *
+         * @return The tasks in the chunk, in order.
+         */
+        @Override
+        protected List<Task> compute() {
+            ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(this.end - this.start));
+            try {
+                while (buffer.hasRemaining()) {
+                    if (this.channel.read(buffer, this.start + buffer.position()) < 0) {
+                        throw new ChunkParseException("File ended before chunk was read.");
+                    }
+                }
+            } catch (IOException e) {
+                throw new ChunkParseException("Error reading chunk: " + e.getMessage());
+            }
+
+            // UTF-8 never uses the byte of a line break within another character, so lines split cleanly as bytes.
+            byte[] bytes = buffer.array();
+            List<Task> tasks = new ArrayList<>();
+            int lineStart = 0;
+            while (lineStart < bytes.length) {
+                int lineEnd = lineStart;
+                while (lineEnd < bytes.length && bytes[lineEnd] != '\n') {
+                    lineEnd++;
+                }
+                int contentEnd = lineEnd > lineStart && bytes[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+                if (contentEnd > lineStart) {
+                    String line = new String(bytes, lineStart, contentEnd - lineStart, StandardCharsets.UTF_8);
+                    tasks.add(TaskListTextFile.parseLine(line));
+                }
+                lineStart = lineEnd + 1;
+            }
+            return tasks;
+        }
+    }
+
+    /**
+     * Thrown when a chunk of a text file cannot be parsed. Unchecked, so that it can cross the fork-join pool.
+     */
+    private static class ChunkParseException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Constructor for ChunkParseException class.
+         *
+         * @param message The message describing why the chunk cannot be parsed.
+         */
+        private ChunkParseException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Represents an exclusive lock on stored files, shared by the threads of this process and by other processes,
+ * along with a version counter for the files that is bumped by every write changing what they hold.
+ * Both are kept in a lock file beside the stored files. The lock is reentrant within a thread.
+ *
+ * <p>A writer remembers the version it last loaded or saved, and checks it against the current version under
+ * the lock before writing, so that changes made by others in the meantime are never silently overwritten.
+ */
+final class VersionedFileLock implements AutoCloseable {
+    /**
+     * State of each lock file in this process, as a file lock cannot be acquired twice by the same process.
+     */
+    private static final Map<Path, LockState> LOCK_STATES = new ConcurrentHashMap<>();
+
+    private final LockState state;
+
+    /**
+     * Constructor for VersionedFileLock class.
+     *
+     * @param state The state of the lock file, already locked by the current thread.
+     */
+    private VersionedFileLock(LockState state) {
+        this.state = state;
+    }
+
+    /**
+     * Acquires the lock, waiting for other threads and processes holding it to release it.
+     *
+     * @param lockPath The path of the lock file, which is created if it does not exist.
+     * @return The acquired lock, to be closed to release it.
+     * @throws IOException If there is an error opening or locking the lock file.
+     */
+    static VersionedFileLock acquire(Path lockPath) throws IOException {
+        LockState state = LOCK_STATES.computeIfAbsent(lockPath.toAbsolutePath().normalize(), path -> new LockState());
+        state.threadLock.lock();
+        if (state.threadLock.getHoldCount() > 1) {
+            return new VersionedFileLock(state);
+        }
+
+        try {
+            state.channel = FileChannel.open(lockPath,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            state.fileLock = state.channel.lock();
+        } catch (IOException | RuntimeException e) {
+            if (state.channel != null) {
+                state.channel.close();
+                state.channel = null;
+            }
+            state.threadLock.unlock();
+            throw e;
+        }
+        return new VersionedFileLock(state);
+    }
+
+    /**
+     * Reads the current version of the files.
+     *
+     * @return The version, which is 0 if the files have never been written under the lock.
+     * @throws IOException If there is an error reading the lock file.
+     */
+    long readVersion() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        while (buffer.hasRemaining()) {
+            if (this.state.channel.read(buffer, buffer.position()) < 0) {
+                return 0;
+            }
+        }
+        return buffer.getLong(0);
+    }
+
+    /**
+     * Bumps the version of the files after they have been written, and forces it to disk.
+     *
+     * @return The new version.
+     * @throws IOException If there is an error reading or writing the lock file.
+     */
+    long incrementVersion() throws IOException {
+        long version = this.readVersion() + 1;
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).putLong(0, version);
+        while (buffer.hasRemaining()) {
+            this.state.channel.write(buffer, buffer.position());
+        }
+        this.state.channel.force(false);
+        return version;
+    }
+
+    /**
+     * Releases the lock, once the current thread has released it as many times as it acquired it.
+     *
+     * @throws IOException If there is an error releasing or closing the lock file.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (this.state.threadLock.getHoldCount() == 1) {
+                try {
+                    this.state.fileLock.release();
+                } finally {
+                    this.state.channel.close();
+                    this.state.channel = null;
+                    this.state.fileLock = null;
+                }
+            }
+        } finally {
+            this.state.threadLock.unlock();
+        }
+    }
+
+    /**
+     * Represents the state of a lock file in this process, guarded by the thread lock.
+     */
+    private static class LockState {
+        private final ReentrantLock threadLock = new ReentrantLock();
+        private FileChannel channel;
+        private FileLock fileLock;
+    }
+}
@@ -0,0 +1,346 @@
+package tasklist;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Represents a sequence of tasks held as columns of primitive values rather than as task objects.
+ * Each task takes a type byte, a completion bit, the epoch days of its dates and its name encoded in UTF-8,
+ * packed together with the names of all other tasks. Tasks are created from the columns only when asked for,
+ * so the tasks returned are new each time, and changing them does not change the sequence.
+ * The string each task is rendered as is kept beside its columns until the task is changed, so that
+ * rendering the same tasks again does not create or render them again.
+ *
+ * <p>Names no longer used by any task are left in place until they take up half of the packed names,
+ * and then dropped all at once.
+ */
+class CompactTaskSequence extends AbstractList<Task> {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_NAME_CAPACITY = 256;
+
+    private byte[] typeSymbols;
+    private final BitSet completions;
+    /**
+     * The epoch day of the deadline of each deadline task, or the start of each event task.
+     */
+    private int[] startDays;
+    /**
+     * The epoch day of the end of each event task.
+     */
+    private int[] endDays;
+    private int[] nameOffsets;
+    private int[] nameLengths;
+    /**
+     * The string each task was last rendered as, or null if it has not been rendered since it was stored.
+     */
+    private String[] renderedTasks;
+    private byte[] names;
+    private int namesLength;
+    private int unusedNamesLength;
+    private int size;
+
+    /**
+     * Constructor for CompactTaskSequence class.
+     */
+    CompactTaskSequence() {
+        this.typeSymbols = new byte[INITIAL_CAPACITY];
+        this.completions = new BitSet();
+        this.startDays = new int[INITIAL_CAPACITY];
+        this.endDays = new int[INITIAL_CAPACITY];
+        this.nameOffsets = new int[INITIAL_CAPACITY];
+        this.nameLengths = new int[INITIAL_CAPACITY];
+        this.renderedTasks = new String[INITIAL_CAPACITY];
+        this.names = new byte[INITIAL_NAME_CAPACITY];
+        this.namesLength = 0;
+        this.unusedNamesLength = 0;
+        this.size = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns a new task created from the columns of the task at the given index.
+     *
+     * @param index The index of the task.
+     * @return A new task equal to the one at the index.
+     */
+    @Override
+    public Task get(int index) {
+        this.checkIndex(index, this.size);
+        String taskName = new String(this.names, this.nameOffsets[index], this.nameLengths[index],
+                StandardCharsets.UTF_8);
+        Task task = switch (this.typeSymbols[index]) {
+        case 'T' -> new ToDoTask(taskName);
+        case 'D' -> new DeadlineTask(taskName, LocalDate.ofEpochDay(this.startDays[index]));
+        case 'E' -> new EventTask(taskName,
+                LocalDate.ofEpochDay(this.startDays[index]), LocalDate.ofEpochDay(this.endDays[index]));
+        default -> throw new IllegalStateException("Unknown task type: " + (char) this.typeSymbols[index]);
+        };
+        if (this.completions.get(index)) {
+            task.setComplete();
+        }
+        return task;
+    }
+
+    /**
+     * Returns the string the task at the given index is rendered as, rendering it only if it has not been
+     * rendered since it was stored.
+     *
+     * @param index The index of the task.
+     * @return The string representation of the task.
+     */
+    String render(int index) {
+        this.checkIndex(index, this.size);
+        String renderedTask = this.renderedTasks[index];
+        if (renderedTask == null) {
+            renderedTask = this.get(index).toString();
+            this.renderedTasks[index] = renderedTask;
+        }
+        return renderedTask;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Task set(int index, Task task) {
+        Task previousTask = this.get(index);
+        this.store(index, task, true);
+        this.compactNamesIfNeeded();
+        return previousTask;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void add(int index, Task task) {
+        this.checkIndex(index, this.size + 1);
+        this.ensureCapacity(this.size + 1);
+        if (index < this.size) {
+            this.shiftColumns(index, index + 1, this.size - index);
+        }
+        this.size++;
+        this.store(index, task, false);
+        this.modCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Task remove(int index) {
+        Task removedTask = this.get(index);
+        this.unusedNamesLength += this.nameLengths[index];
+        this.shiftColumns(index + 1, index, this.size - index - 1);
+        this.size--;
+        this.completions.clear(this.size);
+        this.renderedTasks[this.size] = null;
+        this.compactNamesIfNeeded();
+        this.modCount++;
+        return removedTask;
+    }
+
+    /**
+     * Moves the tasks from an index onwards to a new sequence, leaving only the tasks before it in this one.
+     *
+     * @param fromIndex The index of the first task to be moved.
+     * @return The new sequence holding the tasks moved.
+     */
+    CompactTaskSequence splitOff(int fromIndex) {
+        this.checkIndex(fromIndex, this.size + 1);
+        CompactTaskSequence upper = new CompactTaskSequence();
+        int length = this.size - fromIndex;
+        upper.ensureCapacity(length);
+        System.arraycopy(this.typeSymbols, fromIndex, upper.typeSymbols, 0, length);
+        System.arraycopy(this.startDays, fromIndex, upper.startDays, 0, length);
+        System.arraycopy(this.endDays, fromIndex, upper.endDays, 0, length);
+        System.arraycopy(this.renderedTasks, fromIndex, upper.renderedTasks, 0, length);
+        Arrays.fill(this.renderedTasks, fromIndex, this.size, null);
+        upper.completions.or(this.completions.get(fromIndex, this.size));
+        for (int i = 0; i < length; i++) {
+            int offset = this.nameOffsets[fromIndex + i];
+            int nameLength = this.nameLengths[fromIndex + i];
+            upper.nameOffsets[i] = upper.appendName(Arrays.copyOfRange(this.names, offset, offset + nameLength));
+            upper.nameLengths[i] = nameLength;
+            this.unusedNamesLength += nameLength;
+        }
+        upper.size = length;
+
+        this.completions.clear(fromIndex, this.size);
+        this.size = fromIndex;
+        this.compactNamesIfNeeded();
+        this.modCount++;
+        return upper;
+    }
+
+    /**
+     * Shrinks the columns and packed names to hold exactly the tasks in the sequence,
+     * for a sequence not expected to grow again soon.
+     */
+    void trimToSize() {
+        byte[] compactedNames = new byte[this.namesLength - this.unusedNamesLength];
+        int compactedLength = 0;
+        for (int i = 0; i < this.size; i++) {
+            System.arraycopy(this.names, this.nameOffsets[i], compactedNames, compactedLength, this.nameLengths[i]);
+            this.nameOffsets[i] = compactedLength;
+            compactedLength += this.nameLengths[i];
+        }
+        this.names = compactedNames;
+        this.namesLength = compactedLength;
+        this.unusedNamesLength = 0;
+
+        this.typeSymbols = Arrays.copyOf(this.typeSymbols, this.size);
+        this.startDays = Arrays.copyOf(this.startDays, this.size);
+        this.endDays = Arrays.copyOf(this.endDays, this.size);
+        this.nameOffsets = Arrays.copyOf(this.nameOffsets, this.size);
+        this.nameLengths = Arrays.copyOf(this.nameLengths, this.size);
+        this.renderedTasks = Arrays.copyOf(this.renderedTasks, this.size);
+    }
+
+    /**
+     * Writes the columns of a task at an index, reusing the packed name of the task it replaces if it is the same.
+     *
+     * @param index       The index to write the task at.
+     * @param task        The task to be written.
+     * @param isReplacing Whether the index holds a task being replaced, rather than a slot made for a new task.
+     */
+    private void store(int index, Task task, boolean isReplacing) {
+        byte[] nameBytes = task.getTaskName().getBytes(StandardCharsets.UTF_8);
+        if (isReplacing) {
+            int offset = this.nameOffsets[index];
+            int length = this.nameLengths[index];
+            if (Arrays.equals(this.names, offset, offset + length, nameBytes, 0, nameBytes.length)) {
+                nameBytes = null;
+            } else {
+                this.unusedNamesLength += length;
+            }
+        }
+        if (nameBytes != null) {
+            this.nameOffsets[index] = this.appendName(nameBytes);
+            this.nameLengths[index] = nameBytes.length;
+        }
+
+        this.renderedTasks[index] = null;
+        this.typeSymbols[index] = (byte) task.getTypeSymbol();
+        this.completions.set(index, task.isCompleted());
+        if (task instanceof DeadlineTask deadlineTask) {
+            this.startDays[index] = CompactTaskSequence.toEpochDay(deadlineTask.getDeadlineDate());
+            this.endDays[index] = 0;
+        } else if (task instanceof EventTask eventTask) {
+            this.startDays[index] = CompactTaskSequence.toEpochDay(eventTask.getStartDate());
+            this.endDays[index] = CompactTaskSequence.toEpochDay(eventTask.getEndDate());
+        } else {
+            this.startDays[index] = 0;
+            this.endDays[index] = 0;
+        }
+    }
+
+    /**
+     * Appends an encoded name to the packed names, growing them if needed.
+     *
+     * @param nameBytes The name encoded in UTF-8.
+     * @return The offset of the name in the packed names.
+     */
+    private int appendName(byte[] nameBytes) {
+        if (this.namesLength + nameBytes.length > this.names.length) {
+            int capacity = Math.max(this.names.length * 2, this.namesLength + nameBytes.length);
+            this.names = Arrays.copyOf(this.names, capacity);
+        }
+        int offset = this.namesLength;
+        System.arraycopy(nameBytes, 0, this.names, offset, nameBytes.length);
+        this.namesLength += nameBytes.length;
+        return offset;
+    }
+
+    /**
+     * Drops the names no longer used by any task from the packed names, once they take up half of them.
+     */
+    private void compactNamesIfNeeded() {
+        if (this.unusedNamesLength < INITIAL_NAME_CAPACITY || this.unusedNamesLength * 2 < this.namesLength) {
+            return;
+        }
+
+        byte[] compactedNames = new byte[Math.max(INITIAL_NAME_CAPACITY, this.namesLength - this.unusedNamesLength)];
+        int compactedLength = 0;
+        for (int i = 0; i < this.size; i++) {
+            System.arraycopy(this.names, this.nameOffsets[i], compactedNames, compactedLength, this.nameLengths[i]);
+            this.nameOffsets[i] = compactedLength;
+            compactedLength += this.nameLengths[i];
+        }
+        this.names = compactedNames;
+        this.namesLength = compactedLength;
+        this.unusedNamesLength = 0;
+    }
+
+    /**
+     * Moves the columns of a range of tasks to another index.
+     *
+     * @param fromIndex The index of the first task to be moved.
+     * @param toIndex   The index the first task is moved to.
+     * @param length    The number of tasks to be moved.
+     */
+    private void shiftColumns(int fromIndex, int toIndex, int length) {
+        System.arraycopy(this.typeSymbols, fromIndex, this.typeSymbols, toIndex, length);
+        System.arraycopy(this.startDays, fromIndex, this.startDays, toIndex, length);
+        System.arraycopy(this.endDays, fromIndex, this.endDays, toIndex, length);
+        System.arraycopy(this.nameOffsets, fromIndex, this.nameOffsets, toIndex, length);
+        System.arraycopy(this.nameLengths, fromIndex, this.nameLengths, toIndex, length);
+        System.arraycopy(this.renderedTasks, fromIndex, this.renderedTasks, toIndex, length);
+
+        BitSet movedCompletions = this.completions.get(fromIndex, fromIndex + length);
+        this.completions.clear(Math.min(fromIndex, toIndex), Math.max(fromIndex, toIndex) + length);
+        for (int i = movedCompletions.nextSetBit(0); i >= 0; i = movedCompletions.nextSetBit(i + 1)) {
+            this.completions.set(toIndex + i);
+        }
+    }
+
+    /**
+     * Grows the columns to hold at least the given number of tasks.
+     *
+     * @param capacity The number of tasks the columns must hold.
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= this.typeSymbols.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, this.typeSymbols.length + (this.typeSymbols.length >> 1));
+        this.typeSymbols = Arrays.copyOf(this.typeSymbols, newCapacity);
+        this.startDays = Arrays.copyOf(this.startDays, newCapacity);
+        this.endDays = Arrays.copyOf(this.endDays, newCapacity);
+        this.nameOffsets = Arrays.copyOf(this.nameOffsets, newCapacity);
+        this.nameLengths = Arrays.copyOf(this.nameLengths, newCapacity);
+        this.renderedTasks = Arrays.copyOf(this.renderedTasks, newCapacity);
+    }
+
+    /**
+     * Checks that an index is within bounds.
+     *
+     * @param index The index to check.
+     * @param bound The exclusive upper bound of the index.
+     */
+    private void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+    }
+
+    /**
+     * Returns the epoch day of a date, which fits in an integer for any date a task can have.
+     *
+     * @param date The date.
+     * @return The number of days from the epoch to the date.
+     */
+    private static int toEpochDay(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+}
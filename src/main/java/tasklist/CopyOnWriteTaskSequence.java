@@ -0,0 +1,80 @@
+package tasklist;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a sequence of tasks that shares a list of tasks with other sequences until it is first changed.
+ * The first change copies the shared tasks into a list of its own, so the shared list is never changed.
+ */
+class CopyOnWriteTaskSequence extends AbstractList<Task> {
+    private List<Task> tasks;
+    private boolean isShared;
+
+    /**
+     * Constructor for CopyOnWriteTaskSequence class.
+     *
+     * @param sharedTasks The tasks to be shared, which must not be changed by anyone.
+     */
+    CopyOnWriteTaskSequence(List<Task> sharedTasks) {
+        this.tasks = sharedTasks;
+        this.isShared = true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return this.tasks.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Task get(int index) {
+        return this.tasks.get(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Task set(int index, Task task) {
+        return this.getOwnTasks().set(index, task);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void add(int index, Task task) {
+        this.getOwnTasks().add(index, task);
+        this.modCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Task remove(int index) {
+        Task removedTask = this.getOwnTasks().remove(index);
+        this.modCount++;
+        return removedTask;
+    }
+
+    /**
+     * Returns the tasks of this sequence alone, copying the shared tasks first if they have not been copied yet.
+     *
+     * @return The list of tasks owned by this sequence.
+     */
+    private List<Task> getOwnTasks() {
+        if (this.isShared) {
+            this.tasks = new ArrayList<>(this.tasks);
+            this.isShared = false;
+        }
+        return this.tasks;
+    }
+}
@@ -1,7 +1,7 @@
 package tasklist;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.Objects;
 
 /**
  * Represents a deadline task in the task list that has a deadline by when it should be completed.
@@ -20,6 +20,10 @@ public class DeadlineTask extends Task {
         this.deadlineDate = deadlineDate;
     }
 
+    public LocalDate getDeadlineDate() {
+        return this.deadlineDate;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -28,6 +32,14 @@ public class DeadlineTask extends Task {
         return 'D';
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Task copyWithoutCompletion() {
+        return new DeadlineTask(this.getTaskName(), this.deadlineDate);
+    }
+
     /**
      * Returns neatly formatted deadline date of the deadline task.
      *
@@ -35,7 +47,7 @@ public class DeadlineTask extends Task {
      */
     @Override
     public String getAdditionalInfo() {
-        return String.format("by: %s", this.deadlineDate.format(DateTimeFormatter.ofPattern("MMM d yyyy")));
+        return "by: " + Task.DISPLAY_DATE_FORMATTER.format(this.deadlineDate);
     }
 
     /**
@@ -56,4 +68,14 @@ public class DeadlineTask extends Task {
         return this.getTaskName().equals(other.getTaskName())
                 && this.deadlineDate.equals(other.deadlineDate);
     }
+
+    /**
+     * Returns a hash code of the deadline task, consistent with its equality to other tasks.
+     *
+     * @return A hash code of the task name and deadline date.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.getTaskName(), this.deadlineDate);
+    }
 }
@@ -1,7 +1,7 @@
 package tasklist;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.Objects;
 
 /**
  * Represents an event task in the task list that has a start date and an end date.
@@ -23,6 +23,14 @@ public class EventTask extends Task {
         this.endDate = endDate;
     }
 
+    public LocalDate getStartDate() {
+        return this.startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return this.endDate;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -31,6 +39,14 @@ public class EventTask extends Task {
         return 'E';
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Task copyWithoutCompletion() {
+        return new EventTask(this.getTaskName(), this.startDate, this.endDate);
+    }
+
 
     /**
      * Returns neatly formatted start date and end date of the event task.
@@ -39,10 +55,8 @@ public class EventTask extends Task {
      */
     @Override
     public String getAdditionalInfo() {
-        return String.format("from: %s to: %s",
-                this.startDate.format(DateTimeFormatter.ofPattern("MMM d yyyy")),
-                this.endDate.format(DateTimeFormatter.ofPattern("MMM d yyyy"))
-        );
+        return "from: " + Task.DISPLAY_DATE_FORMATTER.format(this.startDate)
+                + " to: " + Task.DISPLAY_DATE_FORMATTER.format(this.endDate);
     }
 
     /**
@@ -64,4 +78,14 @@ public class EventTask extends Task {
                 && this.startDate.equals(other.startDate)
                 && this.endDate.equals(other.endDate);
     }
+
+    /**
+     * Returns a hash code of the event task, consistent with its equality to other tasks.
+     *
+     * @return A hash code of the task name, start date and end date.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.getTaskName(), this.startDate, this.endDate);
+    }
 }
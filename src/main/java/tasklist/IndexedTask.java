@@ -0,0 +1,31 @@
+package tasklist;
+
+/**
+ * Represents a task held by an index of the tasks in a task list, equal to another only if their completion
+ * is also the same, as tasks are otherwise equal regardless of their completion.
+ *
+ * @param task The task.
+ */
+record IndexedTask(Task task) {
+    /**
+     * Checks if the indexed task is equal to another object.
+     *
+     * @param obj The object to compare with.
+     * @return True if the tasks are equal and have the same completion, false otherwise.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof IndexedTask other
+                && this.task.equals(other.task) && this.task.isCompleted() == other.task.isCompleted();
+    }
+
+    /**
+     * Returns a hash code of the indexed task, consistent with its equality to other indexed tasks.
+     *
+     * @return A hash code of the task and its completion.
+     */
+    @Override
+    public int hashCode() {
+        return this.task.hashCode() * 31 + (this.task.isCompleted() ? 1 : 0);
+    }
+}
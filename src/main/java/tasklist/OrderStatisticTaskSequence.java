@@ -0,0 +1,362 @@
+package tasklist;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Represents a sequence of tasks held in chunks of compact columns, kept in order by a treap that counts the tasks
+ * under each node, so that reading, adding and deleting a task by its position takes logarithmic time.
+ * Adding a task to a full chunk splits it in two, and deleting the last task of a chunk drops it.
+ *
+ * <p>Chunks left mostly empty by deletes are repacked all at once when there are several times more chunks
+ * than the tasks need, which takes time in proportion to the deletes that led to it.
+ */
+class OrderStatisticTaskSequence extends AbstractList<Task> {
+    /**
+     * The number of tasks a chunk holds before it is split.
+     */
+    static final int MAX_CHUNK_SIZE = 512;
+    /**
+     * The number of times more chunks than needed that are allowed before they are repacked.
+     */
+    private static final int MAX_CHUNK_SLACK = 4;
+
+    private Node root;
+    private int chunkCount;
+
+    /**
+     * Constructor for OrderStatisticTaskSequence class.
+     */
+    OrderStatisticTaskSequence() {
+        this.root = null;
+        this.chunkCount = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return OrderStatisticTaskSequence.getSize(this.root);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Task get(int index) {
+        this.checkIndex(index, this.size());
+        Node node = this.root;
+        while (true) {
+            int leftSize = OrderStatisticTaskSequence.getSize(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index - leftSize < node.chunk.size()) {
+                return node.chunk.get(index - leftSize);
+            } else {
+                index -= leftSize + node.chunk.size();
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Returns the string the task at the given index is rendered as, which its chunk keeps until the task changes.
+     *
+     * @param index The index of the task.
+     * @return The string representation of the task.
+     */
+    String render(int index) {
+        this.checkIndex(index, this.size());
+        Node node = this.root;
+        while (true) {
+            int leftSize = OrderStatisticTaskSequence.getSize(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index - leftSize < node.chunk.size()) {
+                return node.chunk.render(index - leftSize);
+            } else {
+                index -= leftSize + node.chunk.size();
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Task set(int index, Task task) {
+        this.checkIndex(index, this.size());
+        Node node = this.root;
+        while (true) {
+            int leftSize = OrderStatisticTaskSequence.getSize(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index - leftSize < node.chunk.size()) {
+                return node.chunk.set(index - leftSize, task);
+            } else {
+                index -= leftSize + node.chunk.size();
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void add(int index, Task task) {
+        this.checkIndex(index, this.size() + 1);
+        if (this.root == null) {
+            this.root = this.createNode(new CompactTaskSequence());
+        }
+        this.root = this.insert(this.root, index, task);
+        this.modCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Task remove(int index) {
+        this.checkIndex(index, this.size());
+        Task[] removedTask = new Task[1];
+        this.root = this.delete(this.root, index, removedTask);
+        if ((long) this.chunkCount * MAX_CHUNK_SIZE > (long) MAX_CHUNK_SLACK * (this.size() + MAX_CHUNK_SIZE)) {
+            this.repack();
+        }
+        this.modCount++;
+        return removedTask[0];
+    }
+
+    /**
+     * Adds a task at a position within a subtree.
+     * A task added at the end of a full chunk starts a chunk of its own, while a task added within a full chunk
+     * splits it in half, so that tasks added in order fill every chunk.
+     *
+     * @param node  The root of the subtree.
+     * @param index The position within the subtree to add the task at.
+     * @param task  The task to be added.
+     * @return The root of the subtree after the task is added.
+     */
+    private Node insert(Node node, int index, Task task) {
+        int leftSize = OrderStatisticTaskSequence.getSize(node.left);
+        int chunkIdx = index - leftSize;
+        if (node.left != null && index <= leftSize) {
+            node.left = this.insert(node.left, index, task);
+        } else if (chunkIdx <= node.chunk.size()) {
+            if (node.chunk.size() < MAX_CHUNK_SIZE) {
+                node.chunk.add(chunkIdx, task);
+            } else if (chunkIdx == node.chunk.size()) {
+                node.chunk.trimToSize();
+                CompactTaskSequence nextChunk = new CompactTaskSequence();
+                nextChunk.add(task);
+                node.right = this.insertFirst(node.right, this.createNode(nextChunk));
+            } else {
+                node.chunk.add(chunkIdx, task);
+                node.right = this.insertFirst(node.right, this.createNode(node.chunk.splitOff(MAX_CHUNK_SIZE / 2)));
+            }
+        } else {
+            node.right = this.insert(node.right, chunkIdx - node.chunk.size(), task);
+        }
+        return OrderStatisticTaskSequence.rebalance(node);
+    }
+
+    /**
+     * Adds a node before every other node in a subtree.
+     *
+     * @param node    The root of the subtree, or null if it is empty.
+     * @param newNode The node to be added.
+     * @return The root of the subtree after the node is added.
+     */
+    private Node insertFirst(Node node, Node newNode) {
+        if (node == null) {
+            return newNode;
+        }
+        node.left = this.insertFirst(node.left, newNode);
+        return OrderStatisticTaskSequence.rebalance(node);
+    }
+
+    /**
+     * Deletes the task at a position within a subtree, dropping its chunk if it is left empty.
+     *
+     * @param node        The root of the subtree.
+     * @param index       The position within the subtree of the task to be deleted.
+     * @param removedTask The array to hold the task deleted.
+     * @return The root of the subtree after the task is deleted, or null if it is left empty.
+     */
+    private Node delete(Node node, int index, Task[] removedTask) {
+        int leftSize = OrderStatisticTaskSequence.getSize(node.left);
+        int chunkIdx = index - leftSize;
+        if (index < leftSize) {
+            node.left = this.delete(node.left, index, removedTask);
+        } else if (chunkIdx < node.chunk.size()) {
+            removedTask[0] = node.chunk.remove(chunkIdx);
+            if (node.chunk.isEmpty()) {
+                this.chunkCount--;
+                return OrderStatisticTaskSequence.merge(node.left, node.right);
+            }
+        } else {
+            node.right = this.delete(node.right, chunkIdx - node.chunk.size(), removedTask);
+        }
+        node.update();
+        return node;
+    }
+
+    /**
+     * Repacks the tasks into full chunks, and rebuilds the tree over them.
+     */
+    private void repack() {
+        List<CompactTaskSequence> chunks = new ArrayList<>();
+        OrderStatisticTaskSequence.collectChunks(this.root, chunks);
+        this.root = null;
+        this.chunkCount = 0;
+
+        CompactTaskSequence packedChunk = new CompactTaskSequence();
+        for (CompactTaskSequence chunk : chunks) {
+            for (Task task : chunk) {
+                if (packedChunk.size() == MAX_CHUNK_SIZE) {
+                    packedChunk.trimToSize();
+                    this.root = OrderStatisticTaskSequence.merge(this.root, this.createNode(packedChunk));
+                    packedChunk = new CompactTaskSequence();
+                }
+                packedChunk.add(task);
+            }
+        }
+        if (!packedChunk.isEmpty()) {
+            this.root = OrderStatisticTaskSequence.merge(this.root, this.createNode(packedChunk));
+        }
+    }
+
+    /**
+     * Creates a tree node holding a chunk, with a random priority.
+     *
+     * @param chunk The chunk of tasks.
+     * @return The new node.
+     */
+    private Node createNode(CompactTaskSequence chunk) {
+        this.chunkCount++;
+        return new Node(chunk, ThreadLocalRandom.current().nextInt());
+    }
+
+    /**
+     * Checks that an index is within bounds.
+     *
+     * @param index The index to check.
+     * @param bound The exclusive upper bound of the index.
+     */
+    private void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size());
+        }
+    }
+
+    /**
+     * Returns the number of tasks in a subtree.
+     *
+     * @param node The root of the subtree, or null if it is empty.
+     * @return The number of tasks.
+     */
+    private static int getSize(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Rotates a node below a child with a higher priority, if it has one, and updates its count of tasks.
+     * Only one child can have a higher priority, as only one subtree changes at a time.
+     *
+     * @param node The node.
+     * @return The node now at the root of the subtree.
+     */
+    private static Node rebalance(Node node) {
+        if (node.left != null && node.left.priority > node.priority) {
+            Node left = node.left;
+            node.left = left.right;
+            node.update();
+            left.right = node;
+            left.update();
+            return left;
+        } else if (node.right != null && node.right.priority > node.priority) {
+            Node right = node.right;
+            node.right = right.left;
+            node.update();
+            right.left = node;
+            right.update();
+            return right;
+        }
+        node.update();
+        return node;
+    }
+
+    /**
+     * Joins two subtrees, with every task of the first before every task of the second.
+     *
+     * @param first  The root of the first subtree, or null if it is empty.
+     * @param second The root of the second subtree, or null if it is empty.
+     * @return The root of the joined subtree.
+     */
+    private static Node merge(Node first, Node second) {
+        if (first == null) {
+            return second;
+        } else if (second == null) {
+            return first;
+        } else if (first.priority > second.priority) {
+            first.right = OrderStatisticTaskSequence.merge(first.right, second);
+            first.update();
+            return first;
+        } else {
+            second.left = OrderStatisticTaskSequence.merge(first, second.left);
+            second.update();
+            return second;
+        }
+    }
+
+    /**
+     * Collects the chunks of a subtree in order.
+     *
+     * @param node   The root of the subtree, or null if it is empty.
+     * @param chunks The list to add the chunks to.
+     */
+    private static void collectChunks(Node node, List<CompactTaskSequence> chunks) {
+        if (node == null) {
+            return;
+        }
+        OrderStatisticTaskSequence.collectChunks(node.left, chunks);
+        chunks.add(node.chunk);
+        OrderStatisticTaskSequence.collectChunks(node.right, chunks);
+    }
+
+    /**
+     * Represents a node of the tree, holding a chunk of tasks and the number of tasks in its subtree.
+     */
+    private static final class Node {
+        private final CompactTaskSequence chunk;
+        private final int priority;
+        private int size;
+        private Node left;
+        private Node right;
+
+        /**
+         * Constructor for Node class.
+         *
+         * @param chunk    The chunk of tasks.
+         * @param priority The priority of the node, which must be higher than that of its children.
+         */
+        private Node(CompactTaskSequence chunk, int priority) {
+            this.chunk = chunk;
+            this.priority = priority;
+            this.size = chunk.size();
+        }
+
+        /**
+         * Recounts the tasks in the subtree of the node from its chunk and children.
+         */
+        private void update() {
+            this.size = OrderStatisticTaskSequence.getSize(this.left) + this.chunk.size()
+                    + OrderStatisticTaskSequence.getSize(this.right);
+        }
+    }
+}
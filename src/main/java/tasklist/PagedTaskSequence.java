@@ -0,0 +1,293 @@
+package tasklist;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a sequence of tasks read lazily from a task source, one fixed-size page at a time.
+ * Only a bounded number of recently used pages are kept decoded, so memory use does not grow with the source.
+ * Changes are kept apart from the source: tasks added are appended after it, deleted tasks are skipped over,
+ * and tasks replaced by {@link #set(int, Task)} are kept until they are deleted. A task inserted where a task was
+ * deleted, such as to put the deleted task back, takes over its position. A task inserted anywhere else before
+ * the end reads every task into memory, after which the sequence holds them all as a plain list.
+ */
+class PagedTaskSequence extends AbstractList<Task> {
+    /**
+     * The default number of tasks decoded together as a page.
+     */
+    static final int DEFAULT_PAGE_SIZE = 1024;
+    /**
+     * The default number of decoded pages kept in memory.
+     */
+    static final int DEFAULT_MAX_CACHED_PAGES = 64;
+
+    private final TaskSource source;
+    private final int sourceLength;
+    private final int pageSize;
+    private final int maxCachedPages;
+    /**
+     * Recently used pages of decoded tasks by page number, ordered from least to most recently used.
+     */
+    private final LinkedHashMap<Integer, Task[]> cachedPages;
+    /**
+     * Tasks replaced since being read from the source, by their position in the source.
+     */
+    private final Map<Integer, Task> replacedTasks;
+    /**
+     * Tasks added after the tasks in the source.
+     */
+    private final List<Task> appendedTasks;
+    /**
+     * Sorted positions of deleted tasks, counting the source followed by the appended tasks.
+     */
+    private int[] deletedPositions;
+    private int deletedCount;
+    /**
+     * Every task in the sequence, once a task has been inserted where none was deleted, or null until then.
+     */
+    private List<Task> materializedTasks;
+
+    /**
+     * Constructor for PagedTaskSequence class.
+     *
+     * @param source         The source to read tasks from.
+     * @param pageSize       The number of tasks decoded together as a page.
+     * @param maxCachedPages The number of decoded pages kept in memory.
+     */
+    PagedTaskSequence(TaskSource source, int pageSize, int maxCachedPages) {
+        assert pageSize > 0 && maxCachedPages > 0 : "Page size and number of cached pages must be positive.";
+        this.source = source;
+        this.sourceLength = source.getLength();
+        this.pageSize = pageSize;
+        this.maxCachedPages = maxCachedPages;
+        this.cachedPages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Task[]> eldest) {
+                return this.size() > maxCachedPages;
+            }
+        };
+        this.replacedTasks = new HashMap<>();
+        this.appendedTasks = new ArrayList<>();
+        this.deletedPositions = new int[0];
+        this.deletedCount = 0;
+        this.materializedTasks = null;
+    }
+
+    /**
+     * Returns a sequence holding the same tasks, which shares the source but copies the changes kept apart from it,
+     * and decodes pages of its own. Either sequence can be changed afterwards without changing the other, and
+     * sequences forked from one that is no longer changed can be read by different threads.
+     *
+     * @return The new sequence.
+     */
+    PagedTaskSequence fork() {
+        PagedTaskSequence fork = new PagedTaskSequence(this.source, this.pageSize, this.maxCachedPages);
+        if (this.materializedTasks != null) {
+            fork.materializedTasks = new ArrayList<>(this.materializedTasks);
+            return fork;
+        }
+        fork.replacedTasks.putAll(this.replacedTasks);
+        fork.appendedTasks.addAll(this.appendedTasks);
+        fork.deletedPositions = Arrays.copyOf(this.deletedPositions, this.deletedCount);
+        fork.deletedCount = this.deletedCount;
+        return fork;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        if (this.materializedTasks != null) {
+            return this.materializedTasks.size();
+        }
+        return this.sourceLength + this.appendedTasks.size() - this.deletedCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Task get(int index) {
+        if (this.materializedTasks != null) {
+            return this.materializedTasks.get(index);
+        }
+        return this.getAtPosition(this.toPosition(index));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Task set(int index, Task task) {
+        if (this.materializedTasks != null) {
+            return this.materializedTasks.set(index, task);
+        }
+        int position = this.toPosition(index);
+        Task previousTask = this.getAtPosition(position);
+        if (position >= this.sourceLength) {
+            this.appendedTasks.set(position - this.sourceLength, task);
+        } else {
+            this.replacedTasks.put(position, task);
+        }
+        return previousTask;
+    }
+
+    /**
+     * Adds a task to the sequence, in place of a deleted task if one was deleted from the same index.
+     *
+     * @param index The index to add the task at.
+     * @param task  The task to be added.
+     */
+    @Override
+    public void add(int index, Task task) {
+        if (this.materializedTasks != null) {
+            this.materializedTasks.add(index, task);
+            this.modCount++;
+            return;
+        } else if (index < 0 || index > this.size()) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", index, this.size()));
+        } else if (index == this.size()) {
+            this.appendedTasks.add(task);
+            this.modCount++;
+            return;
+        }
+
+        // The deleted positions that would be at the index if restored are those with index tasks before them,
+        // knowing that deletedPositions[i] - i is the number of remaining tasks before the i-th deleted position.
+        int low = 0;
+        int high = this.deletedCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.deletedPositions[mid] - mid < index) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (low == this.deletedCount || this.deletedPositions[low] - low != index) {
+            this.materialize();
+            this.add(index, task);
+            return;
+        }
+
+        int position = this.deletedPositions[low];
+        System.arraycopy(this.deletedPositions, low + 1, this.deletedPositions, low, this.deletedCount - low - 1);
+        this.deletedCount--;
+        if (position >= this.sourceLength) {
+            this.appendedTasks.set(position - this.sourceLength, task);
+        } else {
+            this.replacedTasks.put(position, task);
+        }
+        this.modCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Task remove(int index) {
+        if (this.materializedTasks != null) {
+            this.modCount++;
+            return this.materializedTasks.remove(index);
+        }
+        int position = this.toPosition(index);
+        Task removedTask = this.getAtPosition(position);
+        this.replacedTasks.remove(position);
+
+        if (this.deletedCount == this.deletedPositions.length) {
+            this.deletedPositions = Arrays.copyOf(this.deletedPositions, Math.max(8, this.deletedCount * 2));
+        }
+        int insertionIdx = -Arrays.binarySearch(this.deletedPositions, 0, this.deletedCount, position) - 1;
+        System.arraycopy(this.deletedPositions, insertionIdx,
+                this.deletedPositions, insertionIdx + 1, this.deletedCount - insertionIdx);
+        this.deletedPositions[insertionIdx] = position;
+        this.deletedCount++;
+        this.modCount++;
+        return removedTask;
+    }
+
+    /**
+     * Reads every task into a plain list, and drops the pages and changes kept apart from the source.
+     */
+    private void materialize() {
+        List<Task> tasks = new ArrayList<>(this.size());
+        for (int i = 0; i < this.size(); i++) {
+            tasks.add(this.get(i));
+        }
+        this.cachedPages.clear();
+        this.replacedTasks.clear();
+        this.appendedTasks.clear();
+        this.deletedPositions = new int[0];
+        this.deletedCount = 0;
+        this.materializedTasks = tasks;
+    }
+
+    /**
+     * Converts an index in the sequence to the position of the task among the source and appended tasks,
+     * by skipping over the positions of deleted tasks.
+     *
+     * @param index The index in the sequence.
+     * @return The position of the task.
+     */
+    private int toPosition(int index) {
+        if (index < 0 || index >= this.size()) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d", index, this.size()));
+        }
+
+        // Find how many deleted positions come before the task, knowing that deletedPositions[i] - i
+        // is the number of remaining tasks before the i-th deleted position.
+        int low = 0;
+        int high = this.deletedCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.deletedPositions[mid] - mid <= index) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return index + low;
+    }
+
+    /**
+     * Returns the task at a position among the source and appended tasks, decoding its page if needed.
+     *
+     * @param position The position of the task.
+     * @return The task.
+     */
+    private Task getAtPosition(int position) {
+        if (position >= this.sourceLength) {
+            return this.appendedTasks.get(position - this.sourceLength);
+        }
+        Task replacedTask = this.replacedTasks.get(position);
+        if (replacedTask != null) {
+            return replacedTask;
+        }
+
+        Task[] page = this.cachedPages.computeIfAbsent(position / this.pageSize, this::decodePage);
+        return page[position % this.pageSize];
+    }
+
+    /**
+     * Decodes a page of tasks from the source.
+     *
+     * @param pageNumber The number of the page.
+     * @return The decoded tasks of the page.
+     */
+    private Task[] decodePage(int pageNumber) {
+        int pageStart = pageNumber * this.pageSize;
+        Task[] page = new Task[Math.min(this.pageSize, this.sourceLength - pageStart)];
+        for (int i = 0; i < page.length; i++) {
+            page[i] = this.source.getTask(pageStart + i);
+        }
+        return page;
+    }
+}
@@ -0,0 +1,318 @@
+package tasklist;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Represents a sequence of tasks held in an immutable tree, so that a snapshot of it can be taken in constant time.
+ * The tree is a treap of nodes holding small chunks of tasks and the number of tasks under them, as in
+ * {@link OrderStatisticTaskSequence}, but nodes are never changed once created. Each change instead copies the
+ * nodes on the path to the task changed, sharing every other node with the versions before it.
+ *
+ * <p>Reading, adding and deleting a task by its position takes logarithmic time, and creates a logarithmic number
+ * of nodes plus one chunk of at most {@link #MAX_CHUNK_SIZE} tasks. Chunks left partly empty by deletes are kept
+ * rather than repacked, as repacking would copy nodes shared with other versions.
+ */
+class PersistentTaskSequence extends AbstractList<Task> {
+    /**
+     * The number of tasks a chunk holds before it is split.
+     */
+    static final int MAX_CHUNK_SIZE = 32;
+
+    private Node root;
+
+    /**
+     * Constructor for PersistentTaskSequence class.
+     */
+    PersistentTaskSequence() {
+        this(null);
+    }
+
+    /**
+     * Constructor for PersistentTaskSequence class, holding the version of the tasks under a node.
+     *
+     * @param root The root of the tree holding the tasks, or null if there are none.
+     */
+    private PersistentTaskSequence(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns a sequence holding the tasks as they are now, sharing every node with this sequence.
+     * Either sequence can be changed afterwards without changing the other.
+     *
+     * @return The new sequence.
+     */
+    PersistentTaskSequence snapshot() {
+        return new PersistentTaskSequence(this.root);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return PersistentTaskSequence.getSize(this.root);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Task get(int index) {
+        this.checkIndex(index, this.size());
+        Node node = this.root;
+        while (true) {
+            int leftSize = PersistentTaskSequence.getSize(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index - leftSize < node.chunk.length) {
+                return node.chunk[index - leftSize];
+            } else {
+                index -= leftSize + node.chunk.length;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Task set(int index, Task task) {
+        Task previousTask = this.get(index);
+        this.root = PersistentTaskSequence.replace(this.root, index, task);
+        return previousTask;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void add(int index, Task task) {
+        this.checkIndex(index, this.size() + 1);
+        if (this.root == null) {
+            this.root = PersistentTaskSequence.createNode(new Task[] {task});
+        } else {
+            this.root = PersistentTaskSequence.insert(this.root, index, task);
+        }
+        this.modCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Task remove(int index) {
+        Task removedTask = this.get(index);
+        this.root = PersistentTaskSequence.delete(this.root, index);
+        this.modCount++;
+        return removedTask;
+    }
+
+    /**
+     * Checks that an index is within bounds.
+     *
+     * @param index The index to check.
+     * @param bound The exclusive upper bound of the index.
+     */
+    private void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size());
+        }
+    }
+
+    /**
+     * Returns a copy of a subtree with the task at a position replaced.
+     *
+     * @param node  The root of the subtree.
+     * @param index The position within the subtree of the task to be replaced.
+     * @param task  The task to put in its place.
+     * @return The root of the new subtree.
+     */
+    private static Node replace(Node node, int index, Task task) {
+        int leftSize = PersistentTaskSequence.getSize(node.left);
+        int chunkIdx = index - leftSize;
+        if (index < leftSize) {
+            return node.withChildren(PersistentTaskSequence.replace(node.left, index, task), node.right);
+        } else if (chunkIdx < node.chunk.length) {
+            Task[] chunk = node.chunk.clone();
+            chunk[chunkIdx] = task;
+            return new Node(chunk, node.priority, node.left, node.right);
+        } else {
+            return node.withChildren(node.left,
+                    PersistentTaskSequence.replace(node.right, chunkIdx - node.chunk.length, task));
+        }
+    }
+
+    /**
+     * Returns a copy of a subtree with a task added at a position.
+     * A task added at the end of a full chunk starts a chunk of its own, while a task added within a full chunk
+     * splits it in half, so that tasks added in order fill every chunk.
+     *
+     * @param node  The root of the subtree.
+     * @param index The position within the subtree to add the task at.
+     * @param task  The task to be added.
+     * @return The root of the new subtree.
+     */
+    private static Node insert(Node node, int index, Task task) {
+        int leftSize = PersistentTaskSequence.getSize(node.left);
+        int chunkIdx = index - leftSize;
+        if (node.left != null && index <= leftSize) {
+            return PersistentTaskSequence.rebalance(
+                    node.withChildren(PersistentTaskSequence.insert(node.left, index, task), node.right));
+        } else if (chunkIdx > node.chunk.length) {
+            return PersistentTaskSequence.rebalance(node.withChildren(node.left,
+                    PersistentTaskSequence.insert(node.right, chunkIdx - node.chunk.length, task)));
+        }
+
+        Task[] chunk = new Task[node.chunk.length + 1];
+        System.arraycopy(node.chunk, 0, chunk, 0, chunkIdx);
+        chunk[chunkIdx] = task;
+        System.arraycopy(node.chunk, chunkIdx, chunk, chunkIdx + 1, node.chunk.length - chunkIdx);
+        if (node.chunk.length < MAX_CHUNK_SIZE) {
+            return new Node(chunk, node.priority, node.left, node.right);
+        }
+
+        int splitIdx = chunkIdx == node.chunk.length ? node.chunk.length : chunk.length / 2;
+        Node nextNode = PersistentTaskSequence.createNode(Arrays.copyOfRange(chunk, splitIdx, chunk.length));
+        return PersistentTaskSequence.rebalance(new Node(Arrays.copyOf(chunk, splitIdx), node.priority,
+                node.left, PersistentTaskSequence.insertFirst(node.right, nextNode)));
+    }
+
+    /**
+     * Returns a copy of a subtree with a node added before every other node.
+     *
+     * @param node    The root of the subtree, or null if it is empty.
+     * @param newNode The node to be added.
+     * @return The root of the new subtree.
+     */
+    private static Node insertFirst(Node node, Node newNode) {
+        if (node == null) {
+            return newNode;
+        }
+        return PersistentTaskSequence.rebalance(
+                node.withChildren(PersistentTaskSequence.insertFirst(node.left, newNode), node.right));
+    }
+
+    /**
+     * Returns a copy of a subtree with the task at a position deleted, dropping its chunk if it is left empty.
+     *
+     * @param node  The root of the subtree.
+     * @param index The position within the subtree of the task to be deleted.
+     * @return The root of the new subtree, or null if it is left empty.
+     */
+    private static Node delete(Node node, int index) {
+        int leftSize = PersistentTaskSequence.getSize(node.left);
+        int chunkIdx = index - leftSize;
+        if (index < leftSize) {
+            return node.withChildren(PersistentTaskSequence.delete(node.left, index), node.right);
+        } else if (chunkIdx >= node.chunk.length) {
+            return node.withChildren(node.left,
+                    PersistentTaskSequence.delete(node.right, chunkIdx - node.chunk.length));
+        } else if (node.chunk.length == 1) {
+            return PersistentTaskSequence.merge(node.left, node.right);
+        }
+
+        Task[] chunk = new Task[node.chunk.length - 1];
+        System.arraycopy(node.chunk, 0, chunk, 0, chunkIdx);
+        System.arraycopy(node.chunk, chunkIdx + 1, chunk, chunkIdx, chunk.length - chunkIdx);
+        return new Node(chunk, node.priority, node.left, node.right);
+    }
+
+    /**
+     * Returns a subtree joining two subtrees, with every task of the first before every task of the second.
+     *
+     * @param first  The root of the first subtree, or null if it is empty.
+     * @param second The root of the second subtree, or null if it is empty.
+     * @return The root of the joined subtree.
+     */
+    private static Node merge(Node first, Node second) {
+        if (first == null) {
+            return second;
+        } else if (second == null) {
+            return first;
+        } else if (first.priority > second.priority) {
+            return first.withChildren(first.left, PersistentTaskSequence.merge(first.right, second));
+        } else {
+            return second.withChildren(PersistentTaskSequence.merge(first, second.left), second.right);
+        }
+    }
+
+    /**
+     * Returns a node rotated below a child with a higher priority, if it has one.
+     * Only one child can have a higher priority, as only one subtree changes at a time.
+     *
+     * @param node The node.
+     * @return The node now at the root of the subtree.
+     */
+    private static Node rebalance(Node node) {
+        if (node.left != null && node.left.priority > node.priority) {
+            Node left = node.left;
+            return left.withChildren(left.left, node.withChildren(left.right, node.right));
+        } else if (node.right != null && node.right.priority > node.priority) {
+            Node right = node.right;
+            return right.withChildren(node.withChildren(node.left, right.left), right.right);
+        }
+        return node;
+    }
+
+    /**
+     * Creates a tree node with no children holding a chunk, with a random priority.
+     *
+     * @param chunk The chunk of tasks.
+     * @return The new node.
+     */
+    private static Node createNode(Task[] chunk) {
+        return new Node(chunk, ThreadLocalRandom.current().nextInt(), null, null);
+    }
+
+    /**
+     * Returns the number of tasks in a subtree.
+     *
+     * @param node The root of the subtree, or null if it is empty.
+     * @return The number of tasks.
+     */
+    private static int getSize(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Represents an immutable node of the tree, holding a chunk of tasks and the number of tasks in its subtree.
+     */
+    private static final class Node {
+        private final Task[] chunk;
+        private final int priority;
+        private final int size;
+        private final Node left;
+        private final Node right;
+
+        /**
+         * Constructor for Node class.
+         *
+         * @param chunk    The chunk of tasks, which must not be changed afterwards.
+         * @param priority The priority of the node, which must be higher than that of its children.
+         * @param left     The left child, or null if there is none.
+         * @param right    The right child, or null if there is none.
+         */
+        private Node(Task[] chunk, int priority, Node left, Node right) {
+            this.chunk = chunk;
+            this.priority = priority;
+            this.size = PersistentTaskSequence.getSize(left) + chunk.length + PersistentTaskSequence.getSize(right);
+            this.left = left;
+            this.right = right;
+        }
+
+        /**
+         * Returns a copy of the node with other children, sharing its chunk.
+         *
+         * @param left  The left child of the copy, or null if there is none.
+         * @param right The right child of the copy, or null if there is none.
+         * @return The copy of the node.
+         */
+        private Node withChildren(Node left, Node right) {
+            return new Node(this.chunk, this.priority, left, right);
+        }
+    }
+}
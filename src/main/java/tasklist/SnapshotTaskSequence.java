@@ -0,0 +1,107 @@
+package tasklist;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Represents a sequence of tasks that can be read by any number of threads while it is changed.
+ * The tasks are held in an array that is never changed once published. Each change copies the array, applies
+ * the change to the copy and publishes it through an atomic reference, so readers never take a lock and
+ * always see every task of one version of the sequence.
+ *
+ * <p>Changes are serialized against each other and take time in proportion to the number of tasks,
+ * which suits task lists read far more often than they are changed.
+ */
+class SnapshotTaskSequence extends AbstractList<Task> {
+    private final AtomicReference<Task[]> tasks;
+
+    /**
+     * Constructor for SnapshotTaskSequence class.
+     */
+    SnapshotTaskSequence() {
+        this.tasks = new AtomicReference<>(new Task[0]);
+    }
+
+    /**
+     * Returns the tasks as they are now, which are not changed by later changes to the sequence.
+     *
+     * @return The unmodifiable list of tasks.
+     */
+    List<Task> snapshot() {
+        return Collections.unmodifiableList(Arrays.asList(this.tasks.get()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return this.tasks.get().length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Task get(int index) {
+        return this.tasks.get()[index];
+    }
+
+    /**
+     * Returns an iterator over the tasks as they are when it is created, which never fails on later changes.
+     *
+     * @return The iterator over the tasks.
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return this.snapshot().iterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized Task set(int index, Task task) {
+        Task[] newTasks = this.tasks.get().clone();
+        Task previousTask = newTasks[index];
+        newTasks[index] = task;
+        this.tasks.set(newTasks);
+        return previousTask;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void add(int index, Task task) {
+        Task[] previousTasks = this.tasks.get();
+        if (index < 0 || index > previousTasks.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + previousTasks.length);
+        }
+        Task[] newTasks = new Task[previousTasks.length + 1];
+        System.arraycopy(previousTasks, 0, newTasks, 0, index);
+        newTasks[index] = task;
+        System.arraycopy(previousTasks, index, newTasks, index + 1, previousTasks.length - index);
+        this.tasks.set(newTasks);
+        this.modCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized Task remove(int index) {
+        Task[] previousTasks = this.tasks.get();
+        Task removedTask = previousTasks[index];
+        Task[] newTasks = new Task[previousTasks.length - 1];
+        System.arraycopy(previousTasks, 0, newTasks, 0, index);
+        System.arraycopy(previousTasks, index + 1, newTasks, index, previousTasks.length - index - 1);
+        this.tasks.set(newTasks);
+        this.modCount++;
+        return removedTask;
+    }
+}
@@ -1,13 +1,27 @@
 package tasklist;
 
 import java.io.Serializable;
+import java.time.format.DateTimeFormatter;
 
 /**
  * Represents a task in the task list.
+ *
+ * <p>A task renders itself once and keeps the string until its completion changes, as every other field is final.
+ * Tasks are rendered far more often than they are changed, so listing tasks again reuses the same strings.
  */
 public abstract class Task implements Serializable {
+    /**
+     * Formatter of the dates shown in rendered tasks, compiled once as formatters are immutable and thread-safe.
+     */
+    static final DateTimeFormatter DISPLAY_DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM d yyyy");
+
     private final String taskName;
     private boolean isCompleted;
+    /**
+     * The string the task was last rendered as, or null if it must be rendered again.
+     * Strings are immutable, so a thread seeing another thread's string without synchronization sees it whole.
+     */
+    private transient String renderedString;
 
     /**
      * Constructor for Task class.
@@ -32,6 +46,7 @@ public abstract class Task implements Serializable {
      */
     public void setComplete() {
         this.isCompleted = true;
+        this.renderedString = null;
     }
 
     /**
@@ -39,8 +54,27 @@ public abstract class Task implements Serializable {
      */
     public void setIncomplete() {
         this.isCompleted = false;
+        this.renderedString = null;
+    }
+
+    /**
+     * Returns a copy of the task, including its completion.
+     *
+     * @return A new task equal to this one.
+     */
+    public final Task copy() {
+        Task copy = this.copyWithoutCompletion();
+        copy.isCompleted = this.isCompleted;
+        return copy;
     }
 
+    /**
+     * Returns a new, incomplete task with the same name and additional fields as this one.
+     *
+     * @return A new task equal to this one, apart from its completion.
+     */
+    abstract Task copyWithoutCompletion();
+
     /**
      * Returns a string symbol representing the task's current completion.
      *
@@ -58,9 +92,11 @@ public abstract class Task implements Serializable {
     abstract String getAdditionalInfo();
 
     /**
-     * {@inheritDoc}
+     * Returns a character symbol representing the type of the task.
+     *
+     * @return A character symbol representing the type of the task.
      */
-    abstract char getTypeSymbol();
+    public abstract char getTypeSymbol();
 
     /**
      * Check if the task is equal to another object.
@@ -72,17 +108,42 @@ public abstract class Task implements Serializable {
     public abstract boolean equals(Object obj);
 
     /**
-     * Returns a formatted string of the task, including the type, completion, name and additional information
+     * Returns a hash code of the task, which must be the same for tasks that are equal.
+     *
+     * @return A hash code of the task.
+     */
+    @Override
+    public abstract int hashCode();
+
+    /**
+     * Returns a formatted string of the task, including the type, completion, name and additional information.
+     * The string is rendered on the first call and reused until the completion of the task changes.
      *
      * @return A string representation of the task.
      */
     @Override
     public final String toString() {
-        String string = String.format("[%s][%s] %s",
-                this.getTypeSymbol(), this.getCompletedSymbol(), this.getTaskName());
-        if (!this.getAdditionalInfo().isEmpty()) {
-            string += String.format(" (%s)", this.getAdditionalInfo());
+        String string = this.renderedString;
+        if (string == null) {
+            string = this.render();
+            this.renderedString = string;
         }
         return string;
     }
+
+    /**
+     * Renders the task as a string, reading its additional information once.
+     *
+     * @return A string representation of the task.
+     */
+    private String render() {
+        String additionalInfo = this.getAdditionalInfo();
+        StringBuilder str = new StringBuilder();
+        str.append('[').append(this.getTypeSymbol()).append("][").append(this.getCompletedSymbol()).append("] ")
+                .append(this.taskName);
+        if (!additionalInfo.isEmpty()) {
+            str.append(" (").append(additionalInfo).append(')');
+        }
+        return str.toString();
+    }
 }
@@ -0,0 +1,310 @@
+package tasklist;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Represents an index of the dates of the tasks in a task list, kept up to date as tasks are added and removed.
+ * Incomplete deadline tasks are kept sorted by the epoch day of their deadline, and event tasks are kept in
+ * an interval tree over the epoch days they span, so that either can be looked up by date in logarithmic time
+ * plus the number of tasks found.
+ *
+ * <p>Tasks equal in every field, including completion, cannot be told apart by the index, so removing one of them
+ * removes whichever was indexed first.
+ */
+class TaskDateIndex {
+    private final TreeMap<Long, List<Task>> pendingDeadlines;
+    private EventNode eventRoot;
+
+    /**
+     * Constructor for TaskDateIndex class.
+     */
+    TaskDateIndex() {
+        this.pendingDeadlines = new TreeMap<>();
+        this.eventRoot = null;
+    }
+
+    /**
+     * Indexes a task added to the task list.
+     *
+     * @param task The task added.
+     */
+    void add(Task task) {
+        if (task instanceof DeadlineTask deadlineTask && !task.isCompleted()) {
+            this.pendingDeadlines.computeIfAbsent(deadlineTask.getDeadlineDate().toEpochDay(),
+                    day -> new ArrayList<>()).add(task);
+        } else if (task instanceof EventTask eventTask) {
+            this.eventRoot = TaskDateIndex.insertEvent(this.eventRoot,
+                    eventTask.getStartDate().toEpochDay(), eventTask.getEndDate().toEpochDay(), task);
+        }
+    }
+
+    /**
+     * Removes a task removed from the task list from the index.
+     *
+     * @param task The task removed.
+     */
+    void remove(Task task) {
+        if (task instanceof DeadlineTask deadlineTask && !task.isCompleted()) {
+            long deadlineDay = deadlineTask.getDeadlineDate().toEpochDay();
+            List<Task> tasks = this.pendingDeadlines.get(deadlineDay);
+            assert tasks != null : "Task removed must have been indexed.";
+            TaskDateIndex.removeSameTask(tasks, task);
+            if (tasks.isEmpty()) {
+                this.pendingDeadlines.remove(deadlineDay);
+            }
+        } else if (task instanceof EventTask eventTask) {
+            this.eventRoot = TaskDateIndex.removeEvent(this.eventRoot,
+                    eventTask.getStartDate().toEpochDay(), eventTask.getEndDate().toEpochDay(), task);
+        }
+    }
+
+    /**
+     * Returns the incomplete deadline tasks due on or before a date, in order of their deadlines.
+     *
+     * @param date The latest deadline of the tasks to return.
+     * @return The tasks found.
+     */
+    List<Task> findDeadlinesDueBy(LocalDate date) {
+        List<Task> foundTasks = new ArrayList<>();
+        this.pendingDeadlines.headMap(date.toEpochDay(), true).values().forEach(foundTasks::addAll);
+        return foundTasks;
+    }
+
+    /**
+     * Returns the number of incomplete deadline tasks due before a date.
+     * The tasks due on each day are counted together, but every day such tasks are due on is gone through,
+     * so this takes time in the number of days the tasks found are due on, up to the number of tasks found.
+     *
+     * @param date The date the tasks are due before.
+     * @return The number of tasks found.
+     */
+    int countDeadlinesDueBefore(LocalDate date) {
+        int taskCount = 0;
+        for (List<Task> tasks : this.pendingDeadlines.headMap(date.toEpochDay(), false).values()) {
+            taskCount += tasks.size();
+        }
+        return taskCount;
+    }
+
+    /**
+     * Returns the event tasks that overlap a range of dates, in order of their start dates.
+     *
+     * @param startDate The first date of the range.
+     * @param endDate   The last date of the range.
+     * @return The tasks found.
+     */
+    List<Task> findEventsDuring(LocalDate startDate, LocalDate endDate) {
+        List<Task> foundTasks = new ArrayList<>();
+        TaskDateIndex.collectOverlappingEvents(this.eventRoot, startDate.toEpochDay(), endDate.toEpochDay(),
+                foundTasks);
+        return foundTasks;
+    }
+
+    /**
+     * Removes a task from a list of tasks, matching its completion as well as its fields.
+     *
+     * @param tasks The list of tasks.
+     * @param task  The task to be removed.
+     */
+    private static void removeSameTask(List<Task> tasks, Task task) {
+        for (int i = 0; i < tasks.size(); i++) {
+            if (tasks.get(i).equals(task) && tasks.get(i).isCompleted() == task.isCompleted()) {
+                tasks.remove(i);
+                return;
+            }
+        }
+        assert false : "Task removed must have been indexed.";
+    }
+
+    /**
+     * Adds an event to a subtree of the interval tree.
+     *
+     * @param node     The root of the subtree, or null if it is empty.
+     * @param startDay The epoch day the event starts on.
+     * @param endDay   The epoch day the event ends on.
+     * @param task     The event task.
+     * @return The root of the subtree after the event is added.
+     */
+    private static EventNode insertEvent(EventNode node, long startDay, long endDay, Task task) {
+        if (node == null) {
+            EventNode newNode = new EventNode(startDay, endDay, ThreadLocalRandom.current().nextInt());
+            newNode.tasks.add(task);
+            return newNode;
+        }
+
+        int comparison = node.compareTo(startDay, endDay);
+        if (comparison == 0) {
+            node.tasks.add(task);
+            return node;
+        } else if (comparison > 0) {
+            node.left = TaskDateIndex.insertEvent(node.left, startDay, endDay, task);
+            if (node.left.priority > node.priority) {
+                node = TaskDateIndex.rotateRight(node);
+            }
+        } else {
+            node.right = TaskDateIndex.insertEvent(node.right, startDay, endDay, task);
+            if (node.right.priority > node.priority) {
+                node = TaskDateIndex.rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    /**
+     * Removes an event from a subtree of the interval tree, dropping its node if no other event shares its dates.
+     *
+     * @param node     The root of the subtree.
+     * @param startDay The epoch day the event starts on.
+     * @param endDay   The epoch day the event ends on.
+     * @param task     The event task.
+     * @return The root of the subtree after the event is removed.
+     */
+    private static EventNode removeEvent(EventNode node, long startDay, long endDay, Task task) {
+        assert node != null : "Task removed must have been indexed.";
+        int comparison = node.compareTo(startDay, endDay);
+        if (comparison > 0) {
+            node.left = TaskDateIndex.removeEvent(node.left, startDay, endDay, task);
+        } else if (comparison < 0) {
+            node.right = TaskDateIndex.removeEvent(node.right, startDay, endDay, task);
+        } else {
+            TaskDateIndex.removeSameTask(node.tasks, task);
+            if (node.tasks.isEmpty()) {
+                return TaskDateIndex.merge(node.left, node.right);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    /**
+     * Collects the events in a subtree that overlap a range of days, skipping subtrees that cannot hold any.
+     *
+     * @param node     The root of the subtree, or null if it is empty.
+     * @param startDay The first epoch day of the range.
+     * @param endDay   The last epoch day of the range.
+     * @param tasks    The list to add the events found to.
+     */
+    private static void collectOverlappingEvents(EventNode node, long startDay, long endDay, List<Task> tasks) {
+        if (node == null || node.maxEndDay < startDay) {
+            return;
+        }
+        TaskDateIndex.collectOverlappingEvents(node.left, startDay, endDay, tasks);
+        if (node.startDay > endDay) {
+            return;
+        }
+        if (node.endDay >= startDay) {
+            tasks.addAll(node.tasks);
+        }
+        TaskDateIndex.collectOverlappingEvents(node.right, startDay, endDay, tasks);
+    }
+
+    /**
+     * Joins two subtrees, with every event of the first ordered before every event of the second.
+     *
+     * @param first  The root of the first subtree, or null if it is empty.
+     * @param second The root of the second subtree, or null if it is empty.
+     * @return The root of the joined subtree.
+     */
+    private static EventNode merge(EventNode first, EventNode second) {
+        if (first == null) {
+            return second;
+        } else if (second == null) {
+            return first;
+        } else if (first.priority > second.priority) {
+            first.right = TaskDateIndex.merge(first.right, second);
+            first.update();
+            return first;
+        } else {
+            second.left = TaskDateIndex.merge(first, second.left);
+            second.update();
+            return second;
+        }
+    }
+
+    /**
+     * Rotates a node below its left child.
+     *
+     * @param node The node.
+     * @return The left child, now at the root of the subtree.
+     */
+    private static EventNode rotateRight(EventNode node) {
+        EventNode left = node.left;
+        node.left = left.right;
+        node.update();
+        left.right = node;
+        return left;
+    }
+
+    /**
+     * Rotates a node below its right child.
+     *
+     * @param node The node.
+     * @return The right child, now at the root of the subtree.
+     */
+    private static EventNode rotateLeft(EventNode node) {
+        EventNode right = node.right;
+        node.right = right.left;
+        node.update();
+        right.left = node;
+        return right;
+    }
+
+    /**
+     * Represents a node of the interval tree, holding the events with the same dates, and the latest day
+     * any event in its subtree ends on.
+     */
+    private static final class EventNode {
+        private final long startDay;
+        private final long endDay;
+        private final int priority;
+        private final List<Task> tasks;
+        private long maxEndDay;
+        private EventNode left;
+        private EventNode right;
+
+        /**
+         * Constructor for EventNode class.
+         *
+         * @param startDay The epoch day the events start on.
+         * @param endDay   The epoch day the events end on.
+         * @param priority The priority of the node, which must be higher than that of its children.
+         */
+        private EventNode(long startDay, long endDay, int priority) {
+            this.startDay = startDay;
+            this.endDay = endDay;
+            this.priority = priority;
+            this.tasks = new ArrayList<>();
+            this.maxEndDay = endDay;
+        }
+
+        /**
+         * Compares the dates of the node with the dates of an event, by start day and then by end day.
+         *
+         * @param startDay The epoch day the event starts on.
+         * @param endDay   The epoch day the event ends on.
+         * @return A negative number, zero or a positive number if the node is before, at or after the event.
+         */
+        private int compareTo(long startDay, long endDay) {
+            return this.startDay != startDay ? Long.compare(this.startDay, startDay)
+                    : Long.compare(this.endDay, endDay);
+        }
+
+        /**
+         * Recomputes the latest day any event in the subtree of the node ends on from its children.
+         */
+        private void update() {
+            this.maxEndDay = this.endDay;
+            if (this.left != null) {
+                this.maxEndDay = Math.max(this.maxEndDay, this.left.maxEndDay);
+            }
+            if (this.right != null) {
+                this.maxEndDay = Math.max(this.maxEndDay, this.right.maxEndDay);
+            }
+        }
+    }
+}
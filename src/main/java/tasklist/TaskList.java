@@ -1,34 +1,211 @@
 package tasklist;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
 
 /**
  * Represents a list of tasks.
+ *
+ * <p>Task lists can only be used by one thread at a time, apart from concurrent task lists. Changes to a concurrent
+ * task list, and searches through its indexes, are serialized by its lock, while listing, scanning and saving its
+ * tasks read a snapshot of them without taking the lock.
  */
 public class TaskList implements Serializable {
+    /**
+     * The type symbols of the tasks counted, in the order of their counts.
+     */
+    private static final String COUNTED_TYPE_SYMBOLS = "TDE";
+    /**
+     * The number of tasks scanned together as one chunk, when scanning a long task list in parallel.
+     */
+    private static final int PARALLEL_SCAN_CHUNK_SIZE = 1 << 15;
 
     private final List<Task> taskList;
+    /**
+     * The number of tasks of each type that are incomplete and complete, in pairs in the order of
+     * {@link #COUNTED_TYPE_SYMBOLS}, or null if they have not been counted yet.
+     */
+    private transient int[] taskCounts;
+    /**
+     * The index of the dates of the tasks, or null if it has not been built yet.
+     */
+    private transient TaskDateIndex dateIndex;
+    /**
+     * The index of the words in the names of the tasks, or null if it has not been built yet.
+     */
+    private transient TaskTokenIndex tokenIndex;
+    /**
+     * The index of the three-character sequences in the names of the tasks, or null if it has not been built yet.
+     */
+    private transient TaskTrigramIndex trigramIndex;
+    /**
+     * The positions of the tasks, which indexes use to return the tasks they find in order, or null if no index
+     * that needs them has been built yet.
+     */
+    private transient TaskPositions taskPositions;
 
     /**
      * Constructor for TaskList class.
      */
     public TaskList() {
-        this.taskList = new ArrayList<>();
+        this(new ArrayList<>());
+    }
+
+    /**
+     * Constructor for TaskList class, holding its tasks in the given list.
+     *
+     * @param taskList The list holding the tasks.
+     */
+    private TaskList(List<Task> taskList) {
+        this.taskList = taskList;
+        this.taskCounts = taskList.isEmpty() ? new int[COUNTED_TYPE_SYMBOLS.length() * 2] : null;
+        this.dateIndex = null;
+        this.tokenIndex = null;
+        this.trigramIndex = null;
+        this.taskPositions = null;
+    }
+
+    /**
+     * Returns a new task list that reads its tasks lazily from a source, one page at a time.
+     * Only a bounded number of recently used pages are kept decoded, so the task list can be used
+     * straight away, and memory use does not grow with the number of tasks in the source.
+     *
+     * @param source         The source to read tasks from.
+     * @param pageSize       The number of tasks decoded together as a page.
+     * @param maxCachedPages The number of decoded pages kept in memory.
+     * @return The new paged task list.
+     */
+    public static TaskList createPagedTaskList(TaskSource source, int pageSize, int maxCachedPages) {
+        return new TaskList(new PagedTaskSequence(source, pageSize, maxCachedPages));
+    }
+
+    /**
+     * Returns a new task list that reads its tasks lazily from a source, with the default page size
+     * and number of cached pages.
+     *
+     * @param source The source to read tasks from.
+     * @return The new paged task list.
+     */
+    public static TaskList createPagedTaskList(TaskSource source) {
+        return TaskList.createPagedTaskList(source,
+                PagedTaskSequence.DEFAULT_PAGE_SIZE, PagedTaskSequence.DEFAULT_MAX_CACHED_PAGES);
+    }
+
+    /**
+     * Returns a new, empty task list that holds its tasks as columns of primitive values rather than as
+     * task objects, taking a fraction of the memory for long task lists.
+     * The columns are split into chunks kept in a balanced tree, so that reading, adding and deleting a task
+     * by its position takes logarithmic time rather than shifting every task after it.
+     * Tasks are created from the columns each time they are read, so they must be replaced rather than
+     * changed in place for the change to be kept.
+     *
+     * @return The new compact task list.
+     */
+    public static TaskList createCompactTaskList() {
+        return new TaskList(new OrderStatisticTaskSequence());
+    }
+
+    /**
+     * Returns a new, empty task list that can be shared between threads.
+     * Each change publishes a new snapshot of the tasks, so that threads listing or saving the tasks read
+     * a consistent snapshot without blocking threads changing them.
+     *
+     * @return The new concurrent task list.
+     */
+    public static TaskList createConcurrentTaskList() {
+        return new TaskList(new SnapshotTaskSequence());
+    }
+
+    /**
+     * Returns a new, empty task list whose every version shares most of its structure with the versions before it,
+     * so that a snapshot of it takes constant time and memory however long it is.
+     * Each change copies only the path to the task changed, taking logarithmic time.
+     *
+     * @return The new persistent task list.
+     */
+    public static TaskList createPersistentTaskList() {
+        return new TaskList(new PersistentTaskSequence());
+    }
+
+    /**
+     * Returns a new task list that shares the given tasks until it is first changed, and then copies them.
+     * The tasks given must not be changed by anyone, so that any number of task lists can share them.
+     *
+     * @param sharedTasks The tasks to be shared.
+     * @return The new copy-on-write task list.
+     */
+    public static TaskList createCopyOnWriteTaskList(List<Task> sharedTasks) {
+        return new TaskList(new CopyOnWriteTaskSequence(sharedTasks));
     }
 
     public int getLength() {
         return this.taskList.size();
     }
 
+    /**
+     * Returns a task list holding the tasks as they are now, to be read while this task list may be changed.
+     * A concurrent task list shares its current snapshot of the tasks without copying them, and a persistent task list
+     * shares its current version, which can then be changed without changing this task list.
+     * Other task lists can only be used by one thread at a time, so they are returned as they are.
+     *
+     * @return The task list holding the tasks as they are now.
+     */
+    public TaskList snapshot() {
+        if (this.taskList instanceof SnapshotTaskSequence snapshotTasks) {
+            return TaskList.createCopyOnWriteTaskList(snapshotTasks.snapshot());
+        } else if (this.taskList instanceof PersistentTaskSequence persistentTasks) {
+            return new TaskList(persistentTasks.snapshot());
+        }
+        return this;
+    }
+
+    /**
+     * Returns a new task list holding the tasks of this task list, sharing them rather than copying them,
+     * which can be used by another thread. This task list must never be changed afterwards.
+     * A task list read lazily from a source shares the source and copies only the changes made since,
+     * reading pages of its own, while other task lists share their tasks until the new task list is first changed.
+     *
+     * @return The new task list.
+     */
+    public TaskList share() {
+        if (this.taskList instanceof PagedTaskSequence pagedTasks) {
+            return new TaskList(pagedTasks.fork());
+        } else if (this.taskList instanceof PersistentTaskSequence persistentTasks) {
+            return new TaskList(persistentTasks.snapshot());
+        }
+        return TaskList.createCopyOnWriteTaskList(Collections.unmodifiableList(this.readTasks()));
+    }
+
     /**
      * Adds a task to the task list.
      *
      * @param task The task to be added.
      */
-    public void addTask(Task task) {
+    public synchronized void addTask(Task task) {
         this.taskList.add(task);
+        this.onTaskAdded(task, this.taskList.size() - 1);
+    }
+
+    /**
+     * Inserts a task into the task list at a position, moving the tasks from that position onwards back by one.
+     * Task lists read lazily from a source insert tasks at the end, or where a task was deleted, without reading
+     * any task; inserting anywhere else first reads every task from the source into memory.
+     *
+     * @param taskIdx The index the task will occupy once inserted.
+     * @param task    The task to be inserted.
+     */
+    public synchronized void insertTask(int taskIdx, Task task) {
+        this.taskList.add(taskIdx, task);
+        this.onTaskAdded(task, taskIdx);
     }
 
     /**
@@ -37,9 +214,10 @@ public class TaskList implements Serializable {
      * @param taskIdx The index of the task to be deleted.
      * @return The deleted task.
      */
-    public Task deleteTask(int taskIdx) {
+    public synchronized Task deleteTask(int taskIdx) {
         Task deletedTask = this.taskList.get(taskIdx);
         this.taskList.remove(taskIdx);
+        this.onTaskRemoved(deletedTask, taskIdx);
         return deletedTask;
     }
 
@@ -47,12 +225,340 @@ public class TaskList implements Serializable {
         return this.taskList.get(taskIdx);
     }
 
-    public void setTaskComplete(int taskIdx) {
-        this.taskList.get(taskIdx).setComplete();
+    /**
+     * Sets a task in the task list as complete.
+     * The task is replaced with a completed copy rather than changed in place, as it may be shared with
+     * other task lists.
+     *
+     * @param taskIdx The index of the task to be set as complete.
+     */
+    public synchronized void setTaskComplete(int taskIdx) {
+        Task previousTask = this.taskList.get(taskIdx);
+        Task task = previousTask.copy();
+        task.setComplete();
+        this.taskList.set(taskIdx, task);
+        this.onTaskRemoved(previousTask, taskIdx);
+        this.onTaskAdded(task, taskIdx);
+    }
+
+    /**
+     * Sets a task in the task list as incomplete.
+     * The task is replaced with an incomplete copy rather than changed in place, as it may be shared with
+     * other task lists.
+     *
+     * @param taskIdx The index of the task to be set as incomplete.
+     */
+    public synchronized void setTaskIncomplete(int taskIdx) {
+        Task previousTask = this.taskList.get(taskIdx);
+        Task task = previousTask.copy();
+        task.setIncomplete();
+        this.taskList.set(taskIdx, task);
+        this.onTaskRemoved(previousTask, taskIdx);
+        this.onTaskAdded(task, taskIdx);
+    }
+
+    /**
+     * Returns the number of tasks of a type that are complete or incomplete.
+     * The tasks are counted once when first asked for, and the counts are kept up to date as the task list
+     * changes, so that task lists read lazily are not read in full until then.
+     *
+     * @param typeSymbol  The type symbol of the tasks to count.
+     * @param isCompleted Whether to count the complete tasks rather than the incomplete ones.
+     * @return The number of tasks.
+     */
+    public synchronized int countTasks(char typeSymbol, boolean isCompleted) {
+        int typeIdx = COUNTED_TYPE_SYMBOLS.indexOf(typeSymbol);
+        assert typeIdx >= 0 : "Tasks of the type are not counted.";
+        if (this.taskCounts == null) {
+            this.taskCounts = new int[COUNTED_TYPE_SYMBOLS.length() * 2];
+            for (Task task : this.taskList) {
+                this.updateTaskCount(task, 1);
+            }
+        }
+        return this.taskCounts[typeIdx * 2 + (isCompleted ? 1 : 0)];
+    }
+
+    /**
+     * Returns the incomplete deadline tasks due on or before a date, in order of their deadlines.
+     * The dates of the tasks are indexed once when first looked up, and the index is kept up to date as
+     * the task list changes, so that task lists never looked up by date do not hold the index.
+     *
+     * @param date The latest deadline of the tasks to return.
+     * @return The tasks found.
+     */
+    public synchronized List<Task> findDeadlinesDueBy(LocalDate date) {
+        return this.getDateIndex().findDeadlinesDueBy(date);
+    }
+
+    /**
+     * Returns the number of incomplete deadline tasks due before a date, such as those overdue as of today.
+     * As with {@link #findDeadlinesDueBy}, the first lookup by date goes through every task to index their dates.
+     * After that, counting takes time in the number of days the tasks found are due on, not the length of the list.
+     *
+     * @param date The date the tasks are due before.
+     * @return The number of tasks found.
+     */
+    public synchronized int countDeadlinesDueBefore(LocalDate date) {
+        return this.getDateIndex().countDeadlinesDueBefore(date);
+    }
+
+    /**
+     * Returns the event tasks that overlap a range of dates, in order of their start dates.
+     *
+     * @param startDate The first date of the range.
+     * @param endDate   The last date of the range.
+     * @return The tasks found.
+     */
+    public synchronized List<Task> findEventsDuring(LocalDate startDate, LocalDate endDate) {
+        assert !startDate.isAfter(endDate) : "Range of dates cannot end before it starts.";
+        return this.getDateIndex().findEventsDuring(startDate, endDate);
     }
 
-    public void setTaskIncomplete(int taskIdx) {
-        this.taskList.get(taskIdx).setIncomplete();
+    /**
+     * Returns the tasks whose names contain a keyword, exactly as {@link String#contains} would find them.
+     * The three-character sequences in the names of the tasks are indexed once when first searched, and the index is
+     * kept up to date as the task list changes, so that only tasks containing every sequence in the keyword are
+     * checked. Keywords too short to be narrowed down by the index are found by scanning every task instead.
+     *
+     * @param keyword The keyword to search for.
+     * @return The tasks found, in the order they are in the task list.
+     */
+    public List<Task> findTasks(String keyword) {
+        if (keyword.length() < TaskTrigramIndex.TRIGRAM_LENGTH) {
+            return this.scanTasks(task -> task.getTaskName().contains(keyword));
+        }
+        return this.findIndexedTasks(keyword);
+    }
+
+    /**
+     * Returns the tasks whose names contain a keyword long enough to be narrowed down by the index,
+     * building the index first if it has not been built yet.
+     *
+     * @param keyword The keyword to search for.
+     * @return The tasks found.
+     */
+    private synchronized List<Task> findIndexedTasks(String keyword) {
+        if (this.trigramIndex == null) {
+            this.trigramIndex = new TaskTrigramIndex();
+            Iterator<TaskPositions.Position> positions = this.getTaskPositions().getAll().iterator();
+            for (Task task : this.taskList) {
+                this.trigramIndex.add(task, positions.next());
+            }
+        }
+        return this.trigramIndex.findContaining(keyword);
+    }
+
+    /**
+     * Returns the tasks matching a filter, in the order they are in the task list.
+     * Task lists longer than a threshold are split into chunks scanned in parallel on the common fork-join pool,
+     * apart from task lists read lazily from a source, whose cache of pages can only be used by one thread.
+     *
+     * @param filter The filter the tasks must match, which must be safe to call from several threads.
+     * @return The tasks found.
+     */
+    public List<Task> scanTasks(Predicate<Task> filter) {
+        return this.scanTasks(filter, ForkJoinPool.commonPool(), PARALLEL_SCAN_CHUNK_SIZE);
+    }
+
+    /**
+     * Returns the tasks matching a filter, in the order they are in the task list, scanning chunks of the task list
+     * in parallel on the given pool.
+     *
+     * @param filter    The filter the tasks must match, which must be safe to call from several threads.
+     * @param pool      The pool to scan the chunks on.
+     * @param chunkSize The number of tasks scanned together as one chunk.
+     * @return The tasks found.
+     */
+    List<Task> scanTasks(Predicate<Task> filter, ForkJoinPool pool, int chunkSize) {
+        assert chunkSize > 0 : "Chunk size must be positive.";
+        List<Task> tasks = this.readTasks();
+        if (tasks instanceof PagedTaskSequence) {
+            return new ScanTask(tasks, filter, 0, tasks.size(), Integer.MAX_VALUE).compute();
+        }
+        return pool.invoke(new ScanTask(tasks, filter, 0, tasks.size(), chunkSize));
+    }
+
+    /**
+     * Returns the tasks whose names contain all or any of the words in the given keywords, ignoring case.
+     * The words in the names of the tasks are indexed once when first searched, and the index is kept up to date
+     * as the task list changes, so that searches do not go through every task.
+     *
+     * @param keywords      The keywords to search for, separated by any character that is not a letter or a digit.
+     * @param isMatchingAll Whether tasks must contain all the words, rather than any of them.
+     * @return The tasks found in the order they are in the task list, or no tasks if the keywords contain no words.
+     */
+    public synchronized List<Task> searchTasks(String keywords, boolean isMatchingAll) {
+        List<String> tokens = TaskTokenIndex.tokenize(keywords);
+        if (tokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return this.getTokenIndex().search(tokens, isMatchingAll);
+    }
+
+    /**
+     * Returns the tasks whose names contain, for every word in the given keywords, a word that differs from it
+     * by at most a number of inserted, deleted or substituted characters, ignoring case.
+     * Only the words close to the keywords are looked up, rather than comparing against every task.
+     *
+     * @param keywords The keywords to search for, separated by any character that is not a letter or a digit.
+     * @param maxEdits The largest number of characters a word in a task name may differ by from a keyword.
+     * @return The tasks found in the order they are in the task list, or no tasks if the keywords contain no words.
+     */
+    public synchronized List<Task> searchTasksFuzzy(String keywords, int maxEdits) {
+        assert maxEdits >= 0 : "Edit distance cannot be negative.";
+        List<String> tokens = TaskTokenIndex.tokenize(keywords);
+        if (tokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return this.getTokenIndex().searchFuzzy(tokens, maxEdits);
+    }
+
+    /**
+     * Returns the index of the words in the names of the tasks, building it first if it has not been built yet.
+     *
+     * @return The index of the words in the names of the tasks.
+     */
+    private TaskTokenIndex getTokenIndex() {
+        if (this.tokenIndex == null) {
+            this.tokenIndex = new TaskTokenIndex();
+            Iterator<TaskPositions.Position> positions = this.getTaskPositions().getAll().iterator();
+            for (Task task : this.taskList) {
+                this.tokenIndex.add(task, positions.next());
+            }
+        }
+        return this.tokenIndex;
+    }
+
+    /**
+     * Returns the positions of the tasks, giving every task a position first if they have not been given yet.
+     *
+     * @return The positions of the tasks.
+     */
+    private TaskPositions getTaskPositions() {
+        if (this.taskPositions == null) {
+            this.taskPositions = new TaskPositions(this.taskList.size());
+        }
+        return this.taskPositions;
+    }
+
+    /**
+     * Returns the index of the dates of the tasks, building it first if it has not been built yet.
+     *
+     * @return The index of the dates of the tasks.
+     */
+    private TaskDateIndex getDateIndex() {
+        if (this.dateIndex == null) {
+            this.dateIndex = new TaskDateIndex();
+            for (Task task : this.taskList) {
+                this.dateIndex.add(task);
+            }
+        }
+        return this.dateIndex;
+    }
+
+    /**
+     * Returns the tasks to be read without taking the lock of the task list, which for a concurrent task list
+     * is a snapshot of them.
+     *
+     * @return The tasks of the task list.
+     */
+    private List<Task> readTasks() {
+        if (this.taskList instanceof SnapshotTaskSequence snapshotTasks) {
+            return snapshotTasks.snapshot();
+        }
+        return this.taskList;
+    }
+
+    /**
+     * Updates the counts and the indexes of the tasks for a task added to the task list.
+     *
+     * @param task    The task added.
+     * @param taskIdx The index the task was added at.
+     */
+    private void onTaskAdded(Task task, int taskIdx) {
+        TaskPositions.Position position = this.taskPositions == null ? null : this.taskPositions.add(taskIdx);
+        this.updateTaskCount(task, 1);
+        if (this.dateIndex != null) {
+            this.dateIndex.add(task);
+        }
+        if (this.tokenIndex != null) {
+            this.tokenIndex.add(task, position);
+        }
+        if (this.trigramIndex != null) {
+            this.trigramIndex.add(task, position);
+        }
+    }
+
+    /**
+     * Updates the counts and the indexes of the tasks for a task removed from the task list.
+     *
+     * @param task    The task removed.
+     * @param taskIdx The index the task was removed from.
+     */
+    private void onTaskRemoved(Task task, int taskIdx) {
+        TaskPositions.Position position = this.taskPositions == null ? null : this.taskPositions.remove(taskIdx);
+        this.updateTaskCount(task, -1);
+        if (this.dateIndex != null) {
+            this.dateIndex.remove(task);
+        }
+        if (this.tokenIndex != null) {
+            this.tokenIndex.remove(task, position);
+        }
+        if (this.trigramIndex != null) {
+            this.trigramIndex.remove(task, position);
+        }
+    }
+
+    /**
+     * Counts a task added to or removed from the task list, if the tasks have been counted.
+     *
+     * @param task  The task added or removed.
+     * @param delta 1 if the task was added, or -1 if it was removed.
+     */
+    private void updateTaskCount(Task task, int delta) {
+        if (this.taskCounts == null) {
+            return;
+        }
+        int typeIdx = COUNTED_TYPE_SYMBOLS.indexOf(task.getTypeSymbol());
+        assert typeIdx >= 0 : "Tasks of the type are not counted.";
+        this.taskCounts[typeIdx * 2 + (task.isCompleted() ? 1 : 0)] += delta;
+    }
+
+    /**
+     * Writes a range of tasks to an output one line at a time, each numbered by its position in the task list,
+     * without building the whole text in memory first.
+     *
+     * @param out     The output to write the tasks to.
+     * @param fromIdx The index of the first task to be written.
+     * @param toIdx   The index after the last task to be written.
+     * @throws IOException If there is an error writing to the output.
+     */
+    public void render(Appendable out, int fromIdx, int toIdx) throws IOException {
+        TaskList.render(this.readTasks(), out, fromIdx, toIdx);
+    }
+
+    /**
+     * Writes a range of the given tasks to an output one line at a time, each numbered by its position.
+     * Compact task lists create a new task each time one is read, so their tasks are rendered through the list,
+     * which keeps the strings rendered until the tasks change.
+     *
+     * @param tasks   The tasks of the task list.
+     * @param out     The output to write the tasks to.
+     * @param fromIdx The index of the first task to be written.
+     * @param toIdx   The index after the last task to be written.
+     * @throws IOException If there is an error writing to the output.
+     */
+    private static void render(List<Task> tasks, Appendable out, int fromIdx, int toIdx) throws IOException {
+        assert 0 <= fromIdx && fromIdx <= toIdx && toIdx <= tasks.size() : "Range of tasks must be in the list.";
+        for (int i = fromIdx; i < toIdx; i++) {
+            if (i > fromIdx) {
+                out.append('\n');
+            }
+            String renderedTask = tasks instanceof OrderStatisticTaskSequence compactTasks
+                    ? compactTasks.render(i)
+                    : tasks.get(i).toString();
+            out.append(Integer.toString(i + 1)).append(". ").append(renderedTask);
+        }
     }
 
     /**
@@ -60,20 +566,33 @@ public class TaskList implements Serializable {
      */
     @Override
     public String toString() {
-        if (this.taskList.isEmpty()) {
+        List<Task> tasks = this.readTasks();
+        if (tasks.isEmpty()) {
             return "No tasks to display.";
         }
 
         StringBuilder str = new StringBuilder();
-        int taskNumber = 1;
-        for (Task task : this.taskList) {
-            str.append(String.format("%d. %s\n", taskNumber, task.toString()));
-            taskNumber++;
+        try {
+            TaskList.render(tasks, str, 0, tasks.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        str.setLength(str.length() - 1);
         return str.toString();
     }
 
+    /**
+     * Replaces a task list not backed by a plain list with a copy holding all its tasks when serialized,
+     * so that serialized task lists stay readable regardless of how they were held.
+     *
+     * @return The task list to be serialized in place of this one.
+     */
+    private Object writeReplace() {
+        if (this.taskList instanceof ArrayList) {
+            return this;
+        }
+        return new TaskList(new ArrayList<>(this.readTasks()));
+    }
+
     /**
      * Checks if the task list is equal to another object.
      *
@@ -88,15 +607,74 @@ public class TaskList implements Serializable {
         if (obj == null || this.getClass() != obj.getClass()) {
             return false;
         }
-        TaskList other = (TaskList) obj;
-        if (this.getLength() != other.getLength()) {
+        List<Task> tasks = this.readTasks();
+        List<Task> otherTasks = ((TaskList) obj).readTasks();
+        if (tasks.size() != otherTasks.size()) {
             return false;
         }
-        for (int i = 0; i < this.getLength(); i++) {
-            if (!this.getTask(i).equals(other.getTask(i))) {
+        for (int i = 0; i < tasks.size(); i++) {
+            if (!tasks.get(i).equals(otherTasks.get(i))) {
                 return false;
             }
         }
         return true;
     }
+
+    /**
+     * Represents the scan of a range of tasks for those matching a filter, run on a fork-join pool.
+     * Ranges longer than a chunk are split in half, and the tasks found in each half are joined in order.
+     */
+    @SuppressWarnings("serial")
+    private static class ScanTask extends RecursiveTask<List<Task>> {
+        private final List<Task> tasks;
+        private final Predicate<Task> filter;
+        private final int fromIdx;
+        private final int toIdx;
+        private final int chunkSize;
+
+        /**
+         * Constructor for ScanTask class.
+         *
+         * @param tasks     The tasks of the task list.
+         * @param filter    The filter the tasks must match.
+         * @param fromIdx   The index of the first task in the range.
+         * @param toIdx     The index after the last task in the range.
+         * @param chunkSize The number of tasks scanned together as one chunk.
+         */
+        private ScanTask(List<Task> tasks, Predicate<Task> filter, int fromIdx, int toIdx, int chunkSize) {
+            this.tasks = tasks;
+            this.filter = filter;
+            this.fromIdx = fromIdx;
+            this.toIdx = toIdx;
+            this.chunkSize = chunkSize;
+        }
+
+        /**
+         * Scans the range, splitting it in half to be scanned in parallel if it is longer than a chunk.
+         *
+         * @return The tasks in the range matching the filter, in order.
+         */
+        @Override
+        protected List<Task> compute() {
+            if (this.toIdx - this.fromIdx > this.chunkSize) {
+                int midIdx = (this.fromIdx + this.toIdx) >>> 1;
+                ScanTask firstHalf = new ScanTask(this.tasks, this.filter, this.fromIdx, midIdx, this.chunkSize);
+                ScanTask secondHalf = new ScanTask(this.tasks, this.filter, midIdx, this.toIdx, this.chunkSize);
+                firstHalf.fork();
+                List<Task> secondHalfTasks = secondHalf.compute();
+                List<Task> foundTasks = firstHalf.join();
+                foundTasks.addAll(secondHalfTasks);
+                return foundTasks;
+            }
+
+            List<Task> foundTasks = new ArrayList<>();
+            for (int i = this.fromIdx; i < this.toIdx; i++) {
+                Task task = this.tasks.get(i);
+                if (this.filter.test(task)) {
+                    foundTasks.add(task);
+                }
+            }
+            return foundTasks;
+        }
+    }
 }
@@ -0,0 +1,120 @@
+package tasklist;
+
+/**
+ * Represents a single change made to a task list, such as adding, deleting or marking a task.
+ * Mutations can be applied to a task list, and recorded so that the same change can be replayed later.
+ *
+ * @param type    The type of change made to the task list.
+ * @param taskIdx The index of the task affected by the change.
+ * @param task    The task added, inserted or deleted by the change, or null if the change only updates completion.
+ */
+public record TaskListMutation(Type type, int taskIdx, Task task) {
+
+    /**
+     * Constructs a new task list mutation.
+     *
+     * @param type    The type of change made to the task list.
+     * @param taskIdx The index of the task affected by the change.
+     * @param task    The task added, inserted or deleted by the change, or null if the change only updates completion.
+     */
+    public TaskListMutation {
+        assert type != null : "Type of mutation cannot be null.";
+        assert taskIdx >= 0 : "Index of task affected by mutation cannot be negative.";
+        assert (type == Type.ADD || type == Type.INSERT || type == Type.DELETE) == (task != null)
+                : "Only mutations adding, inserting or deleting a task should carry the task.";
+    }
+
+    /**
+     * Returns a new mutation that adds a task to the end of a task list.
+     *
+     * @param taskIdx The index the task will occupy once added, which is the length of the list before adding.
+     * @param task    The task to be added.
+     * @return The add mutation.
+     */
+    public static TaskListMutation createAddMutation(int taskIdx, Task task) {
+        return new TaskListMutation(Type.ADD, taskIdx, task);
+    }
+
+    /**
+     * Returns a new mutation that inserts a task at a position in a task list, such as to put back a deleted task.
+     *
+     * @param taskIdx The index the task will occupy once inserted.
+     * @param task    The task to be inserted.
+     * @return The insert mutation.
+     */
+    public static TaskListMutation createInsertMutation(int taskIdx, Task task) {
+        return new TaskListMutation(Type.INSERT, taskIdx, task);
+    }
+
+    /**
+     * Returns a new mutation that deletes a task from a task list.
+     *
+     * @param taskIdx     The index of the task to be deleted.
+     * @param deletedTask The task that will be deleted.
+     * @return The delete mutation.
+     */
+    public static TaskListMutation createDeleteMutation(int taskIdx, Task deletedTask) {
+        return new TaskListMutation(Type.DELETE, taskIdx, deletedTask);
+    }
+
+    /**
+     * Returns a new mutation that marks a task as complete.
+     *
+     * @param taskIdx The index of the task to be marked as complete.
+     * @return The mark mutation.
+     */
+    public static TaskListMutation createSetCompleteMutation(int taskIdx) {
+        return new TaskListMutation(Type.MARK, taskIdx, null);
+    }
+
+    /**
+     * Returns a new mutation that marks a task as incomplete.
+     *
+     * @param taskIdx The index of the task to be marked as incomplete.
+     * @return The unmark mutation.
+     */
+    public static TaskListMutation createSetIncompleteMutation(int taskIdx) {
+        return new TaskListMutation(Type.UNMARK, taskIdx, null);
+    }
+
+    /**
+     * Returns the mutation that undoes this mutation, when applied straight after it.
+     *
+     * @return The inverse mutation.
+     */
+    public TaskListMutation inverse() {
+        return switch (this.type) {
+        case ADD, INSERT -> TaskListMutation.createDeleteMutation(this.taskIdx, this.task);
+        case DELETE -> TaskListMutation.createInsertMutation(this.taskIdx, this.task);
+        case MARK -> TaskListMutation.createSetIncompleteMutation(this.taskIdx);
+        case UNMARK -> TaskListMutation.createSetCompleteMutation(this.taskIdx);
+        default -> throw new IllegalStateException("Unknown mutation type: " + this.type);
+        };
+    }
+
+    /**
+     * Applies the mutation to a task list.
+     *
+     * @param taskList The task list to be changed.
+     */
+    public void applyTo(TaskList taskList) {
+        switch (this.type) {
+        case ADD -> {
+            assert this.taskIdx == taskList.getLength() : "Tasks can only be added to the end of the list.";
+            taskList.addTask(this.task);
+        }
+        case INSERT -> taskList.insertTask(this.taskIdx, this.task);
+        case DELETE -> taskList.deleteTask(this.taskIdx);
+        case MARK -> taskList.setTaskComplete(this.taskIdx);
+        case UNMARK -> taskList.setTaskIncomplete(this.taskIdx);
+        default -> throw new IllegalStateException("Unknown mutation type: " + this.type);
+        }
+    }
+
+    /**
+     * Represents the possible types of change made to a task list.
+     */
+    public enum Type {
+        ADD, INSERT, DELETE, MARK, UNMARK
+    }
+}
@@ -0,0 +1,250 @@
+package tasklist;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Represents the positions of the tasks in a task list, kept up to date as tasks are added and removed, so that
+ * indexes of the tasks can return the tasks they find in the order they are in the task list.
+ * Each task is given a position, an object that stays the same while other tasks are added and removed around it,
+ * and whose index in the task list can be read in logarithmic time.
+ *
+ * <p>The positions are the nodes of a treap that counts the nodes under each node, with links to their parents,
+ * so that the index of a position is counted walking up from it to the root.
+ */
+class TaskPositions {
+    private Position root;
+
+    /**
+     * Constructor for TaskPositions class.
+     *
+     * @param taskCount The number of tasks already in the task list.
+     */
+    TaskPositions(int taskCount) {
+        this.root = null;
+        for (int i = 0; i < taskCount; i++) {
+            this.root = TaskPositions.merge(this.root, TaskPositions.createPosition());
+        }
+    }
+
+    /**
+     * Returns the position of every task, in the order they are in the task list.
+     *
+     * @return The positions.
+     */
+    List<Position> getAll() {
+        List<Position> positions = new ArrayList<>(TaskPositions.getSize(this.root));
+        TaskPositions.collect(this.root, positions);
+        return positions;
+    }
+
+    /**
+     * Returns the position of the task at an index.
+     *
+     * @param taskIdx The index of the task.
+     * @return The position.
+     */
+    Position get(int taskIdx) {
+        assert 0 <= taskIdx && taskIdx < TaskPositions.getSize(this.root) : "Index must be in the task list.";
+        Position position = this.root;
+        while (true) {
+            int leftSize = TaskPositions.getSize(position.left);
+            if (taskIdx < leftSize) {
+                position = position.left;
+            } else if (taskIdx == leftSize) {
+                return position;
+            } else {
+                taskIdx -= leftSize + 1;
+                position = position.right;
+            }
+        }
+    }
+
+    /**
+     * Gives a position to a task added to the task list at an index.
+     *
+     * @param taskIdx The index the task was added at.
+     * @return The position of the task.
+     */
+    Position add(int taskIdx) {
+        assert 0 <= taskIdx && taskIdx <= TaskPositions.getSize(this.root) : "Index must be in the task list.";
+        Position[] parts = TaskPositions.split(this.root, taskIdx);
+        Position position = TaskPositions.createPosition();
+        this.root = TaskPositions.merge(TaskPositions.merge(parts[0], position), parts[1]);
+        this.root.parent = null;
+        return position;
+    }
+
+    /**
+     * Takes the position of a task removed from the task list at an index.
+     *
+     * @param taskIdx The index the task was removed from.
+     * @return The position the task had.
+     */
+    Position remove(int taskIdx) {
+        assert 0 <= taskIdx && taskIdx < TaskPositions.getSize(this.root) : "Index must be in the task list.";
+        Position[] parts = TaskPositions.split(this.root, taskIdx);
+        Position[] rightParts = TaskPositions.split(parts[1], 1);
+        this.root = TaskPositions.merge(parts[0], rightParts[1]);
+        if (this.root != null) {
+            this.root.parent = null;
+        }
+        rightParts[0].parent = null;
+        return rightParts[0];
+    }
+
+    /**
+     * Returns the tasks found by an index in the order they are in the task list.
+     *
+     * @param tasks     The tasks found.
+     * @param positions The position of each task found, which must still be in the task list.
+     * @return The tasks, ordered by their positions.
+     */
+    static List<Task> sortByPosition(List<Task> tasks, List<Position> positions) {
+        assert tasks.size() == positions.size() : "Every task found must have a position.";
+        long[] orderedTaskIdxs = new long[tasks.size()];
+        for (int i = 0; i < orderedTaskIdxs.length; i++) {
+            orderedTaskIdxs[i] = ((long) positions.get(i).getIndex() << 32) | i;
+        }
+        Arrays.sort(orderedTaskIdxs);
+
+        List<Task> sortedTasks = new ArrayList<>(orderedTaskIdxs.length);
+        for (long orderedTaskIdx : orderedTaskIdxs) {
+            sortedTasks.add(tasks.get((int) orderedTaskIdx));
+        }
+        return sortedTasks;
+    }
+
+    /**
+     * Splits a subtree into the given number of its first positions and the rest.
+     *
+     * @param position The root of the subtree, or null if it is empty.
+     * @param count    The number of positions in the first part.
+     * @return The roots of the two parts, either of which may be null.
+     */
+    private static Position[] split(Position position, int count) {
+        if (position == null) {
+            return new Position[2];
+        }
+        int leftSize = TaskPositions.getSize(position.left);
+        Position[] parts;
+        if (count <= leftSize) {
+            parts = TaskPositions.split(position.left, count);
+            position.left = parts[1];
+            parts[1] = position;
+        } else {
+            parts = TaskPositions.split(position.right, count - leftSize - 1);
+            position.right = parts[0];
+            parts[0] = position;
+        }
+        position.update();
+        return parts;
+    }
+
+    /**
+     * Joins two subtrees, with every position of the first before every position of the second.
+     *
+     * @param first  The root of the first subtree, or null if it is empty.
+     * @param second The root of the second subtree, or null if it is empty.
+     * @return The root of the joined subtree.
+     */
+    private static Position merge(Position first, Position second) {
+        if (first == null) {
+            return second;
+        } else if (second == null) {
+            return first;
+        } else if (first.priority > second.priority) {
+            first.right = TaskPositions.merge(first.right, second);
+            first.update();
+            return first;
+        } else {
+            second.left = TaskPositions.merge(first, second.left);
+            second.update();
+            return second;
+        }
+    }
+
+    /**
+     * Collects the positions of a subtree in order.
+     *
+     * @param position  The root of the subtree, or null if it is empty.
+     * @param positions The list to add the positions to.
+     */
+    private static void collect(Position position, List<Position> positions) {
+        while (position != null) {
+            TaskPositions.collect(position.left, positions);
+            positions.add(position);
+            position = position.right;
+        }
+    }
+
+    /**
+     * Creates a position with no children, with a random priority.
+     *
+     * @return The new position.
+     */
+    private static Position createPosition() {
+        return new Position(ThreadLocalRandom.current().nextInt());
+    }
+
+    /**
+     * Returns the number of positions in a subtree.
+     *
+     * @param position The root of the subtree, or null if it is empty.
+     * @return The number of positions.
+     */
+    private static int getSize(Position position) {
+        return position == null ? 0 : position.size;
+    }
+
+    /**
+     * Represents the position of a task in the task list, as a node of the tree.
+     */
+    static final class Position {
+        private final int priority;
+        private int size;
+        private Position left;
+        private Position right;
+        private Position parent;
+
+        /**
+         * Constructor for Position class.
+         *
+         * @param priority The priority of the node, which must be higher than that of its children.
+         */
+        private Position(int priority) {
+            this.priority = priority;
+            this.size = 1;
+        }
+
+        /**
+         * Returns the index in the task list of the task at the position.
+         *
+         * @return The index of the task.
+         */
+        int getIndex() {
+            int taskIdx = TaskPositions.getSize(this.left);
+            for (Position position = this; position.parent != null; position = position.parent) {
+                if (position == position.parent.right) {
+                    taskIdx += TaskPositions.getSize(position.parent.left) + 1;
+                }
+            }
+            return taskIdx;
+        }
+
+        /**
+         * Recounts the positions in the subtree of the node from its children, and links them back to it.
+         */
+        private void update() {
+            this.size = TaskPositions.getSize(this.left) + 1 + TaskPositions.getSize(this.right);
+            if (this.left != null) {
+                this.left.parent = this;
+            }
+            if (this.right != null) {
+                this.right.parent = this;
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package tasklist;
+
+/**
+ * Represents a read-only source of tasks, such as a file, that can decode any task by its index on demand.
+ */
+public interface TaskSource {
+    /**
+     * Returns the number of tasks available from the source.
+     *
+     * @return The number of tasks.
+     */
+    int getLength();
+
+    /**
+     * Decodes a task from the source.
+     *
+     * @param taskIdx The index of the task.
+     * @return A newly decoded task.
+     */
+    Task getTask(int taskIdx);
+}
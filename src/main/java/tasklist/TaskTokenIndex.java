@@ -0,0 +1,199 @@
+package tasklist;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Represents an inverted index from the words in the names of the tasks in a task list to the tasks,
+ * kept up to date as tasks are added and removed, so that tasks can be searched for by keywords without
+ * going through every task.
+ * Words are compared in lower case, and are separated by any character that is not a letter or a digit.
+ *
+ * <p>Tasks equal in every field, including completion, are indexed once with the positions of their copies in the
+ * task list, so that the tasks found are returned in the order they are in the task list.
+ * The words are also kept in a BK-tree to find words close to a misspelt one. Words no longer in any task are left in
+ * the tree to be skipped, until they outnumber the words in use and the tree is rebuilt.
+ */
+class TaskTokenIndex {
+    /**
+     * The positions of the copies of each distinct task in the task list.
+     */
+    private final Map<IndexedTask, List<TaskPositions.Position>> taskPositions;
+    /**
+     * The distinct tasks whose names contain each word.
+     */
+    private final Map<String, Set<IndexedTask>> postings;
+    /**
+     * The words in the names of the tasks, including words no longer in any task.
+     */
+    private WordBkTree words;
+
+    /**
+     * Constructor for TaskTokenIndex class.
+     */
+    TaskTokenIndex() {
+        this.taskPositions = new HashMap<>();
+        this.postings = new HashMap<>();
+        this.words = new WordBkTree();
+    }
+
+    /**
+     * Splits a text into the distinct words it contains, in lower case.
+     *
+     * @param text The text to split.
+     * @return The words in the order they first appear.
+     */
+    static List<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        String lowerCaseText = text.toLowerCase(Locale.ROOT);
+        int tokenStart = -1;
+        for (int i = 0; i <= lowerCaseText.length(); i++) {
+            boolean isTokenChar = i < lowerCaseText.length() && Character.isLetterOrDigit(lowerCaseText.charAt(i));
+            if (isTokenChar && tokenStart < 0) {
+                tokenStart = i;
+            } else if (!isTokenChar && tokenStart >= 0) {
+                tokens.add(lowerCaseText.substring(tokenStart, i));
+                tokenStart = -1;
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    /**
+     * Indexes a task added to the task list.
+     *
+     * @param task     The task added.
+     * @param position The position of the task in the task list.
+     */
+    void add(Task task, TaskPositions.Position position) {
+        IndexedTask indexedTask = new IndexedTask(task);
+        List<TaskPositions.Position> positions = this.taskPositions.computeIfAbsent(indexedTask,
+                key -> new ArrayList<>(1));
+        positions.add(position);
+        if (positions.size() > 1) {
+            return;
+        }
+        for (String token : TaskTokenIndex.tokenize(task.getTaskName())) {
+            this.postings.computeIfAbsent(token, key -> {
+                this.words.add(key);
+                return new LinkedHashSet<>();
+            }).add(indexedTask);
+        }
+    }
+
+    /**
+     * Removes a task removed from the task list from the index.
+     *
+     * @param task     The task removed.
+     * @param position The position the task had in the task list.
+     */
+    void remove(Task task, TaskPositions.Position position) {
+        IndexedTask indexedTask = new IndexedTask(task);
+        List<TaskPositions.Position> positions = this.taskPositions.get(indexedTask);
+        assert positions != null : "Task removed must have been indexed.";
+        positions.remove(position);
+        if (!positions.isEmpty()) {
+            return;
+        }
+
+        this.taskPositions.remove(indexedTask);
+        for (String token : TaskTokenIndex.tokenize(task.getTaskName())) {
+            Set<IndexedTask> tasks = this.postings.get(token);
+            tasks.remove(indexedTask);
+            if (tasks.isEmpty()) {
+                this.postings.remove(token);
+            }
+        }
+        if (this.words.size() > 2 * this.postings.size() + 64) {
+            this.words = new WordBkTree();
+            this.postings.keySet().forEach(this.words::add);
+        }
+    }
+
+    /**
+     * Returns the tasks whose names contain all or any of the given words.
+     * Only the postings of the words are read, starting from the shortest when all words must match.
+     *
+     * @param tokens        The words to search for, in lower case.
+     * @param isMatchingAll Whether tasks must contain all the words, rather than any of them.
+     * @return The tasks found, in the order they are in the task list.
+     */
+    List<Task> search(List<String> tokens, boolean isMatchingAll) {
+        if (!isMatchingAll) {
+            Set<IndexedTask> foundTasks = new LinkedHashSet<>();
+            for (String token : tokens) {
+                foundTasks.addAll(this.postings.getOrDefault(token, Set.of()));
+            }
+            return this.getAllCopies(foundTasks);
+        }
+
+        List<Set<IndexedTask>> tokenPostings = new ArrayList<>();
+        for (String token : tokens) {
+            tokenPostings.add(this.postings.getOrDefault(token, Set.of()));
+        }
+        return this.getAllCopies(TaskTokenIndex.intersect(tokenPostings));
+    }
+
+    /**
+     * Returns the tasks whose names contain, for every given word, a word within an edit distance of it.
+     * The words close to each word are found through the BK-tree, and only their postings are read.
+     *
+     * @param tokens   The words to search for, in lower case.
+     * @param maxEdits The largest edit distance between a word searched for and a word in a task name.
+     * @return The tasks found, in the order they are in the task list rather than by how close their words are.
+     */
+    List<Task> searchFuzzy(List<String> tokens, int maxEdits) {
+        List<Set<IndexedTask>> tokenPostings = new ArrayList<>();
+        for (String token : tokens) {
+            Set<IndexedTask> tasks = new LinkedHashSet<>();
+            for (String word : this.words.findWithin(token, maxEdits)) {
+                tasks.addAll(this.postings.getOrDefault(word, Set.of()));
+            }
+            tokenPostings.add(tasks);
+        }
+        return this.getAllCopies(TaskTokenIndex.intersect(tokenPostings));
+    }
+
+    /**
+     * Returns every copy in the task list of the given distinct tasks.
+     *
+     * @param indexedTasks The distinct tasks.
+     * @return The tasks, with each repeated as many times as it is in the task list, in the order they are in it.
+     */
+    private List<Task> getAllCopies(Set<IndexedTask> indexedTasks) {
+        List<Task> tasks = new ArrayList<>();
+        List<TaskPositions.Position> positions = new ArrayList<>();
+        for (IndexedTask indexedTask : indexedTasks) {
+            for (TaskPositions.Position position : this.taskPositions.get(indexedTask)) {
+                tasks.add(indexedTask.task());
+                positions.add(position);
+            }
+        }
+        return TaskPositions.sortByPosition(tasks, positions);
+    }
+
+    /**
+     * Returns the distinct tasks found in every one of the given sets, going through the smallest set.
+     *
+     * @param taskSets The sets of distinct tasks, of which there must be at least one.
+     * @return The distinct tasks in every set.
+     */
+    private static Set<IndexedTask> intersect(List<Set<IndexedTask>> taskSets) {
+        assert !taskSets.isEmpty() : "There must be at least one set of tasks to intersect.";
+        List<Set<IndexedTask>> sortedTaskSets = new ArrayList<>(taskSets);
+        sortedTaskSets.sort(Comparator.comparingInt(Set::size));
+        Set<IndexedTask> foundTasks = new LinkedHashSet<>();
+        for (IndexedTask indexedTask : sortedTaskSets.get(0)) {
+            if (sortedTaskSets.stream().allMatch(tasks -> tasks.contains(indexedTask))) {
+                foundTasks.add(indexedTask);
+            }
+        }
+        return foundTasks;
+    }
+}
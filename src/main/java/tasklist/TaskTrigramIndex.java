@@ -0,0 +1,268 @@
+package tasklist;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Represents an index from every three consecutive characters in the names of the tasks in a task list to
+ * the tasks, kept up to date as tasks are added and removed, so that tasks whose names contain a keyword can be
+ * found by checking only the tasks that contain all its three-character sequences.
+ * Characters are compared exactly, as for {@link String#contains}.
+ *
+ * <p>Each distinct task is given an id when first indexed, and postings hold ids in ascending order.
+ * Removing the last of a distinct task only frees its id, leaving it in the postings to be skipped,
+ * and the ids are renumbered once more ids are freed than are in use. Each distinct task also keeps the positions
+ * of its copies in the task list, so that the tasks found are returned in the order they are in the task list.
+ */
+class TaskTrigramIndex {
+    /**
+     * The number of consecutive characters indexed together, which is the shortest keyword the index can narrow.
+     */
+    static final int TRIGRAM_LENGTH = 3;
+    private static final int MIN_IDS_TO_RENUMBER = 1024;
+
+    /**
+     * The id and the positions of the copies of each distinct task in the task list.
+     */
+    private final Map<IndexedTask, TaskEntry> taskEntries;
+    /**
+     * The distinct task given each id, or null for freed ids.
+     */
+    private IndexedTask[] tasksById;
+    private final Map<Long, PostingList> postings;
+    private int nextId;
+    private int freedIdCount;
+
+    /**
+     * Constructor for TaskTrigramIndex class.
+     */
+    TaskTrigramIndex() {
+        this.taskEntries = new HashMap<>();
+        this.tasksById = new IndexedTask[16];
+        this.postings = new HashMap<>();
+        this.nextId = 0;
+        this.freedIdCount = 0;
+    }
+
+    /**
+     * Indexes a task added to the task list.
+     *
+     * @param task     The task added.
+     * @param position The position of the task in the task list.
+     */
+    void add(Task task, TaskPositions.Position position) {
+        IndexedTask indexedTask = new IndexedTask(task);
+        TaskEntry entry = this.taskEntries.get(indexedTask);
+        if (entry != null) {
+            entry.positions.add(position);
+            return;
+        }
+
+        int id = this.nextId++;
+        if (id == this.tasksById.length) {
+            this.tasksById = Arrays.copyOf(this.tasksById, this.tasksById.length * 2);
+        }
+        this.tasksById[id] = indexedTask;
+        this.taskEntries.put(indexedTask, new TaskEntry(id, position));
+        for (long trigram : TaskTrigramIndex.getTrigrams(task.getTaskName())) {
+            this.postings.computeIfAbsent(trigram, key -> new PostingList()).add(id);
+        }
+    }
+
+    /**
+     * Removes a task removed from the task list from the index.
+     *
+     * @param task     The task removed.
+     * @param position The position the task had in the task list.
+     */
+    void remove(Task task, TaskPositions.Position position) {
+        IndexedTask indexedTask = new IndexedTask(task);
+        TaskEntry entry = this.taskEntries.get(indexedTask);
+        assert entry != null : "Task removed must have been indexed.";
+        entry.positions.remove(position);
+        if (!entry.positions.isEmpty()) {
+            return;
+        }
+
+        this.taskEntries.remove(indexedTask);
+        this.tasksById[entry.id] = null;
+        this.freedIdCount++;
+        if (this.freedIdCount >= MIN_IDS_TO_RENUMBER && this.freedIdCount > this.nextId - this.freedIdCount) {
+            this.renumber();
+        }
+    }
+
+    /**
+     * Returns the tasks whose names contain a keyword of at least three characters.
+     *
+     * @param keyword The keyword to search for.
+     * @return The tasks found, in the order they are in the task list.
+     */
+    List<Task> findContaining(String keyword) {
+        assert keyword.length() >= TRIGRAM_LENGTH : "Keyword must be long enough to be narrowed down.";
+        List<Task> foundTasks = new ArrayList<>();
+        List<TaskPositions.Position> foundPositions = new ArrayList<>();
+        Set<Long> trigrams = TaskTrigramIndex.getTrigrams(keyword);
+        List<PostingList> trigramPostings = new ArrayList<>();
+        for (long trigram : trigrams) {
+            PostingList postingList = this.postings.get(trigram);
+            if (postingList == null) {
+                return foundTasks;
+            }
+            trigramPostings.add(postingList);
+        }
+        trigramPostings.sort(Comparator.comparingInt(postingList -> postingList.size));
+
+        PostingList shortestPostings = trigramPostings.get(0);
+        for (int i = 0; i < shortestPostings.size; i++) {
+            int id = shortestPostings.ids[i];
+            if (trigramPostings.stream().allMatch(postingList -> postingList.contains(id))) {
+                this.addIfContaining(foundTasks, foundPositions, id, keyword);
+            }
+        }
+        return TaskPositions.sortByPosition(foundTasks, foundPositions);
+    }
+
+    /**
+     * Adds every copy of the task with an id to the tasks found, with its position, if it is still indexed and
+     * its name contains the keyword.
+     *
+     * @param foundTasks     The tasks found.
+     * @param foundPositions The positions of the tasks found.
+     * @param id             The id of the task.
+     * @param keyword        The keyword to search for.
+     */
+    private void addIfContaining(List<Task> foundTasks, List<TaskPositions.Position> foundPositions, int id,
+            String keyword) {
+        IndexedTask indexedTask = this.tasksById[id];
+        if (indexedTask == null || !indexedTask.task().getTaskName().contains(keyword)) {
+            return;
+        }
+        for (TaskPositions.Position position : this.taskEntries.get(indexedTask).positions) {
+            foundTasks.add(indexedTask.task());
+            foundPositions.add(position);
+        }
+    }
+
+    /**
+     * Gives the tasks still indexed consecutive ids, dropping the freed ids from the postings.
+     */
+    private void renumber() {
+        int[] newIds = new int[this.nextId];
+        IndexedTask[] newTasksById = new IndexedTask[Math.max(16, this.nextId - this.freedIdCount)];
+        int newIdCount = 0;
+        for (int id = 0; id < this.nextId; id++) {
+            if (this.tasksById[id] == null) {
+                newIds[id] = -1;
+                continue;
+            }
+            newIds[id] = newIdCount;
+            newTasksById[newIdCount] = this.tasksById[id];
+            this.taskEntries.get(this.tasksById[id]).id = newIdCount;
+            newIdCount++;
+        }
+
+        this.postings.values().removeIf(postingList -> postingList.renumber(newIds) == 0);
+        this.tasksById = newTasksById;
+        this.nextId = newIdCount;
+        this.freedIdCount = 0;
+    }
+
+    /**
+     * Returns every distinct sequence of three consecutive characters in a text, each packed into a number.
+     *
+     * @param text The text.
+     * @return The packed sequences of characters.
+     */
+    private static Set<Long> getTrigrams(String text) {
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + TRIGRAM_LENGTH <= text.length(); i++) {
+            trigrams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Represents the id of a distinct task and the positions of its copies in the task list.
+     */
+    private static final class TaskEntry {
+        private int id;
+        private final List<TaskPositions.Position> positions;
+
+        /**
+         * Constructor for TaskEntry class.
+         *
+         * @param id       The id of the task.
+         * @param position The position of the first copy of the task.
+         */
+        private TaskEntry(int id, TaskPositions.Position position) {
+            this.id = id;
+            this.positions = new ArrayList<>(1);
+            this.positions.add(position);
+        }
+    }
+
+    /**
+     * Represents the ids of the tasks containing a sequence of characters, in ascending order.
+     */
+    private static final class PostingList {
+        private int[] ids;
+        private int size;
+
+        /**
+         * Constructor for PostingList class.
+         */
+        private PostingList() {
+            this.ids = new int[4];
+            this.size = 0;
+        }
+
+        /**
+         * Adds an id greater than every id in the list.
+         *
+         * @param id The id to add.
+         */
+        private void add(int id) {
+            assert this.size == 0 || this.ids[this.size - 1] < id : "Ids must be added in ascending order.";
+            if (this.size == this.ids.length) {
+                this.ids = Arrays.copyOf(this.ids, this.size * 2);
+            }
+            this.ids[this.size++] = id;
+        }
+
+        /**
+         * Checks if the list holds an id, by binary search.
+         *
+         * @param id The id to find.
+         * @return True if the list holds the id, false otherwise.
+         */
+        private boolean contains(int id) {
+            return Arrays.binarySearch(this.ids, 0, this.size, id) >= 0;
+        }
+
+        /**
+         * Replaces the ids in the list with new ids, dropping the ids that have none.
+         *
+         * @param newIds The new id for each id, or -1 if it is dropped.
+         * @return The number of ids left in the list.
+         */
+        private int renumber(int[] newIds) {
+            int newSize = 0;
+            for (int i = 0; i < this.size; i++) {
+                int newId = newIds[this.ids[i]];
+                if (newId >= 0) {
+                    this.ids[newSize++] = newId;
+                }
+            }
+            this.size = newSize;
+            this.ids = Arrays.copyOf(this.ids, Math.max(4, newSize));
+            return newSize;
+        }
+    }
+}
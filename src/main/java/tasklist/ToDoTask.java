@@ -22,6 +22,14 @@ public class ToDoTask extends Task {
         return 'T';
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Task copyWithoutCompletion() {
+        return new ToDoTask(this.getTaskName());
+    }
+
     /**
      * Returns additional information about the to-do task, which is an empty string.
      *
@@ -49,4 +57,14 @@ public class ToDoTask extends Task {
         ToDoTask other = (ToDoTask) obj;
         return this.getTaskName().equals(other.getTaskName());
     }
+
+    /**
+     * Returns a hash code of the to-do task, consistent with its equality to other tasks.
+     *
+     * @return A hash code of the task name.
+     */
+    @Override
+    public int hashCode() {
+        return this.getTaskName().hashCode();
+    }
 }
@@ -0,0 +1,137 @@
+package tasklist;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a BK-tree of words, which finds the words within an edit distance of a word without comparing it
+ * against every word. Each child of a word is keyed by its edit distance to the word, so by the triangle
+ * inequality a search only needs to visit the children whose keys are within the edit distance searched for of
+ * the distance between the word searched for and their parent.
+ * Edit distance is the Levenshtein distance, counting inserted, deleted and substituted characters.
+ */
+class WordBkTree {
+    private Node root;
+    private int size;
+
+    /**
+     * Constructor for WordBkTree class.
+     */
+    WordBkTree() {
+        this.root = null;
+        this.size = 0;
+    }
+
+    /**
+     * Returns the number of words in the tree.
+     *
+     * @return The number of words.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Adds a word to the tree, if it is not in the tree already.
+     *
+     * @param word The word to be added.
+     */
+    void add(String word) {
+        if (this.root == null) {
+            this.root = new Node(word);
+            this.size++;
+            return;
+        }
+
+        Node node = this.root;
+        while (true) {
+            int distance = WordBkTree.getEditDistance(node.word, word);
+            if (distance == 0) {
+                return;
+            }
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(word));
+                this.size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Returns the words in the tree within an edit distance of a word.
+     *
+     * @param word     The word to search for.
+     * @param maxEdits The largest edit distance of the words to return.
+     * @return The words found.
+     */
+    List<String> findWithin(String word, int maxEdits) {
+        assert maxEdits >= 0 : "Edit distance cannot be negative.";
+        List<String> foundWords = new ArrayList<>();
+        List<Node> nodesToVisit = new ArrayList<>();
+        if (this.root != null) {
+            nodesToVisit.add(this.root);
+        }
+        while (!nodesToVisit.isEmpty()) {
+            Node node = nodesToVisit.remove(nodesToVisit.size() - 1);
+            int distance = WordBkTree.getEditDistance(node.word, word);
+            if (distance <= maxEdits) {
+                foundWords.add(node.word);
+            }
+            for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                if (Math.abs(child.getKey() - distance) <= maxEdits) {
+                    nodesToVisit.add(child.getValue());
+                }
+            }
+        }
+        return foundWords;
+    }
+
+    /**
+     * Returns the Levenshtein distance between two words, keeping only two rows of the distance table.
+     *
+     * @param first  The first word.
+     * @param second The second word.
+     * @return The number of characters inserted, deleted or substituted to turn one word into the other.
+     */
+    static int getEditDistance(String first, String second) {
+        int[] previousRow = new int[second.length() + 1];
+        int[] currentRow = new int[second.length() + 1];
+        for (int j = 0; j <= second.length(); j++) {
+            previousRow[j] = j;
+        }
+        for (int i = 1; i <= first.length(); i++) {
+            currentRow[0] = i;
+            for (int j = 1; j <= second.length(); j++) {
+                int substitutionCost = first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1;
+                currentRow[j] = Math.min(previousRow[j - 1] + substitutionCost,
+                        Math.min(previousRow[j], currentRow[j - 1]) + 1);
+            }
+            int[] row = previousRow;
+            previousRow = currentRow;
+            currentRow = row;
+        }
+        return previousRow[second.length()];
+    }
+
+    /**
+     * Represents a node of the tree, holding a word and its children by their edit distance to it.
+     */
+    private static final class Node {
+        private final String word;
+        private final Map<Integer, Node> children;
+
+        /**
+         * Constructor for Node class.
+         *
+         * @param word The word held by the node.
+         */
+        private Node(String word) {
+            this.word = word;
+            this.children = new HashMap<>();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package kipp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import tasklist.DeadlineTask;
+import tasklist.EventTask;
+import tasklist.Task;
+import tasklist.TaskList;
+import tasklist.TaskListMutation;
+import tasklist.ToDoTask;
+
+public class MutationHistoryTest {
+    private static final int MAX_MUTATIONS = 100;
+
+    private MutationHistory history;
+
+    @BeforeEach
+    public void setUp() {
+        this.history = new MutationHistory(MutationHistoryTest.MAX_MUTATIONS);
+    }
+
+    @Test
+    public void testHistoryIsBounded() {
+        for (int i = 0; i <= MutationHistoryTest.MAX_MUTATIONS; i++) {
+            this.history.record(TaskListMutation.createAddMutation(i, new ToDoTask("Task " + i)));
+        }
+
+        for (int i = MutationHistoryTest.MAX_MUTATIONS; i > 0; i--) {
+            Optional<TaskListMutation> mutation = this.history.undo();
+            assertTrue(mutation.isPresent(), "Each of the last mutations should be kept to be undone.");
+            assertEquals(TaskListMutation.createDeleteMutation(i, mutation.get().task()), mutation.get(),
+                    "Mutations should be undone from the most recent.");
+        }
+        assertTrue(this.history.undo().isEmpty(), "Oldest mutation should be dropped once the history is full.");
+    }
+
+    @Test
+    public void testRecordClearsRedo() {
+        this.history.record(TaskListMutation.createAddMutation(0, new ToDoTask("Fix spaceship")));
+        this.history.record(TaskListMutation.createSetCompleteMutation(0));
+        this.history.undo();
+
+        this.history.record(TaskListMutation.createSetIncompleteMutation(0));
+        assertTrue(this.history.redo().isEmpty(), "Recording a mutation should forget the mutations undone.");
+        assertEquals(Optional.of(TaskListMutation.createSetCompleteMutation(0)), this.history.undo(),
+                "Recorded mutation should be undone first.");
+    }
+
+    @Test
+    public void testClear() {
+        this.history.record(TaskListMutation.createAddMutation(0, new ToDoTask("Fix spaceship")));
+        this.history.record(TaskListMutation.createSetCompleteMutation(0));
+        this.history.undo();
+
+        this.history.clear();
+        assertTrue(this.history.undo().isEmpty(), "Nothing should be undone once a task list is loaded.");
+        assertTrue(this.history.redo().isEmpty(), "Nothing should be redone once a task list is loaded.");
+    }
+
+    @Test
+    public void testUndoRedoDelete() {
+        TaskList taskList = TaskList.createCompactTaskList();
+        taskList.addTask(new ToDoTask("Fix spaceship"));
+        taskList.addTask(new DeadlineTask("Communicate with earth", LocalDate.of(2024, 1, 1)));
+        taskList.addTask(new EventTask("Explore Miller's planet", LocalDate.of(2023, 1, 1), LocalDate.of(2025, 1, 2)));
+        taskList.setTaskComplete(1);
+        String originalTasks = taskList.toString();
+
+        Task deletedTask = taskList.getTask(1);
+        TaskListMutation deleteMutation = TaskListMutation.createDeleteMutation(1, deletedTask);
+        deleteMutation.applyTo(taskList);
+        this.history.record(deleteMutation);
+        String remainingTasks = taskList.toString();
+
+        this.history.undo().orElseThrow().applyTo(taskList);
+        assertEquals(originalTasks, taskList.toString(), "Undoing a delete should put the task back in place.");
+        this.history.redo().orElseThrow().applyTo(taskList);
+        assertEquals(remainingTasks, taskList.toString(), "Redoing a delete should take the task off again.");
+        this.history.undo().orElseThrow().applyTo(taskList);
+        assertEquals(originalTasks, taskList.toString(), "Undoing a redone delete should put the task back again.");
+        assertTrue(taskList.getTask(1).isCompleted(), "Task put back should still be completed.");
+    }
+}
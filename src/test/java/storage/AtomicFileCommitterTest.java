@@ -0,0 +1,50 @@
+package storage;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class AtomicFileCommitterTest {
+    private static final String TEST_FILE_RELATIVE_PATH = "test_committed_file.txt";
+
+    @AfterEach
+    void deleteTestFile() {
+        assertDoesNotThrow(() -> Files.deleteIfExists(Paths.get(AtomicFileCommitterTest.TEST_FILE_RELATIVE_PATH)));
+    }
+
+    @Test
+    public void testCommit() {
+        Path path = Paths.get(AtomicFileCommitterTest.TEST_FILE_RELATIVE_PATH);
+
+        assertDoesNotThrow(() -> {
+            AtomicFileCommitter.commit(path, out -> out.write('a'));
+            AtomicFileCommitter.commit(path, out -> out.write('b'));
+            assertEquals("b", Files.readString(path), "Later contents should replace earlier contents.");
+        });
+    }
+
+    @Test
+    public void testCommitKeepsPermissions() {
+        Path path = Paths.get(AtomicFileCommitterTest.TEST_FILE_RELATIVE_PATH);
+
+        assertDoesNotThrow(() -> {
+            AtomicFileCommitter.commit(path, out -> out.write('a'));
+            if (Files.getFileAttributeView(path, PosixFileAttributeView.class) == null) {
+                return;
+            }
+            Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rw-rw-r--"));
+
+            AtomicFileCommitter.commit(path, out -> out.write('b'));
+            assertEquals("rw-rw-r--", PosixFilePermissions.toString(Files.getPosixFilePermissions(path)),
+                    "Replacing a file should keep its permissions.");
+        });
+    }
+}
@@ -0,0 +1,115 @@
+package storage;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import tasklist.DeadlineTask;
+import tasklist.EventTask;
+import tasklist.TaskList;
+import tasklist.ToDoTask;
+
+public class ColumnarTaskListFileTest {
+    private static final String TEST_FILE_RELATIVE_PATH = "test_columnar_file.txt";
+
+    private TaskList getSampleTaskList() {
+        TaskList taskList = new TaskList();
+        taskList.addTask(new ToDoTask("Fix spaceship"));
+        taskList.addTask(new DeadlineTask("Communicate with earth", LocalDate.of(2024, 1, 1)));
+        taskList.addTask(new EventTask("Explore Miller's planet", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 2)));
+        taskList.addTask(new ToDoTask("Rendezvous with Endurance \u2604"));
+        taskList.setTaskComplete(1);
+
+        return taskList;
+    }
+
+    @AfterEach
+    void deleteTestFile() {
+        File file = new File(ColumnarTaskListFileTest.TEST_FILE_RELATIVE_PATH);
+        if (!file.delete()) {
+            fail("Test file could not be deleted.");
+        }
+    }
+
+    @Test
+    public void testWriteAndOpen() {
+        Path path = Paths.get(ColumnarTaskListFileTest.TEST_FILE_RELATIVE_PATH);
+        TaskList savedTaskList = this.getSampleTaskList();
+
+        assertDoesNotThrow(() -> ColumnarTaskListFile.write(path, savedTaskList));
+        assertDoesNotThrow(() -> {
+            assertTrue(ColumnarTaskListFile.isColumnarFile(path), "Written file should be recognized as columnar.");
+            ColumnarTaskListFile file = ColumnarTaskListFile.open(path);
+            assertEquals(savedTaskList.getLength(), file.getLength());
+            assertEquals('E', file.getTypeSymbol(2), "Type symbol should be readable without decoding the task.");
+            assertTrue(file.isCompleted(1), "Completion should be readable without decoding the task.");
+            assertFalse(file.isCompleted(3), "Completion should be readable without decoding the task.");
+            assertEquals("Rendezvous with Endurance \u2604", file.getTaskName(3),
+                    "Names should be decoded from the heap as UTF-8.");
+            assertEquals(savedTaskList, file.toTaskList(),
+                    "Task list decoded from file should be logically equivalent to task list written.");
+        });
+    }
+
+    @Test
+    public void testReplaceWhileOpen() {
+        Path path = Paths.get(ColumnarTaskListFileTest.TEST_FILE_RELATIVE_PATH);
+        TaskList savedTaskList = this.getSampleTaskList();
+
+        assertDoesNotThrow(() -> {
+            ColumnarTaskListFile.write(path, savedTaskList);
+            ColumnarTaskListFile file = ColumnarTaskListFile.open(path);
+            // Nothing of the file may be held open, or it could not be replaced on Windows.
+            ColumnarTaskListFile.write(path, new TaskList());
+            assertEquals(savedTaskList, file.toTaskList(), "Opened file should keep the tasks it was opened with.");
+            assertEquals(0, ColumnarTaskListFile.open(path).getLength(), "File should hold the tasks written last.");
+        });
+    }
+
+    @Test
+    public void testReadId() {
+        Path path = Paths.get(ColumnarTaskListFileTest.TEST_FILE_RELATIVE_PATH);
+        TaskList savedTaskList = this.getSampleTaskList();
+
+        assertDoesNotThrow(() -> {
+            ColumnarTaskListFile.write(path, savedTaskList);
+            int firstId = ColumnarTaskListFile.readId(path);
+            ColumnarTaskListFile.write(path, savedTaskList);
+            int secondId = ColumnarTaskListFile.readId(path);
+            assertNotEquals(0, firstId, "Written file should have an id.");
+            assertNotEquals(firstId, secondId, "Each write should give the file a new id.");
+
+            TaskListTextFile.write(path, savedTaskList);
+            assertEquals(0, ColumnarTaskListFile.readId(path), "File in another format should have no id.");
+        });
+    }
+
+    @Test
+    public void testOpenLegacyFile() {
+        Storage<TaskList> legacyStorage = new Storage<>(ColumnarTaskListFileTest.TEST_FILE_RELATIVE_PATH,
+                TaskList.class);
+        Path path = Paths.get(ColumnarTaskListFileTest.TEST_FILE_RELATIVE_PATH);
+
+        assertDoesNotThrow(() -> legacyStorage.save(this.getSampleTaskList()));
+        assertDoesNotThrow(() -> assertFalse(ColumnarTaskListFile.isColumnarFile(path),
+                "Serialized file should not be recognized as columnar."));
+        try {
+            ColumnarTaskListFile.open(path);
+            fail();
+        } catch (StorageException e) {
+            assertEquals(String.format("Error loading data from file: %s.", path), e.getMessage(),
+                    "Opening a file in another format should throw an exception.");
+        }
+    }
+}
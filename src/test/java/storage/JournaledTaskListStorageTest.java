@@ -0,0 +1,198 @@
+package storage;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.File;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import tasklist.DeadlineTask;
+import tasklist.EventTask;
+import tasklist.TaskList;
+import tasklist.TaskListMutation;
+import tasklist.ToDoTask;
+
+public class JournaledTaskListStorageTest {
+    private static final String TEST_FILE_RELATIVE_PATH = "test_journaled_file.txt";
+
+    private TaskList getSampleTaskList() {
+        TaskList taskList = new TaskList();
+        taskList.addTask(new ToDoTask("Fix spaceship"));
+        taskList.addTask(new DeadlineTask("Communicate with earth", LocalDate.of(2024, 1, 1)));
+        taskList.addTask(new EventTask("Explore Miller's planet", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 2)));
+
+        return taskList;
+    }
+
+    private void applyAndRecord(TaskList taskList, JournaledTaskListStorage storage, TaskListMutation mutation) {
+        mutation.applyTo(taskList);
+        storage.record(mutation);
+    }
+
+    private void applySampleMutations(TaskList taskList, JournaledTaskListStorage storage) {
+        this.applyAndRecord(taskList, storage, TaskListMutation.createSetCompleteMutation(0));
+        this.applyAndRecord(taskList, storage, TaskListMutation.createDeleteMutation(1, taskList.getTask(1)));
+        this.applyAndRecord(taskList, storage,
+                TaskListMutation.createAddMutation(taskList.getLength(), new ToDoTask("Dock with Endurance")));
+        this.applyAndRecord(taskList, storage, TaskListMutation.createSetCompleteMutation(2));
+        this.applyAndRecord(taskList, storage, TaskListMutation.createSetIncompleteMutation(0));
+    }
+
+    @AfterEach
+    void deleteTestFiles() {
+        File directory = new File(".");
+        File[] testFiles = directory.listFiles((dir, name) ->
+                name.startsWith(JournaledTaskListStorageTest.TEST_FILE_RELATIVE_PATH));
+        if (testFiles == null) {
+            fail("Test files could not be listed.");
+        }
+        for (File file : testFiles) {
+            if (!file.delete()) {
+                fail("Test file could not be deleted.");
+            }
+        }
+    }
+
+    @Test
+    public void testSaveAppendsToJournal() {
+        JournaledTaskListStorage storage = new JournaledTaskListStorage(TEST_FILE_RELATIVE_PATH);
+        TaskList savedTaskList = this.getSampleTaskList();
+        File snapshot = new File(TEST_FILE_RELATIVE_PATH);
+        File journal = new File(TEST_FILE_RELATIVE_PATH + ".journal");
+
+        assertDoesNotThrow(() -> storage.save(savedTaskList));
+        assertFalse(journal.exists(), "First save should write a full snapshot without a journal.");
+        long snapshotLastModified = snapshot.lastModified();
+        long snapshotLength = snapshot.length();
+
+        this.applySampleMutations(savedTaskList, storage);
+        assertDoesNotThrow(() -> storage.save(savedTaskList));
+        assertTrue(journal.exists(), "Later saves should append changes to the journal.");
+        assertEquals(snapshotLastModified, snapshot.lastModified(), "Later saves should not rewrite the snapshot.");
+        assertEquals(snapshotLength, snapshot.length(), "Later saves should not rewrite the snapshot.");
+
+        assertDoesNotThrow(() -> {
+            TaskList loadedTaskList = new JournaledTaskListStorage(TEST_FILE_RELATIVE_PATH).load();
+            assertEquals(savedTaskList, loadedTaskList,
+                    "Task list loaded should have the journaled changes replayed onto the snapshot.");
+            for (int i = 0; i < savedTaskList.getLength(); i++) {
+                assertEquals(savedTaskList.getTask(i).isCompleted(), loadedTaskList.getTask(i).isCompleted(),
+                        "Completion of tasks should be replayed from the journal.");
+            }
+        });
+    }
+
+    @Test
+    public void testUnsavedChangesAreNotJournaled() {
+        JournaledTaskListStorage storage = new JournaledTaskListStorage(TEST_FILE_RELATIVE_PATH);
+        TaskList taskList = this.getSampleTaskList();
+
+        assertDoesNotThrow(() -> storage.save(taskList));
+        this.applySampleMutations(taskList, storage);
+
+        assertDoesNotThrow(() -> assertEquals(this.getSampleTaskList(),
+                new JournaledTaskListStorage(TEST_FILE_RELATIVE_PATH).load(),
+                "Changes should only be persisted once the task list is saved."));
+    }
+
+    @Test
+    public void testJournalCompaction() {
+        JournaledTaskListStorage storage = new JournaledTaskListStorage(TEST_FILE_RELATIVE_PATH, 1);
+        TaskList savedTaskList = this.getSampleTaskList();
+
+        assertDoesNotThrow(() -> storage.save(savedTaskList));
+        this.applySampleMutations(savedTaskList, storage);
+        assertDoesNotThrow(() -> storage.save(savedTaskList));
+
+        assertDoesNotThrow(() -> assertEquals(savedTaskList, storage.load(),
+                "Task list should be unchanged after the journal is compacted into the snapshot."));
+        File directory = new File(".");
+        String[] journalFiles = directory.list((dir, name) ->
+                name.startsWith(JournaledTaskListStorageTest.TEST_FILE_RELATIVE_PATH + ".journal"));
+        assertEquals(0, journalFiles == null ? -1 : journalFiles.length,
+                "Journal should be removed once compacted into the snapshot.");
+    }
+
+    @Test
+    public void testLoadFromCache() {
+        JournaledTaskListStorage storage = new JournaledTaskListStorage(TEST_FILE_RELATIVE_PATH);
+        TaskList savedTaskList = this.getSampleTaskList();
+
+        assertDoesNotThrow(() -> {
+            storage.save(savedTaskList);
+            TaskList firstTaskList = new JournaledTaskListStorage(TEST_FILE_RELATIVE_PATH).load();
+            firstTaskList.setTaskComplete(0);
+            firstTaskList.deleteTask(1);
+
+            TaskList secondTaskList = new JournaledTaskListStorage(TEST_FILE_RELATIVE_PATH).load();
+            assertEquals(savedTaskList, secondTaskList,
+                    "Changing a task list loaded from the cache should not change the cached task list.");
+            assertFalse(secondTaskList.getTask(0).isCompleted(),
+                    "Changing a task list loaded from the cache should not change the cached tasks.");
+
+            this.applySampleMutations(savedTaskList, storage);
+            storage.save(savedTaskList);
+            assertEquals(savedTaskList, new JournaledTaskListStorage(TEST_FILE_RELATIVE_PATH).load(),
+                    "Task list loaded after the files change should not come from the cache.");
+        });
+    }
+
+    @Test
+    public void testStaleSave() {
+        JournaledTaskListStorage storage = new JournaledTaskListStorage(TEST_FILE_RELATIVE_PATH);
+        JournaledTaskListStorage otherStorage = new JournaledTaskListStorage(TEST_FILE_RELATIVE_PATH);
+
+        assertDoesNotThrow(() -> {
+            storage.save(this.getSampleTaskList());
+            TaskList taskList = storage.load();
+            TaskList otherTaskList = otherStorage.load();
+            this.applyAndRecord(otherTaskList, otherStorage, TaskListMutation.createSetCompleteMutation(0));
+            otherStorage.save(otherTaskList);
+
+            this.applyAndRecord(taskList, storage, TaskListMutation.createDeleteMutation(1, taskList.getTask(1)));
+            StaleVersionException rejected = assertThrows(StaleVersionException.class, () -> storage.save(taskList),
+                    "Saving changes over a file changed by someone else should be rejected.");
+            assertFalse(rejected.isMerged(), "Changes other than added tasks should not be merged.");
+            assertEquals(otherTaskList, otherStorage.load(), "Rejected changes should not be written.");
+
+            TaskList reloadedTaskList = storage.load();
+            this.applyAndRecord(reloadedTaskList, storage, TaskListMutation.createAddMutation(
+                    reloadedTaskList.getLength(), new ToDoTask("Dock with Endurance")));
+            this.applyAndRecord(otherTaskList, otherStorage,
+                    TaskListMutation.createDeleteMutation(2, otherTaskList.getTask(2)));
+            otherStorage.save(otherTaskList);
+            StaleVersionException merged = assertThrows(StaleVersionException.class, () -> storage.save(
+                    reloadedTaskList), "Saving over a file changed by someone else should be reported.");
+            assertTrue(merged.isMerged(), "Added tasks should be merged into a file changed by someone else.");
+            assertFalse(storage.isAttached(), "Storage should be detached from a file its changes were merged into.");
+
+            otherTaskList.addTask(new ToDoTask("Dock with Endurance"));
+            assertEquals(otherTaskList, storage.load(), "File should hold the changes of both storages.");
+        });
+    }
+
+    @Test
+    public void testInsertIsJournaled() {
+        JournaledTaskListStorage storage = new JournaledTaskListStorage(TEST_FILE_RELATIVE_PATH);
+        TaskList savedTaskList = this.getSampleTaskList();
+
+        assertDoesNotThrow(() -> storage.save(savedTaskList));
+        this.applyAndRecord(savedTaskList, storage,
+                TaskListMutation.createDeleteMutation(1, savedTaskList.getTask(1)));
+        this.applyAndRecord(savedTaskList, storage,
+                TaskListMutation.createInsertMutation(1, new ToDoTask("Dock with Endurance")));
+        this.applyAndRecord(savedTaskList, storage,
+                TaskListMutation.createInsertMutation(0, new ToDoTask("Wake up Mann")));
+        assertDoesNotThrow(() -> storage.save(savedTaskList));
+
+        assertDoesNotThrow(() -> assertEquals(savedTaskList, new JournaledTaskListStorage(TEST_FILE_RELATIVE_PATH)
+                .load(), "Tasks inserted should be replayed from the journal at their positions."));
+    }
+}
@@ -0,0 +1,146 @@
+package storage;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import tasklist.DeadlineTask;
+import tasklist.EventTask;
+import tasklist.Task;
+import tasklist.TaskList;
+import tasklist.TaskListMutation;
+import tasklist.ToDoTask;
+
+public class LsmTaskListStorageTest {
+    private static final String TEST_DIRECTORY_RELATIVE_PATH = "test_store.db/";
+
+    private TaskList getSampleTaskList() {
+        TaskList taskList = new TaskList();
+        taskList.addTask(new ToDoTask("Fix spaceship"));
+        taskList.addTask(new DeadlineTask("Communicate with earth", LocalDate.of(2024, 1, 1)));
+        taskList.addTask(new EventTask("Explore Miller's planet", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 2)));
+        taskList.addTask(new DeadlineTask("Send data to Murph", LocalDate.of(2024, 1, 20)));
+
+        return taskList;
+    }
+
+    private void applyAndRecord(TaskList taskList, TaskListStorage storage, TaskListMutation mutation) {
+        mutation.applyTo(taskList);
+        storage.record(mutation);
+    }
+
+    private void applySampleMutations(TaskList taskList, TaskListStorage storage) throws StorageException {
+        this.applyAndRecord(taskList, storage, TaskListMutation.createSetCompleteMutation(0));
+        storage.save(taskList);
+        this.applyAndRecord(taskList, storage, TaskListMutation.createDeleteMutation(1, taskList.getTask(1)));
+        storage.save(taskList);
+        this.applyAndRecord(taskList, storage,
+                TaskListMutation.createAddMutation(taskList.getLength(), new ToDoTask("Dock with Endurance")));
+        storage.save(taskList);
+        this.applyAndRecord(taskList, storage, TaskListMutation.createSetCompleteMutation(3));
+        storage.save(taskList);
+        this.applyAndRecord(taskList, storage, TaskListMutation.createSetIncompleteMutation(0));
+        storage.save(taskList);
+    }
+
+    private int countSegments() throws IOException {
+        // Segments no longer live may be left in the directory on Windows while task lists still map them.
+        return new LsmTaskListStorage(LsmTaskListStorageTest.TEST_DIRECTORY_RELATIVE_PATH).readManifest().size();
+    }
+
+    @AfterEach
+    void deleteTestDirectory() {
+        File directory = new File(LsmTaskListStorageTest.TEST_DIRECTORY_RELATIVE_PATH);
+        File[] files = directory.listFiles();
+        boolean isMappedSegmentLeft = false;
+        if (files != null) {
+            for (File file : files) {
+                if (file.delete()) {
+                    continue;
+                } else if (!file.getName().endsWith(".seg")) {
+                    fail("Test file could not be deleted.");
+                }
+                // Windows keeps segments still mapped by task lists from being deleted. They are never live again,
+                // so the store removes them once it next loads.
+                isMappedSegmentLeft = true;
+            }
+        }
+        if (!directory.delete() && !isMappedSegmentLeft) {
+            fail("Test directory could not be deleted.");
+        }
+    }
+
+    @Test
+    public void testSaveAndLoad() {
+        LsmTaskListStorage storage = new LsmTaskListStorage(LsmTaskListStorageTest.TEST_DIRECTORY_RELATIVE_PATH);
+        TaskList savedTaskList = this.getSampleTaskList();
+
+        assertDoesNotThrow(() -> {
+            storage.save(savedTaskList);
+            this.applySampleMutations(savedTaskList, storage);
+            assertTrue(new File(LsmTaskListStorageTest.TEST_DIRECTORY_RELATIVE_PATH, "wal.log").exists(),
+                    "Changes should be appended to the log.");
+            assertEquals(1, this.countSegments(), "Changes below the threshold should not be written as segments.");
+
+            LsmTaskListStorage loadingStorage = new LsmTaskListStorage(
+                    LsmTaskListStorageTest.TEST_DIRECTORY_RELATIVE_PATH);
+            TaskList loadedTaskList = loadingStorage.load();
+            assertEquals(savedTaskList, loadedTaskList, "Task list loaded should have the logged changes applied.");
+            assertEquals(1, this.countSegments(), "Loading should fold the log into a single segment.");
+
+            this.applySampleMutations(loadedTaskList, loadingStorage);
+            assertEquals(loadedTaskList, new LsmTaskListStorage(
+                    LsmTaskListStorageTest.TEST_DIRECTORY_RELATIVE_PATH).load(),
+                    "Changes to a loaded task list should be saved to the tasks they were made to.");
+        });
+    }
+
+    @Test
+    public void testSegmentsAreMerged() {
+        LsmTaskListStorage storage = new LsmTaskListStorage(
+                LsmTaskListStorageTest.TEST_DIRECTORY_RELATIVE_PATH, 1, 2);
+        TaskList savedTaskList = this.getSampleTaskList();
+
+        assertDoesNotThrow(() -> {
+            storage.save(savedTaskList);
+            this.applySampleMutations(savedTaskList, storage);
+            this.applySampleMutations(savedTaskList, storage);
+            assertEquals(savedTaskList, storage.load(),
+                    "Task list should be unchanged after changes are written as segments and merged.");
+            assertEquals(1, this.countSegments(), "Segments should be merged into one.");
+        });
+    }
+
+    @Test
+    public void testInsertedTasks() {
+        LsmTaskListStorage storage = new LsmTaskListStorage(LsmTaskListStorageTest.TEST_DIRECTORY_RELATIVE_PATH);
+        TaskList savedTaskList = this.getSampleTaskList();
+
+        assertDoesNotThrow(() -> {
+            storage.save(savedTaskList);
+            Task deletedTask = savedTaskList.getTask(1);
+            this.applyAndRecord(savedTaskList, storage, TaskListMutation.createDeleteMutation(1, deletedTask));
+            this.applyAndRecord(savedTaskList, storage, TaskListMutation.createInsertMutation(1, deletedTask));
+            assertTrue(storage.isAttached(), "Task put back where it was deleted should be recorded in place.");
+            storage.save(savedTaskList);
+            assertEquals(savedTaskList, new LsmTaskListStorage(LsmTaskListStorageTest.TEST_DIRECTORY_RELATIVE_PATH)
+                    .load(), "Task put back should be saved at its position.");
+
+            this.applyAndRecord(savedTaskList, storage,
+                    TaskListMutation.createInsertMutation(0, new ToDoTask("Wake up Mann")));
+            assertFalse(storage.isAttached(), "Task inserted where none was deleted should detach the storage.");
+            storage.save(savedTaskList);
+            assertEquals(savedTaskList, new LsmTaskListStorage(LsmTaskListStorageTest.TEST_DIRECTORY_RELATIVE_PATH)
+                    .load(), "Task list should be written in full once detached.");
+        });
+    }
+}
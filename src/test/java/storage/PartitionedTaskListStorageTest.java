@@ -0,0 +1,140 @@
+package storage;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import tasklist.DeadlineTask;
+import tasklist.EventTask;
+import tasklist.Task;
+import tasklist.TaskList;
+import tasklist.TaskListMutation;
+import tasklist.ToDoTask;
+
+public class PartitionedTaskListStorageTest {
+    private static final String TEST_DIRECTORY_RELATIVE_PATH = "test_partitions/";
+
+    private TaskList getSampleTaskList() {
+        TaskList taskList = new TaskList();
+        taskList.addTask(new ToDoTask("Fix spaceship"));
+        taskList.addTask(new DeadlineTask("Communicate with earth", LocalDate.of(2024, 1, 1)));
+        taskList.addTask(new EventTask("Explore Miller's planet", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 2)));
+        taskList.addTask(new DeadlineTask("Send data to Murph", LocalDate.of(2024, 1, 20)));
+
+        return taskList;
+    }
+
+    private void applyAndRecord(TaskList taskList, TaskListStorage storage, TaskListMutation mutation) {
+        mutation.applyTo(taskList);
+        storage.record(mutation);
+    }
+
+    @AfterEach
+    void deleteTestDirectory() {
+        File directory = new File(PartitionedTaskListStorageTest.TEST_DIRECTORY_RELATIVE_PATH);
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (!file.delete()) {
+                    fail("Test file could not be deleted.");
+                }
+            }
+        }
+        if (!directory.delete()) {
+            fail("Test directory could not be deleted.");
+        }
+    }
+
+    @Test
+    public void testSaveAndLoad() {
+        PartitionedTaskListStorage storage = new PartitionedTaskListStorage(
+                PartitionedTaskListStorageTest.TEST_DIRECTORY_RELATIVE_PATH);
+        TaskList savedTaskList = this.getSampleTaskList();
+        savedTaskList.setTaskComplete(3);
+
+        assertDoesNotThrow(() -> storage.save(savedTaskList));
+        assertTrue(new File(PartitionedTaskListStorageTest.TEST_DIRECTORY_RELATIVE_PATH, "todo.shard").exists(),
+                "Tasks without dates should be kept in their own shard.");
+        assertTrue(new File(PartitionedTaskListStorageTest.TEST_DIRECTORY_RELATIVE_PATH, "2024-01.shard").exists(),
+                "Deadlines should be kept in the shard of the month they are due.");
+        assertDoesNotThrow(() -> {
+            TaskList loadedTaskList = new PartitionedTaskListStorage(
+                    PartitionedTaskListStorageTest.TEST_DIRECTORY_RELATIVE_PATH).load();
+            assertEquals(savedTaskList, loadedTaskList,
+                    "Tasks should be merged from all shards back into the order they were saved in.");
+            assertTrue(loadedTaskList.getTask(3).isCompleted(), "Completion should be kept in shards.");
+        });
+    }
+
+    @Test
+    public void testSaveRewritesChangedShardsOnly() {
+        PartitionedTaskListStorage storage = new PartitionedTaskListStorage(
+                PartitionedTaskListStorageTest.TEST_DIRECTORY_RELATIVE_PATH);
+        TaskList taskList = this.getSampleTaskList();
+        Path directory = Paths.get(PartitionedTaskListStorageTest.TEST_DIRECTORY_RELATIVE_PATH);
+        FileTime oldTime = FileTime.fromMillis(0);
+
+        assertDoesNotThrow(() -> {
+            storage.save(taskList);
+            for (String shardName : new String[] {"todo.shard", "2024-01.shard", "2025-01.shard"}) {
+                Files.setLastModifiedTime(directory.resolve(shardName), oldTime);
+            }
+
+            this.applyAndRecord(taskList, storage, TaskListMutation.createSetCompleteMutation(3));
+            this.applyAndRecord(taskList, storage, TaskListMutation.createDeleteMutation(2, taskList.getTask(2)));
+            this.applyAndRecord(taskList, storage, TaskListMutation.createAddMutation(
+                    taskList.getLength(), new DeadlineTask("Return to Cooper Station", LocalDate.of(2026, 3, 1))));
+            storage.save(taskList);
+
+            assertEquals(oldTime, Files.getLastModifiedTime(directory.resolve("todo.shard")),
+                    "Shards without changes should not be rewritten.");
+            assertNotEquals(oldTime, Files.getLastModifiedTime(directory.resolve("2024-01.shard")),
+                    "Shards with changed tasks should be rewritten.");
+            assertFalse(Files.exists(directory.resolve("2025-01.shard")), "Shards left empty should be removed.");
+            assertTrue(Files.exists(directory.resolve("2026-03.shard")), "Shards of added tasks should be written.");
+            assertEquals(taskList, new PartitionedTaskListStorage(
+                    PartitionedTaskListStorageTest.TEST_DIRECTORY_RELATIVE_PATH).load(),
+                    "Task list loaded should reflect the changes saved.");
+        });
+    }
+
+    @Test
+    public void testInsertedTasks() {
+        PartitionedTaskListStorage storage = new PartitionedTaskListStorage(
+                PartitionedTaskListStorageTest.TEST_DIRECTORY_RELATIVE_PATH);
+        TaskList savedTaskList = this.getSampleTaskList();
+
+        assertDoesNotThrow(() -> {
+            storage.save(savedTaskList);
+            Task deletedTask = savedTaskList.getTask(1);
+            this.applyAndRecord(savedTaskList, storage, TaskListMutation.createDeleteMutation(1, deletedTask));
+            this.applyAndRecord(savedTaskList, storage, TaskListMutation.createInsertMutation(1, deletedTask));
+            assertTrue(storage.isAttached(), "Task put back where it was deleted should be given a label between.");
+            storage.save(savedTaskList);
+            assertEquals(savedTaskList, new PartitionedTaskListStorage(
+                    PartitionedTaskListStorageTest.TEST_DIRECTORY_RELATIVE_PATH).load(),
+                    "Task put back should be saved at its position.");
+
+            this.applyAndRecord(savedTaskList, storage,
+                    TaskListMutation.createInsertMutation(2, new ToDoTask("Wake up Mann")));
+            assertFalse(storage.isAttached(), "Task inserted between consecutive labels should detach the storage.");
+            storage.save(savedTaskList);
+            assertEquals(savedTaskList, new PartitionedTaskListStorage(
+                    PartitionedTaskListStorageTest.TEST_DIRECTORY_RELATIVE_PATH).load(),
+                    "Task list should be written in full once detached.");
+        });
+    }
+}
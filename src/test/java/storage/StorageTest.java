@@ -7,6 +7,8 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.File;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -77,4 +79,44 @@ public class StorageTest {
                     "Task list loaded from file should be logically equivalent to task list saved to the same file.");
         });
     }
+
+    @Test
+    public void testSaveAndLoadCompressed() {
+        Storage<TaskList> compressedStorage = new Storage<>(StorageTest.TEST_FILE_RELATIVE_PATH, TaskList.class, true);
+        Storage<TaskList> uncompressedStorage = new Storage<>(StorageTest.TEST_FILE_RELATIVE_PATH, TaskList.class);
+        TaskList savedTaskList = this.getSampleTaskList();
+        for (int i = 0; i < 1000; i++) {
+            savedTaskList.addTask(new ToDoTask("Dock with Endurance " + i));
+        }
+
+        assertDoesNotThrow(() -> uncompressedStorage.save(savedTaskList));
+        long uncompressedLength = new File(StorageTest.TEST_FILE_RELATIVE_PATH).length();
+        assertDoesNotThrow(() -> compressedStorage.save(savedTaskList));
+        assertTrue(new File(StorageTest.TEST_FILE_RELATIVE_PATH).length() * 10 < uncompressedLength,
+                "Compressed file should be an order of magnitude smaller than uncompressed file.");
+        assertDoesNotThrow(() -> assertEquals(savedTaskList, uncompressedStorage.load(),
+                "Compressed file should be loaded whether or not storage saves compressed."));
+    }
+
+    @Test
+    public void testConcurrentSaves() {
+        Storage<TaskList> taskListStorage = new Storage<>(StorageTest.TEST_FILE_RELATIVE_PATH, TaskList.class);
+        List<TaskList> savedTaskLists = new ArrayList<>();
+        List<Thread> savingThreads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            TaskList taskList = this.getSampleTaskList();
+            taskList.addTask(new ToDoTask("Save attempt " + i));
+            savedTaskLists.add(taskList);
+            savingThreads.add(new Thread(() -> assertDoesNotThrow(() -> taskListStorage.save(taskList))));
+        }
+
+        savingThreads.forEach(Thread::start);
+        savingThreads.forEach(thread -> assertDoesNotThrow(() -> thread.join()));
+
+        assertDoesNotThrow(() -> assertTrue(savedTaskLists.contains(taskListStorage.load()),
+                "Task list loaded should be one of the task lists saved, never a mix of them."));
+        File[] tempFiles = new File(".").listFiles((dir, name) ->
+                name.startsWith(StorageTest.TEST_FILE_RELATIVE_PATH) && name.endsWith(".tmp"));
+        assertEquals(0, tempFiles == null ? -1 : tempFiles.length, "Temporary files should not be left behind.");
+    }
 }
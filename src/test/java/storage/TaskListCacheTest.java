@@ -0,0 +1,45 @@
+package storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import tasklist.TaskList;
+import tasklist.ToDoTask;
+
+public class TaskListCacheTest {
+    private List<TaskListCache.FileVersion> getVersions(Path path, long size) {
+        return List.of(new TaskListCache.FileVersion(path, size, 0, -1),
+                new TaskListCache.FileVersion(path.resolveSibling(path.getFileName() + ".journal"), -1, -1, -1));
+    }
+
+    @Test
+    public void testCacheIsBoundedByBytes() {
+        TaskListCache cache = new TaskListCache(1000);
+        Path firstPath = Paths.get("first.txt");
+        Path secondPath = Paths.get("second.txt");
+        TaskList taskList = new TaskList();
+        taskList.addTask(new ToDoTask("Fix spaceship"));
+
+        assertTrue(cache.put(firstPath, this.getVersions(firstPath, 600), taskList, 0),
+                "Task list within the bound should be cached.");
+        assertFalse(cache.put(secondPath, this.getVersions(secondPath, 1001), taskList, 0),
+                "Task list loaded from files larger than the bound should not be cached.");
+        assertEquals(taskList, cache.get(firstPath, this.getVersions(firstPath, 600)).taskList(),
+                "Task list should be found while its files are unchanged.");
+
+        assertTrue(cache.put(secondPath, this.getVersions(secondPath, 600), taskList, 0),
+                "Task list within the bound should be cached.");
+        assertNull(cache.get(firstPath, this.getVersions(firstPath, 600)),
+                "Least recently used task list should be evicted once the bound is exceeded.");
+        assertNull(cache.get(secondPath, this.getVersions(secondPath, 601)),
+                "Task list should not be found once its files change.");
+    }
+}
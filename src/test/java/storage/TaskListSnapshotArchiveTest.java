@@ -0,0 +1,95 @@
+package storage;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.File;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import tasklist.DeadlineTask;
+import tasklist.EventTask;
+import tasklist.TaskList;
+import tasklist.ToDoTask;
+
+public class TaskListSnapshotArchiveTest {
+    private static final String TEST_DIRECTORY_RELATIVE_PATH = "test_snapshots";
+
+    private TaskList getSampleTaskList() {
+        TaskList taskList = new TaskList();
+        taskList.addTask(new ToDoTask("Fix spaceship"));
+        taskList.addTask(new DeadlineTask("Communicate with earth", LocalDate.of(2024, 1, 1)));
+        taskList.addTask(new EventTask("Explore Miller's planet", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 2)));
+        for (int i = 0; i < 100; i++) {
+            taskList.addTask(new ToDoTask("Dock with Endurance " + i));
+        }
+
+        return taskList;
+    }
+
+    @AfterEach
+    void deleteTestDirectory() {
+        File directory = new File(TaskListSnapshotArchiveTest.TEST_DIRECTORY_RELATIVE_PATH);
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (!file.delete()) {
+                    fail("Test file could not be deleted.");
+                }
+            }
+        }
+        if (!directory.delete()) {
+            fail("Test directory could not be deleted.");
+        }
+    }
+
+    @Test
+    public void testDeltaSnapshots() {
+        TaskListSnapshotArchive archive = new TaskListSnapshotArchive(
+                TaskListSnapshotArchiveTest.TEST_DIRECTORY_RELATIVE_PATH);
+        TaskList taskList = this.getSampleTaskList();
+        TaskList firstTaskList = this.getSampleTaskList();
+
+        assertDoesNotThrow(() -> {
+            assertEquals(1, archive.writeSnapshot(taskList));
+            taskList.setTaskComplete(50);
+            taskList.deleteTask(0);
+            taskList.addTask(new ToDoTask("Ride the tesseract"));
+            assertEquals(2, archive.writeSnapshot(taskList));
+
+            assertFalse(archive.isDeltaSnapshot(1), "First snapshot should be full.");
+            assertTrue(archive.isDeltaSnapshot(2), "Snapshot after a few changes should be a delta.");
+            assertTrue(new File(TaskListSnapshotArchiveTest.TEST_DIRECTORY_RELATIVE_PATH, "00000002.delta").length()
+                    < new File(TaskListSnapshotArchiveTest.TEST_DIRECTORY_RELATIVE_PATH, "00000001.full").length(),
+                    "Delta snapshot should be smaller than full snapshot.");
+            assertEquals(firstTaskList, archive.readSnapshot(1), "Earlier snapshot should be unaffected by delta.");
+            assertEquals(taskList, archive.readLatestSnapshot(),
+                    "Delta snapshot should be read back as the task list snapshotted.");
+            assertTrue(archive.readLatestSnapshot().getTask(49).isCompleted(),
+                    "Completion changes should be kept in delta snapshot.");
+        });
+    }
+
+    @Test
+    public void testDeltaChainLimit() {
+        TaskListSnapshotArchive archive = new TaskListSnapshotArchive(
+                TaskListSnapshotArchiveTest.TEST_DIRECTORY_RELATIVE_PATH, 2);
+        TaskList taskList = this.getSampleTaskList();
+
+        assertDoesNotThrow(() -> {
+            for (int i = 1; i <= 4; i++) {
+                taskList.addTask(new ToDoTask("Snapshot " + i));
+                assertEquals(i, archive.writeSnapshot(taskList));
+            }
+            assertFalse(archive.isDeltaSnapshot(1), "First snapshot should be full.");
+            assertTrue(archive.isDeltaSnapshot(3), "Snapshots within the chain limit should be deltas.");
+            assertFalse(archive.isDeltaSnapshot(4), "Snapshot after the chain limit should be full.");
+            assertEquals(taskList, archive.readLatestSnapshot());
+        });
+    }
+}
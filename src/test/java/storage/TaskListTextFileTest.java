@@ -0,0 +1,94 @@
+package storage;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import tasklist.DeadlineTask;
+import tasklist.EventTask;
+import tasklist.TaskList;
+import tasklist.ToDoTask;
+
+public class TaskListTextFileTest {
+    private static final String TEST_FILE_RELATIVE_PATH = "test_text_file.txt";
+
+    private TaskList getSampleTaskList() {
+        TaskList taskList = new TaskList();
+        taskList.addTask(new ToDoTask("Fix spaceship"));
+        taskList.addTask(new DeadlineTask("Communicate with earth", LocalDate.of(2024, 1, 1)));
+        taskList.addTask(new EventTask("Explore Miller's planet", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 2)));
+        taskList.addTask(new ToDoTask("Escape | with \\ backslash \u2604"));
+        taskList.setTaskComplete(0);
+
+        return taskList;
+    }
+
+    @AfterEach
+    void deleteTestFile() {
+        File file = new File(TaskListTextFileTest.TEST_FILE_RELATIVE_PATH);
+        if (!file.delete()) {
+            fail("Test file could not be deleted.");
+        }
+    }
+
+    @Test
+    public void testWriteAndRead() {
+        Path path = Paths.get(TaskListTextFileTest.TEST_FILE_RELATIVE_PATH);
+        TaskList savedTaskList = this.getSampleTaskList();
+
+        assertDoesNotThrow(() -> TaskListTextFile.write(path, savedTaskList));
+        assertDoesNotThrow(() -> {
+            assertEquals(List.of(
+                    "T|x|Fix spaceship",
+                    "D| |Communicate with earth|2024-01-01",
+                    "E| |Explore Miller's planet|2025-01-01|2025-01-02",
+                    "T| |Escape \\| with \\\\ backslash \u2604"), Files.readAllLines(path, StandardCharsets.UTF_8),
+                    "Each task should be written as a line of text.");
+            assertTrue(TaskListTextFile.isTextFile(path), "Written file should be recognized as text.");
+            TaskList loadedTaskList = TaskListTextFile.read(path);
+            assertEquals(savedTaskList, loadedTaskList,
+                    "Task list read from file should be logically equivalent to task list written.");
+            assertTrue(loadedTaskList.getTask(0).isCompleted(), "Completion should be read from file.");
+        });
+    }
+
+    @Test
+    public void testReadInChunks() {
+        Path path = Paths.get(TaskListTextFileTest.TEST_FILE_RELATIVE_PATH);
+        TaskList savedTaskList = new TaskList();
+        for (int i = 0; i < 1000; i++) {
+            savedTaskList.addTask(new ToDoTask("Dock with Endurance " + i));
+        }
+
+        assertDoesNotThrow(() -> TaskListTextFile.write(path, savedTaskList));
+        assertDoesNotThrow(() -> assertEquals(savedTaskList, TaskListTextFile.read(path, new ForkJoinPool(4), 100),
+                "Tasks should be read in order when the file is split into many chunks."));
+    }
+
+    @Test
+    public void testReadInvalidLine() {
+        Path path = Paths.get(TaskListTextFileTest.TEST_FILE_RELATIVE_PATH);
+
+        assertDoesNotThrow(() -> Files.writeString(path, "T| |Fix spaceship\nD| |Communicate with earth\n"));
+        try {
+            TaskListTextFile.read(path);
+            fail();
+        } catch (StorageException e) {
+            assertEquals(String.format("Error loading data from file: %s.", path), e.getMessage(),
+                    "Reading a line that does not describe a task should throw an exception.");
+        }
+    }
+}
@@ -2,9 +2,15 @@ package tasklist;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -78,4 +84,520 @@ public class TaskListTest {
             assertFalse(this.taskList.getTask(i).isCompleted(), "Task should be marked as incomplete.");
         }
     }
+
+    @Test
+    public void testPagedTaskList() {
+        Task[] sourceTasks = new Task[10];
+        for (int i = 0; i < sourceTasks.length; i++) {
+            sourceTasks[i] = new ToDoTask("Task " + i);
+        }
+        TaskSource source = new TaskSource() {
+            @Override
+            public int getLength() {
+                return sourceTasks.length;
+            }
+
+            @Override
+            public Task getTask(int taskIdx) {
+                return new ToDoTask(sourceTasks[taskIdx].getTaskName());
+            }
+        };
+
+        TaskList pagedTaskList = TaskList.createPagedTaskList(source, 3, 1);
+        TaskList expectedTaskList = new TaskList();
+        for (Task task : sourceTasks) {
+            expectedTaskList.addTask(task);
+        }
+        assertEquals(expectedTaskList, pagedTaskList, "Paged task list should read every task from its source.");
+
+        pagedTaskList.setTaskComplete(1);
+        pagedTaskList.deleteTask(4);
+        pagedTaskList.deleteTask(0);
+        pagedTaskList.addTask(this.task2);
+        pagedTaskList.deleteTask(7);
+        expectedTaskList.setTaskComplete(1);
+        expectedTaskList.deleteTask(4);
+        expectedTaskList.deleteTask(0);
+        expectedTaskList.addTask(this.task2);
+        expectedTaskList.deleteTask(7);
+
+        // Read every page again, so that the page holding the completed task has been evicted and decoded again.
+        assertEquals(expectedTaskList, pagedTaskList, "Paged task list should keep changes apart from its source.");
+        assertTrue(pagedTaskList.getTask(0).isCompleted(), "Completion should survive the page being evicted.");
+        assertEquals(this.task2, pagedTaskList.getTask(pagedTaskList.getLength() - 1),
+                "Task should be added as last task in list.");
+
+        // Share the paged task list, and change the shared copy only.
+        TaskList sharedTaskList = pagedTaskList.share();
+        assertEquals(expectedTaskList, sharedTaskList, "Shared task list should hold the same tasks.");
+        sharedTaskList.deleteTask(0);
+        sharedTaskList.setTaskIncomplete(0);
+        assertEquals(expectedTaskList, pagedTaskList, "Changing a shared task list should not change the original.");
+        assertEquals(expectedTaskList.getLength() - 1, sharedTaskList.getLength(),
+                "Shared task list should keep its own changes.");
+
+        // Put a deleted task back in place, then insert a task where none was deleted.
+        pagedTaskList.insertTask(3, this.task1);
+        expectedTaskList.insertTask(3, this.task1);
+        assertEquals(expectedTaskList, pagedTaskList, "Task should be inserted where a task was deleted.");
+        pagedTaskList.insertTask(1, this.task3);
+        expectedTaskList.insertTask(1, this.task3);
+        assertEquals(expectedTaskList, pagedTaskList, "Task should be inserted where none was deleted.");
+        assertTrue(pagedTaskList.getTask(0).isCompleted(), "Completion should survive inserting tasks.");
+    }
+
+    @Test
+    public void testCompactTaskList() {
+        TaskList compactTaskList = TaskList.createCompactTaskList();
+        TaskList expectedTaskList = new TaskList();
+        for (int i = 0; i < 300; i++) {
+            Task task = switch (i % 3) {
+            case 0 -> new ToDoTask("Task \u00e9 " + i);
+            case 1 -> new DeadlineTask("Task " + i, LocalDate.of(2024, 1, 1).plusDays(i));
+            default -> new EventTask("Task " + i, LocalDate.of(1900, 1, 1), LocalDate.of(2100, 1, 1));
+            };
+            compactTaskList.addTask(task);
+            expectedTaskList.addTask(task);
+        }
+        assertEquals(expectedTaskList, compactTaskList, "Compact task list should hold every task added.");
+
+        // Delete most tasks, so that the names of deleted tasks are dropped from the packed names.
+        for (int i = 0; i < 250; i++) {
+            compactTaskList.setTaskComplete(i % 2);
+            compactTaskList.deleteTask(i % 3);
+            expectedTaskList.setTaskComplete(i % 2);
+            expectedTaskList.deleteTask(i % 3);
+        }
+        compactTaskList.setTaskIncomplete(0);
+        expectedTaskList.setTaskIncomplete(0);
+        assertEquals(expectedTaskList, compactTaskList, "Compact task list should keep every change made.");
+        for (int i = 0; i < expectedTaskList.getLength(); i++) {
+            assertEquals(expectedTaskList.getTask(i).isCompleted(), compactTaskList.getTask(i).isCompleted(),
+                    "Compact task list should keep the completion of every task.");
+        }
+        assertFalse(compactTaskList.getTask(0).isCompleted(), "Task should be set as incomplete.");
+    }
+
+    @Test
+    public void testOrderStatisticTaskSequence() {
+        OrderStatisticTaskSequence sequence = new OrderStatisticTaskSequence();
+        List<Task> expectedTasks = new ArrayList<>();
+        int taskCount = OrderStatisticTaskSequence.MAX_CHUNK_SIZE * 4;
+        for (int i = 0; i < taskCount; i++) {
+            Task task = new ToDoTask("Task " + i);
+            // Add tasks at the front, middle and end, so that full chunks are split in every way.
+            int taskIdx = i % 3 == 0 ? 0 : i % 3 == 1 ? expectedTasks.size() / 2 : expectedTasks.size();
+            sequence.add(taskIdx, task);
+            expectedTasks.add(taskIdx, task);
+        }
+        assertEquals(expectedTasks, sequence, "Sequence should hold every task at the position it was added.");
+
+        // Delete most tasks, so that emptied chunks are dropped and the rest are repacked.
+        for (int i = 0; i < taskCount - 10; i++) {
+            int taskIdx = (i * 7) % expectedTasks.size();
+            assertEquals(expectedTasks.remove(taskIdx), sequence.remove(taskIdx),
+                    "Deleted task should be the one at the position given.");
+        }
+        assertEquals(expectedTasks, sequence, "Sequence should keep the order of the tasks left.");
+    }
+
+    @Test
+    public void testTaskPositions() {
+        TaskPositions taskPositions = new TaskPositions(100);
+        List<TaskPositions.Position> expectedPositions = new ArrayList<>(taskPositions.getAll());
+        Random random = new Random(0);
+        for (int i = 0; i < 2000; i++) {
+            if (i % 3 == 0) {
+                int taskIdx = random.nextInt(expectedPositions.size());
+                assertSame(expectedPositions.remove(taskIdx), taskPositions.remove(taskIdx),
+                        "Position removed should be the one at the index given.");
+            } else {
+                int taskIdx = random.nextInt(expectedPositions.size() + 1);
+                expectedPositions.add(taskIdx, taskPositions.add(taskIdx));
+            }
+        }
+
+        assertEquals(expectedPositions, taskPositions.getAll(), "Positions should be kept in the order added.");
+        for (int i = 0; i < expectedPositions.size(); i++) {
+            assertEquals(i, expectedPositions.get(i).getIndex(), "Position should know its index.");
+            assertSame(expectedPositions.get(i), taskPositions.get(i), "Position should be found by its index.");
+        }
+    }
+
+    @Test
+    public void testRender() throws IOException {
+        this.taskList.addTask(this.task1);
+        this.taskList.addTask(this.task2);
+        this.taskList.addTask(this.task3);
+
+        StringBuilder out = new StringBuilder();
+        this.taskList.render(out, 1, 3);
+        assertEquals("2. " + this.task2 + "\n3. " + this.task3, out.toString(),
+                "Rendered tasks should be numbered by their position in the whole list.");
+        assertEquals("1. " + this.task1 + "\n" + out, this.taskList.toString(),
+                "Task list should be rendered in full as its string.");
+    }
+
+    @Test
+    public void testRenderTask() {
+        assertEquals("[T][ ] Fix spaceship", this.task1.toString(), "To-do task should be rendered without dates.");
+        assertEquals("[D][ ] Communicate with earth (by: Jan 1 2024)", this.task2.toString(),
+                "Deadline task should be rendered with its deadline date.");
+        assertEquals("[E][ ] Explore Miller's planet (from: Jan 1 2023 to: Jan 2 2025)", this.task3.toString(),
+                "Event task should be rendered with its start and end dates.");
+        assertSame(this.task2.toString(), this.task2.toString(), "Rendered task should be reused while unchanged.");
+
+        this.task2.setComplete();
+        assertEquals("[D][x] Communicate with earth (by: Jan 1 2024)", this.task2.toString(),
+                "Task should be rendered again once completed.");
+        this.task2.setIncomplete();
+        assertEquals("[D][ ] Communicate with earth (by: Jan 1 2024)", this.task2.toString(),
+                "Task should be rendered again once incomplete.");
+    }
+
+    @Test
+    public void testRenderCompactTaskList() {
+        OrderStatisticTaskSequence sequence = new OrderStatisticTaskSequence();
+        int taskCount = OrderStatisticTaskSequence.MAX_CHUNK_SIZE * 3;
+        for (int i = 0; i < taskCount; i++) {
+            sequence.add(sequence.size(), new DeadlineTask("Task " + i, LocalDate.of(2024, 1, 1).plusDays(i)));
+        }
+        String renderedTask = sequence.render(taskCount / 2);
+        assertSame(renderedTask, sequence.render(taskCount / 2), "Rendered task should be reused while unchanged.");
+
+        // Insert at the front, so that the full chunk holding the rendered task is split.
+        sequence.add(0, new ToDoTask("Fix spaceship"));
+        assertSame(renderedTask, sequence.render(taskCount / 2 + 1), "Rendered task should move with its task.");
+
+        Task task = sequence.get(taskCount / 2 + 1);
+        task.setComplete();
+        sequence.set(taskCount / 2 + 1, task);
+        assertEquals(task.toString(), sequence.render(taskCount / 2 + 1), "Changed task should be rendered again.");
+
+        Random random = new Random(0);
+        for (int i = 0; i < taskCount; i++) {
+            int taskIdx = random.nextInt(sequence.size());
+            sequence.render(taskIdx);
+            if (i % 2 == 0) {
+                sequence.remove(random.nextInt(sequence.size()));
+            } else {
+                sequence.add(random.nextInt(sequence.size() + 1), new ToDoTask("Task " + i));
+            }
+        }
+        for (int i = 0; i < sequence.size(); i++) {
+            assertEquals(sequence.get(i).toString(), sequence.render(i), "Every task should render as itself.");
+        }
+    }
+
+    @Test
+    public void testCountTasks() {
+        this.taskList.addTask(this.task1);
+        this.taskList.addTask(this.task2);
+        this.taskList.addTask(this.task3);
+        this.taskList.setTaskComplete(1);
+        this.taskList.deleteTask(0);
+        assertEquals(0, this.taskList.countTasks('T', false), "Deleted task should no longer be counted.");
+        assertEquals(1, this.taskList.countTasks('D', true), "Completed task should be counted as complete.");
+        assertEquals(0, this.taskList.countTasks('D', false), "Completed task should not be counted as incomplete.");
+        assertEquals(1, this.taskList.countTasks('E', false), "Incomplete task should be counted as incomplete.");
+
+        // A copy-on-write task list starts with tasks, which are counted when first asked for.
+        TaskList sharedTaskList = TaskList.createCopyOnWriteTaskList(List.of(this.task1, this.task1));
+        assertEquals(2, sharedTaskList.countTasks('T', false), "Existing tasks should be counted.");
+        sharedTaskList.setTaskComplete(0);
+        assertEquals(1, sharedTaskList.countTasks('T', true), "Counts should be kept up to date once counted.");
+    }
+
+    @Test
+    public void testFindByDate() {
+        Random random = new Random(0);
+        LocalDate firstDate = LocalDate.of(2024, 1, 1);
+        // Look up by date before changing the task list, so that the index is kept up to date with every change.
+        assertTrue(this.taskList.findDeadlinesDueBy(firstDate).isEmpty(), "Empty task list should have no tasks due.");
+        for (int i = 0; i < 500; i++) {
+            LocalDate startDate = firstDate.plusDays(random.nextInt(100));
+            this.taskList.addTask(i % 2 == 0
+                    ? new DeadlineTask("Deadline " + i, startDate)
+                    : new EventTask("Event " + i, startDate, startDate.plusDays(random.nextInt(10))));
+            if (i % 5 == 0) {
+                this.taskList.setTaskComplete(random.nextInt(this.taskList.getLength()));
+            }
+            if (i % 7 == 0) {
+                this.taskList.deleteTask(random.nextInt(this.taskList.getLength()));
+            }
+        }
+
+        for (int day = 0; day < 110; day += 3) {
+            LocalDate startDate = firstDate.plusDays(day);
+            LocalDate endDate = startDate.plusDays(day % 4);
+            List<Task> expectedDeadlines = new ArrayList<>();
+            List<Task> expectedEvents = new ArrayList<>();
+            for (int i = 0; i < this.taskList.getLength(); i++) {
+                Task task = this.taskList.getTask(i);
+                if (task instanceof DeadlineTask deadlineTask && !task.isCompleted()
+                        && !deadlineTask.getDeadlineDate().isAfter(startDate)) {
+                    expectedDeadlines.add(task);
+                } else if (task instanceof EventTask eventTask && !eventTask.getStartDate().isAfter(endDate)
+                        && !eventTask.getEndDate().isBefore(startDate)) {
+                    expectedEvents.add(task);
+                }
+            }
+            assertEquals(expectedDeadlines.size(), this.taskList.findDeadlinesDueBy(startDate).size(),
+                    "Every pending deadline due by the date should be found.");
+            assertTrue(this.taskList.findDeadlinesDueBy(startDate).containsAll(expectedDeadlines),
+                    "Every pending deadline due by the date should be found.");
+            assertEquals(expectedEvents.size(), this.taskList.findEventsDuring(startDate, endDate).size(),
+                    "Every event overlapping the dates should be found.");
+            assertTrue(this.taskList.findEventsDuring(startDate, endDate).containsAll(expectedEvents),
+                    "Every event overlapping the dates should be found.");
+        }
+    }
+
+    @Test
+    public void testSearchTasks() {
+        this.taskList.addTask(new ToDoTask("Buy milk, eggs"));
+        assertEquals(1, this.taskList.searchTasks("MILK", true).size(), "Words should be matched ignoring case.");
+
+        this.taskList.addTask(new ToDoTask("buy bread"));
+        this.taskList.addTask(new ToDoTask("buy bread"));
+        this.taskList.addTask(new DeadlineTask("Return milkshake", LocalDate.of(2024, 1, 1)));
+        this.taskList.setTaskComplete(1);
+        assertEquals(3, this.taskList.searchTasks("buy", true).size(), "Every task with the word should be found.");
+        assertEquals(1, this.taskList.searchTasks("buy milk", true).size(),
+                "Only tasks with all the words should be found.");
+        assertEquals(3, this.taskList.searchTasks("milk bread", false).size(),
+                "Tasks with any of the words should be found.");
+        assertTrue(this.taskList.searchTasks("bread", true).stream().anyMatch(Task::isCompleted),
+                "Completed task should be found as completed.");
+        assertEquals("[[T][ ] Buy milk, eggs, [T][x] buy bread, [T][ ] buy bread]",
+                this.taskList.searchTasks("milk bread", false).toString(),
+                "Tasks found should be in the order they are in the task list.");
+        this.taskList.setTaskComplete(0);
+        assertEquals("[[T][x] Buy milk, eggs, [T][x] buy bread, [T][ ] buy bread]",
+                this.taskList.searchTasks("buy", true).toString(), "Marked task should be found at its position.");
+        this.taskList.setTaskIncomplete(0);
+
+        this.taskList.deleteTask(0);
+        this.taskList.deleteTask(0);
+        assertTrue(this.taskList.searchTasks("milk", true).isEmpty(), "Deleted task should no longer be found.");
+        assertEquals(1, this.taskList.searchTasks("bread", true).size(), "Task left should still be found.");
+        assertFalse(this.taskList.searchTasks("bread", true).get(0).isCompleted(), "Task left is incomplete.");
+    }
+
+    @Test
+    public void testFindTasks() {
+        Random random = new Random(0);
+        String[] words = new String[]{"Fix", "fixture", "ship", "spaceship", "Miller", "mill", "a", "ab"};
+        // Find before changing the task list, so that the index is kept up to date with every change.
+        assertTrue(this.taskList.findTasks("ship").isEmpty(), "Empty task list should have no tasks found.");
+        for (int i = 0; i < 3000; i++) {
+            this.taskList.addTask(new ToDoTask(words[random.nextInt(words.length)] + " "
+                    + words[random.nextInt(words.length)]));
+            if (i % 3 == 0) {
+                this.taskList.setTaskComplete(random.nextInt(this.taskList.getLength()));
+            }
+        }
+        // Delete most tasks, so that the index drops them from its postings.
+        for (int i = 0; i < 2500; i++) {
+            this.taskList.deleteTask(random.nextInt(this.taskList.getLength()));
+        }
+
+        for (String keyword : new String[]{"ship", "Fix", "fix", "ill", "a", "p M", "hip fi", "gargantua"}) {
+            List<Task> expectedTasks = new ArrayList<>();
+            for (int i = 0; i < this.taskList.getLength(); i++) {
+                if (this.taskList.getTask(i).getTaskName().contains(keyword)) {
+                    expectedTasks.add(this.taskList.getTask(i));
+                }
+            }
+            List<Task> foundTasks = this.taskList.findTasks(keyword);
+            assertEquals(expectedTasks.size(), foundTasks.size(), "Every task containing the keyword should be found.");
+            assertEquals(expectedTasks.stream().filter(Task::isCompleted).count(),
+                    foundTasks.stream().filter(Task::isCompleted).count(),
+                    "Tasks found should keep their completion.");
+            assertTrue(foundTasks.containsAll(expectedTasks), "Every task containing the keyword should be found.");
+            assertEquals(expectedTasks.toString(), foundTasks.toString(),
+                    "Tasks found should be in the order they are in the task list.");
+        }
+    }
+
+    @Test
+    public void testFindTasksInListOrder() {
+        this.taskList.addTask(new ToDoTask("apple one"));
+        this.taskList.addTask(new ToDoTask("apple two"));
+        this.taskList.addTask(new ToDoTask("apple one"));
+        assertEquals("[[T][ ] apple one, [T][ ] apple two, [T][ ] apple one]",
+                this.taskList.findTasks("apple").toString(), "Copies of a task should be found at their positions.");
+
+        this.taskList.setTaskComplete(0);
+        assertEquals("[[T][x] apple one, [T][ ] apple two, [T][ ] apple one]",
+                this.taskList.findTasks("apple").toString(), "Marked task should be found at its position.");
+        assertEquals(this.taskList.findTasks("ap"), this.taskList.findTasks("apple"),
+                "Short and long keywords should find tasks in the same order.");
+
+        this.taskList.insertTask(1, new ToDoTask("apple three"));
+        this.taskList.deleteTask(0);
+        assertEquals("[[T][ ] apple three, [T][ ] apple two, [T][ ] apple one]",
+                this.taskList.findTasks("apple").toString(), "Tasks inserted should be found at their positions.");
+    }
+
+    @Test
+    public void testSearchTasksFuzzy() {
+        this.taskList.addTask(this.task1);
+        this.taskList.addTask(this.task3);
+        assertEquals(List.of(this.task1), this.taskList.searchTasksFuzzy("spacship", 1),
+                "Task with a word one edit away should be found.");
+        assertTrue(this.taskList.searchTasksFuzzy("spcship", 1).isEmpty(),
+                "Task with no word within the edits allowed should not be found.");
+        assertEquals(List.of(this.task3), this.taskList.searchTasksFuzzy("EXPLOR miler", 1),
+                "Tasks should be found ignoring case, with every keyword close to a word.");
+
+        // Delete and add many tasks, so that words no longer in any task are dropped from the index.
+        for (int i = 0; i < 200; i++) {
+            this.taskList.addTask(new ToDoTask("Word" + i));
+            this.taskList.deleteTask(this.taskList.getLength() - 1);
+        }
+        this.taskList.deleteTask(0);
+        assertTrue(this.taskList.searchTasksFuzzy("spaceship", 2).isEmpty(), "Deleted task should not be found.");
+        assertTrue(this.taskList.searchTasksFuzzy("word1", 1).isEmpty(), "Deleted task should not be found.");
+        assertEquals(1, this.taskList.searchTasksFuzzy("planet", 0).size(), "Task left should still be found.");
+
+        // Add tasks whose words are found through different words of the tree, in an order unlike the tree's.
+        this.taskList.addTask(new ToDoTask("Visit plant"));
+        this.taskList.addTask(new ToDoTask("Map planets"));
+        this.taskList.addTask(new ToDoTask("Visit plant"));
+        this.taskList.setTaskComplete(0);
+        assertEquals("[[E][x] Explore Miller's planet (from: Jan 1 2023 to: Jan 2 2025), [T][ ] Visit plant, "
+                + "[T][ ] Map planets, [T][ ] Visit plant]", this.taskList.searchTasksFuzzy("planet", 1).toString(),
+                "Tasks found should be in the order they are in the task list.");
+    }
+
+    @Test
+    public void testScanTasks() {
+        TaskList compactTaskList = TaskList.createCompactTaskList();
+        List<Task> expectedTasks = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Task task = new ToDoTask("Task " + i);
+            compactTaskList.addTask(task);
+            if (i % 7 == 0) {
+                expectedTasks.add(task);
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<Task> foundTasks = compactTaskList.scanTasks(
+                    task -> Integer.parseInt(task.getTaskName().substring(5)) % 7 == 0, pool, 16);
+            assertEquals(expectedTasks, foundTasks, "Tasks found in parallel should be in the order of the list.");
+        } finally {
+            pool.shutdown();
+        }
+        assertTrue(this.taskList.scanTasks(task -> true).isEmpty(), "Empty task list should have no tasks found.");
+        assertEquals(271, compactTaskList.findTasks("1").size(),
+                "Keywords too short for the index should be found by scanning.");
+    }
+
+    @Test
+    public void testConcurrentTaskList() throws InterruptedException {
+        TaskList concurrentTaskList = TaskList.createConcurrentTaskList();
+        concurrentTaskList.addTask(this.task1);
+        TaskList snapshot = concurrentTaskList.snapshot();
+        concurrentTaskList.addTask(this.task2);
+        concurrentTaskList.setTaskComplete(0);
+        assertEquals(1, snapshot.getLength(), "Snapshot should not see tasks added after it was taken.");
+        assertFalse(snapshot.getTask(0).isCompleted(), "Snapshot should not see tasks changed after it was taken.");
+        assertEquals(2, concurrentTaskList.getLength(), "Concurrent task list should hold every task added.");
+
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 2000; i++) {
+                concurrentTaskList.addTask(new ToDoTask("Task " + i));
+                if (i % 3 == 0) {
+                    concurrentTaskList.deleteTask(concurrentTaskList.getLength() - 1);
+                }
+            }
+        });
+        writer.start();
+        List<String> renderedTaskLists = new ArrayList<>();
+        while (writer.isAlive()) {
+            renderedTaskLists.add(concurrentTaskList.toString());
+        }
+        writer.join();
+
+        for (String renderedTaskList : renderedTaskLists) {
+            String[] lines = renderedTaskList.split("\n");
+            for (int i = 0; i < lines.length; i++) {
+                assertTrue(lines[i].startsWith((i + 1) + ". "),
+                        "Tasks read while changed should be numbered in order.");
+            }
+        }
+        assertEquals(1335, concurrentTaskList.getLength(), "Concurrent task list should keep every change.");
+        assertEquals(1333, concurrentTaskList.countTasks('T', false), "Counts should be kept with every change.");
+    }
+
+    @Test
+    public void testPersistentTaskList() {
+        PersistentTaskSequence sequence = new PersistentTaskSequence();
+        List<Task> expectedTasks = new ArrayList<>();
+        List<PersistentTaskSequence> snapshots = new ArrayList<>();
+        List<List<Task>> expectedSnapshots = new ArrayList<>();
+        Random random = new Random(23);
+        for (int i = 0; i < PersistentTaskSequence.MAX_CHUNK_SIZE * 100; i++) {
+            // Add and delete tasks at random positions, so that chunks are split and dropped in every way.
+            if (!expectedTasks.isEmpty() && random.nextInt(3) == 0) {
+                int taskIdx = random.nextInt(expectedTasks.size());
+                assertEquals(expectedTasks.remove(taskIdx), sequence.remove(taskIdx),
+                        "Deleted task should be the one at the position given.");
+            } else {
+                Task task = new ToDoTask("Task " + i);
+                int taskIdx = random.nextInt(expectedTasks.size() + 1);
+                sequence.add(taskIdx, task);
+                expectedTasks.add(taskIdx, task);
+            }
+            if (i % 100 == 0) {
+                snapshots.add(sequence.snapshot());
+                expectedSnapshots.add(new ArrayList<>(expectedTasks));
+            }
+        }
+        assertEquals(expectedTasks, sequence, "Sequence should hold every task at the position it was added.");
+        assertEquals(expectedSnapshots, snapshots, "Snapshots should not see changes made after they were taken.");
+
+        TaskList persistentTaskList = TaskList.createPersistentTaskList();
+        persistentTaskList.addTask(this.task1);
+        persistentTaskList.addTask(this.task2);
+        TaskList snapshot = persistentTaskList.snapshot();
+        snapshot.setTaskComplete(0);
+        snapshot.deleteTask(1);
+        persistentTaskList.addTask(this.task3);
+        assertEquals(1, snapshot.getLength(), "Snapshot should be changed like any task list.");
+        assertTrue(snapshot.getTask(0).isCompleted(), "Snapshot should keep changes made to it.");
+        assertEquals(3, persistentTaskList.getLength(), "Changing a snapshot should not change its task list.");
+        assertFalse(persistentTaskList.getTask(0).isCompleted(), "Task list should not see changes to its snapshot.");
+    }
+
+    @Test
+    public void testInverseMutations() {
+        TaskList compactTaskList = TaskList.createCompactTaskList();
+        compactTaskList.addTask(this.task1);
+        compactTaskList.addTask(this.task2);
+        compactTaskList.addTask(this.task3);
+        String originalTaskList = compactTaskList.toString();
+        assertEquals(1, compactTaskList.findTasks("earth").size(), "Task should be indexed before any change.");
+
+        List<TaskListMutation> mutations = List.of(
+                TaskListMutation.createDeleteMutation(1, compactTaskList.getTask(1)),
+                TaskListMutation.createSetCompleteMutation(0),
+                TaskListMutation.createAddMutation(2, new ToDoTask("Dock with Endurance")),
+                TaskListMutation.createInsertMutation(0, new ToDoTask("Wake up Mann")),
+                TaskListMutation.createDeleteMutation(2, this.task3));
+        for (TaskListMutation mutation : mutations) {
+            mutation.applyTo(compactTaskList);
+        }
+        assertEquals(0, compactTaskList.findTasks("earth").size(), "Deleted task should not be found.");
+        for (int i = mutations.size() - 1; i >= 0; i--) {
+            mutations.get(i).inverse().applyTo(compactTaskList);
+        }
+
+        assertEquals(originalTaskList, compactTaskList.toString(), "Inverse mutations should undo every change.");
+        assertEquals(1, compactTaskList.countTasks('T', false), "Counts should be restored by inverse mutations.");
+        assertEquals(1, compactTaskList.findTasks("earth").size(), "Task put back should be indexed again.");
+    }
 }
@@ -6,6 +6,11 @@ if not exist ..\bin mkdir ..\bin
 REM delete output from previous run
 if exist ACTUAL.TXT del ACTUAL.TXT
 
+REM delete saved file, its journal and its lock from previous run
+if exist KIPP.txt del KIPP.txt
+if exist KIPP.txt.journal* del KIPP.txt.journal*
+if exist KIPP.txt.lock del KIPP.txt.lock
+
 REM compile the code into the bin folder
 javac  -cp ..\src\main\java -Xlint:none -d ..\bin ..\src\main\java\kippchatcli\*.java
 IF ERRORLEVEL 1 (
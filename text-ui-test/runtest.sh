@@ -10,10 +10,8 @@ if [ -e "./ACTUAL.TXT" ]; then
   rm ACTUAL.TXT
 fi
 
-# delete saved file from previous run
-if [ -e "./KIPP.txt" ]; then
-  rm KIPP.txt
-fi
+# delete saved file, its journal and its lock from previous run
+rm -f KIPP.txt KIPP.txt.journal* KIPP.txt.lock
 
 # compile the code into the bin folder, terminates if error occurred
 if ! javac -cp ../src/main/java -Xlint:none -d ../bin ../src/main/java/kippchatcli/KippChatCli.java; then